@@ -0,0 +1,323 @@
+package graphicsLibrary;
+
+/**
+ * A class to represent the extent of a shape, as both an axis-aligned box and
+ * a sphere.
+ *
+ * Either one alone can be much larger than the shape: the box of a long, thin
+ * shape at an angle, or the sphere of a flat one. Queries check both, so
+ * something is only reported as touching if it touches both.
+ *
+ * A new {@code Bounds} is empty, and contains nothing.
+ *
+ * @author caudeljn
+ *
+ */
+public class Bounds {
+	private double minX, minY, minZ;
+	private double maxX, maxY, maxZ;
+	private double centerX, centerY, centerZ;
+	private double radius;
+
+	/**
+	 * Constructs a new, empty {@code Bounds}.
+	 */
+	public Bounds() {
+		this.setEmpty();
+	}
+
+	/**
+	 * Constructs a copy of the given {@code Bounds}.
+	 */
+	public Bounds(Bounds b) {
+		this.set(b);
+	}
+
+	public double getMinX() {
+		return this.minX;
+	}
+
+	public double getMinY() {
+		return this.minY;
+	}
+
+	public double getMinZ() {
+		return this.minZ;
+	}
+
+	public double getMaxX() {
+		return this.maxX;
+	}
+
+	public double getMaxY() {
+		return this.maxY;
+	}
+
+	public double getMaxZ() {
+		return this.maxZ;
+	}
+
+	/**
+	 * Returns the x-coordinate of the center of the bounding sphere.
+	 */
+	public double getCenterX() {
+		return this.centerX;
+	}
+
+	public double getCenterY() {
+		return this.centerY;
+	}
+
+	public double getCenterZ() {
+		return this.centerZ;
+	}
+
+	/**
+	 * Returns the radius of the bounding sphere, which is negative when empty.
+	 */
+	public double getRadius() {
+		return this.radius;
+	}
+
+	public boolean isEmpty() {
+		return this.radius < 0;
+	}
+
+	/**
+	 * Makes the {@code Bounds} empty.
+	 *
+	 * @return this {@code Bounds}
+	 */
+	public Bounds setEmpty() {
+		this.minX = Double.POSITIVE_INFINITY;
+		this.minY = Double.POSITIVE_INFINITY;
+		this.minZ = Double.POSITIVE_INFINITY;
+		this.maxX = Double.NEGATIVE_INFINITY;
+		this.maxY = Double.NEGATIVE_INFINITY;
+		this.maxZ = Double.NEGATIVE_INFINITY;
+		this.centerX = 0;
+		this.centerY = 0;
+		this.centerZ = 0;
+		this.radius = -1;
+		return this;
+	}
+
+	public Bounds set(Bounds b) {
+		this.minX = b.minX;
+		this.minY = b.minY;
+		this.minZ = b.minZ;
+		this.maxX = b.maxX;
+		this.maxY = b.maxY;
+		this.maxZ = b.maxZ;
+		this.centerX = b.centerX;
+		this.centerY = b.centerY;
+		this.centerZ = b.centerZ;
+		this.radius = b.radius;
+		return this;
+	}
+
+	/**
+	 * Sets the box and the sphere.
+	 *
+	 * @return this {@code Bounds}
+	 */
+	public Bounds set(double minX, double minY, double minZ, double maxX,
+			double maxY, double maxZ, double centerX, double centerY,
+			double centerZ, double radius) {
+		this.minX = minX;
+		this.minY = minY;
+		this.minZ = minZ;
+		this.maxX = maxX;
+		this.maxY = maxY;
+		this.maxZ = maxZ;
+		this.centerX = centerX;
+		this.centerY = centerY;
+		this.centerZ = centerZ;
+		this.radius = radius;
+		return this;
+	}
+
+	/**
+	 * Fits the {@code Bounds} around the given points, stored as x, y, z
+	 * triples. The box is exact; the sphere is centered on the box.
+	 *
+	 * @param coords
+	 *            -points to fit
+	 * @param count
+	 *            -number of points
+	 * @return this {@code Bounds}
+	 */
+	public Bounds fit(double[] coords, int count) {
+		return this.fit(coords, null, count, 0, 0, 0);
+	}
+
+	/**
+	 * Fits the {@code Bounds} around the given points, stored as x, y, z
+	 * triples of floats relative to the given origin.
+	 *
+	 * @return this {@code Bounds}
+	 */
+	public Bounds fit(float[] coords, int count, double originX,
+			double originY, double originZ) {
+		return this.fit(null, coords, count, originX, originY, originZ);
+	}
+
+	private Bounds fit(double[] v, float[] f, int count, double originX,
+			double originY, double originZ) {
+		this.setEmpty();
+		if (count == 0) {
+			return this;
+		}
+		double x0 = Double.POSITIVE_INFINITY, y0 = x0, z0 = x0;
+		double x1 = Double.NEGATIVE_INFINITY, y1 = x1, z1 = x1;
+		int n = 3 * count;
+		for (int i = 0; i < n; i += 3) {
+			double x = v != null ? v[i] : f[i];
+			double y = v != null ? v[i + 1] : f[i + 1];
+			double z = v != null ? v[i + 2] : f[i + 2];
+			x0 = Math.min(x0, x);
+			y0 = Math.min(y0, y);
+			z0 = Math.min(z0, z);
+			x1 = Math.max(x1, x);
+			y1 = Math.max(y1, y);
+			z1 = Math.max(z1, z);
+		}
+		double cx = (x0 + x1) / 2;
+		double cy = (y0 + y1) / 2;
+		double cz = (z0 + z1) / 2;
+		double max = 0;
+		for (int i = 0; i < n; i += 3) {
+			double x = v != null ? v[i] : f[i];
+			double y = v != null ? v[i + 1] : f[i + 1];
+			double z = v != null ? v[i + 2] : f[i + 2];
+			max = Math.max(max,
+					Vector.magnitudeSquared(x - cx, y - cy, z - cz));
+		}
+		return this.set(originX + x0, originY + y0, originZ + z0, originX + x1,
+				originY + y1, originZ + z1, originX + cx, originY + cy,
+				originZ + cz, Math.sqrt(max));
+	}
+
+	/**
+	 * Moves the {@code Bounds} by the given amount.
+	 *
+	 * @return this {@code Bounds}
+	 */
+	public Bounds translate(double dx, double dy, double dz) {
+		if (this.isEmpty()) {
+			return this;
+		}
+		return this.set(this.minX + dx, this.minY + dy, this.minZ + dz,
+				this.maxX + dx, this.maxY + dy, this.maxZ + dz, this.centerX
+						+ dx, this.centerY + dy, this.centerZ + dz,
+				this.radius);
+	}
+
+	/**
+	 * Stores bounds of this {@code Bounds} after the given affine transform in
+	 * dst, which may be this {@code Bounds}. The new box holds the whole
+	 * transformed box, so after a rotation it is larger than a box fitted to
+	 * the transformed points would be. The sphere stays tight for rotations
+	 * and even scales.
+	 *
+	 * @param m
+	 *            -transform to apply
+	 * @param dst
+	 *            -bounds to store the result in
+	 * @return dst
+	 */
+	public Bounds transformInto(Matrix4 m, Bounds dst) {
+		if (this.isEmpty()) {
+			return dst.setEmpty();
+		}
+		double hx = (this.maxX - this.minX) / 2;
+		double hy = (this.maxY - this.minY) / 2;
+		double hz = (this.maxZ - this.minZ) / 2;
+		double bx = (this.maxX + this.minX) / 2;
+		double by = (this.maxY + this.minY) / 2;
+		double bz = (this.maxZ + this.minZ) / 2;
+		double cx = this.centerX, cy = this.centerY, cz = this.centerZ;
+		double m00 = m.getEntry(0, 0), m01 = m.getEntry(0, 1);
+		double m02 = m.getEntry(0, 2), m03 = m.getEntry(0, 3);
+		double m10 = m.getEntry(1, 0), m11 = m.getEntry(1, 1);
+		double m12 = m.getEntry(1, 2), m13 = m.getEntry(1, 3);
+		double m20 = m.getEntry(2, 0), m21 = m.getEntry(2, 1);
+		double m22 = m.getEntry(2, 2), m23 = m.getEntry(2, 3);
+		// The box center moves as a point, and each half-width grows by the
+		// absolute values of the matrix.
+		double nx = m00 * bx + m01 * by + m02 * bz + m03;
+		double ny = m10 * bx + m11 * by + m12 * bz + m13;
+		double nz = m20 * bx + m21 * by + m22 * bz + m23;
+		double ex = Math.abs(m00) * hx + Math.abs(m01) * hy + Math.abs(m02) * hz;
+		double ey = Math.abs(m10) * hx + Math.abs(m11) * hy + Math.abs(m12) * hz;
+		double ez = Math.abs(m20) * hx + Math.abs(m21) * hy + Math.abs(m22) * hz;
+		// The sphere grows by the longest column, the most any direction is
+		// stretched.
+		double scale = Math.max(Vector.magnitudeSquared(m00, m10, m20), Math
+				.max(Vector.magnitudeSquared(m01, m11, m21),
+						Vector.magnitudeSquared(m02, m12, m22)));
+		return dst.set(nx - ex, ny - ey, nz - ez, nx + ex, ny + ey, nz + ez,
+				m00 * cx + m01 * cy + m02 * cz + m03, m10 * cx + m11 * cy + m12
+						* cz + m13, m20 * cx + m21 * cy + m22 * cz + m23,
+				this.radius * Math.sqrt(scale));
+	}
+
+	/**
+	 * Returns whether the given point is inside both the box and the sphere.
+	 */
+	public boolean contains(double x, double y, double z) {
+		return x >= this.minX && x <= this.maxX && y >= this.minY
+				&& y <= this.maxY && z >= this.minZ && z <= this.maxZ
+				&& Vector.magnitudeSquared(x - this.centerX, y - this.centerY,
+						z - this.centerZ) <= this.radius * this.radius;
+	}
+
+	public boolean contains(Point p) {
+		return this.contains(p.getX(), p.getY(), p.getZ());
+	}
+
+	/**
+	 * Returns whether the given sphere touches both the box and the sphere.
+	 */
+	public boolean intersectsSphere(double x, double y, double z, double r) {
+		if (this.isEmpty() || r < 0) {
+			return false;
+		}
+		double reach = this.radius + r;
+		if (Vector.magnitudeSquared(x - this.centerX, y - this.centerY, z
+				- this.centerZ) > reach * reach) {
+			return false;
+		}
+		// Distance from the sphere's center to the nearest point of the box.
+		double dx = Math.max(Math.max(this.minX - x, x - this.maxX), 0);
+		double dy = Math.max(Math.max(this.minY - y, y - this.maxY), 0);
+		double dz = Math.max(Math.max(this.minZ - z, z - this.maxZ), 0);
+		return Vector.magnitudeSquared(dx, dy, dz) <= r * r;
+	}
+
+	/**
+	 * Returns whether the two {@code Bounds} might overlap: both their boxes
+	 * and their spheres do.
+	 */
+	public boolean intersects(Bounds b) {
+		if (this.isEmpty() || b.isEmpty()) {
+			return false;
+		}
+		if (this.minX > b.maxX || b.minX > this.maxX || this.minY > b.maxY
+				|| b.minY > this.maxY || this.minZ > b.maxZ
+				|| b.minZ > this.maxZ) {
+			return false;
+		}
+		double reach = this.radius + b.radius;
+		return Vector.magnitudeSquared(b.centerX - this.centerX, b.centerY
+				- this.centerY, b.centerZ - this.centerZ) <= reach * reach;
+	}
+
+	@Override
+	public String toString() {
+		return "[(" + this.minX + ", " + this.minY + ", " + this.minZ + ") - ("
+				+ this.maxX + ", " + this.maxY + ", " + this.maxZ + "), ("
+				+ this.centerX + ", " + this.centerY + ", " + this.centerZ
+				+ ") r " + this.radius + "]";
+	}
+}
@@ -0,0 +1,319 @@
+package graphicsLibrary;
+
+/**
+ * A class to represent a perspective camera.
+ *
+ * The view and projection matrices use the same conventions as OpenGL: the
+ * camera looks down its negative z-axis, and the projection maps the view
+ * frustum to the cube from -1 to 1. Both, and the six planes of the frustum,
+ * are cached and only worked out again after the camera changes.
+ *
+ * {@link #isVisible(Bounds)} tests whether anything inside some
+ * {@link Bounds} might be seen, so shapes can be skipped before they are
+ * lit and drawn; see
+ * {@link Shape#fillShape(java.awt.Color, Point, int, Camera)}.
+ *
+ * @author caudeljn
+ *
+ */
+public class Camera {
+	/**
+	 * The height of the view, in pixels, until another is set.
+	 */
+	public static final int DEFAULT_VIEWPORT_HEIGHT = 600;
+
+	// Planes are stored as a, b, c, d, with ax + by + cz + d >= 0 inside.
+	private static final int LEFT = 0, RIGHT = 4, BOTTOM = 8, TOP = 12,
+			NEAR = 16, FAR = 20;
+
+	private double eyeX, eyeY, eyeZ;
+	private double targetX, targetY, targetZ = -1;
+	private double upX, upY = 1, upZ;
+	private double fovY, aspect, near, far;
+	private int viewportHeight = DEFAULT_VIEWPORT_HEIGHT;
+
+	private boolean dirty = true;
+	private final Matrix4 view = new Matrix4();
+	private final Matrix4 projection = new Matrix4();
+	private final Matrix4 viewProjection = new Matrix4();
+	private final double[] planes = new double[24];
+
+	/**
+	 * Constructs a new {@code Camera} at (0, 0, 0), looking down the negative
+	 * z-axis, with y up.
+	 *
+	 * @param fovY
+	 *            -vertical field of view, in radians
+	 * @param aspect
+	 *            -width of the view over its height
+	 * @param near
+	 *            -distance to the near plane
+	 * @param far
+	 *            -distance to the far plane
+	 */
+	public Camera(double fovY, double aspect, double near, double far) {
+		this.setPerspective(fovY, aspect, near, far);
+	}
+
+	/**
+	 * Sets the shape of the view frustum.
+	 *
+	 * @param fovY
+	 *            -vertical field of view, in radians
+	 * @param aspect
+	 *            -width of the view over its height
+	 * @param near
+	 *            -distance to the near plane, more than zero
+	 * @param far
+	 *            -distance to the far plane, more than near
+	 * @throws IllegalArgumentException
+	 *             if the planes are out of order
+	 */
+	public void setPerspective(double fovY, double aspect, double near,
+			double far) throws IllegalArgumentException {
+		if (!(near > 0 && far > near)) {
+			throw new IllegalArgumentException("Need 0 < near < far");
+		}
+		this.fovY = fovY;
+		this.aspect = aspect;
+		this.near = near;
+		this.far = far;
+		this.dirty = true;
+	}
+
+	/**
+	 * Moves the camera to the given point, and points it at the given
+	 * target.
+	 *
+	 * @param eye
+	 *            -position of the camera
+	 * @param target
+	 *            -point to look at
+	 * @param up
+	 *            -direction that should be up on the screen
+	 */
+	public void lookAt(Point eye, Point target, Vector up) {
+		this.eyeX = eye.getX();
+		this.eyeY = eye.getY();
+		this.eyeZ = eye.getZ();
+		this.targetX = target.getX();
+		this.targetY = target.getY();
+		this.targetZ = target.getZ();
+		this.upX = up.getX();
+		this.upY = up.getY();
+		this.upZ = up.getZ();
+		this.dirty = true;
+	}
+
+	/**
+	 * Moves the camera and its target by the given amount, so it keeps
+	 * looking the same way.
+	 */
+	public void translate(double dx, double dy, double dz) {
+		this.eyeX += dx;
+		this.eyeY += dy;
+		this.eyeZ += dz;
+		this.targetX += dx;
+		this.targetY += dy;
+		this.targetZ += dz;
+		this.dirty = true;
+	}
+
+	/**
+	 * Returns a new {@link Point} at the position of the camera.
+	 */
+	public Point getEye() {
+		return new Point(this.eyeX, this.eyeY, this.eyeZ);
+	}
+
+	public double getEyeX() {
+		return this.eyeX;
+	}
+
+	public double getEyeY() {
+		return this.eyeY;
+	}
+
+	public double getEyeZ() {
+		return this.eyeZ;
+	}
+
+	public double getFovY() {
+		return this.fovY;
+	}
+
+	public double getAspect() {
+		return this.aspect;
+	}
+
+	public double getNear() {
+		return this.near;
+	}
+
+	public double getFar() {
+		return this.far;
+	}
+
+	public int getViewportHeight() {
+		return this.viewportHeight;
+	}
+
+	/**
+	 * Sets the height of the view in pixels, which shapes drawn with this
+	 * camera use to pick their level of detail.
+	 *
+	 * @param viewportHeight
+	 *            -height of the view, in pixels
+	 * @throws IllegalArgumentException
+	 *             if the height is not positive
+	 */
+	public void setViewportHeight(int viewportHeight)
+			throws IllegalArgumentException {
+		if (viewportHeight <= 0) {
+			throw new IllegalArgumentException("Viewport height must be positive");
+		}
+		this.viewportHeight = viewportHeight;
+	}
+
+	/**
+	 * Returns the focal length in pixels for a view of the height set by
+	 * {@link #setViewportHeight(int)}.
+	 */
+	public double getFocalLength() {
+		return this.getFocalLength(this.viewportHeight);
+	}
+
+	/**
+	 * Returns the focal length in pixels for a view of the given height, for
+	 * use with {@link Shape#updateLevelOfDetail(Point, double)}.
+	 */
+	public double getFocalLength(int viewportHeight) {
+		return LevelOfDetail.focalLength(this.fovY, viewportHeight);
+	}
+
+	/**
+	 * Returns the world-to-view matrix.
+	 *
+	 * @return view matrix, not a copy
+	 */
+	public Matrix4 getViewMatrix() {
+		this.update();
+		return this.view;
+	}
+
+	/**
+	 * Returns the view-to-clip matrix.
+	 *
+	 * @return projection matrix, not a copy
+	 */
+	public Matrix4 getProjectionMatrix() {
+		this.update();
+		return this.projection;
+	}
+
+	/**
+	 * Returns the world-to-clip matrix, the projection times the view.
+	 *
+	 * @return view-projection matrix, not a copy
+	 */
+	public Matrix4 getViewProjectionMatrix() {
+		this.update();
+		return this.viewProjection;
+	}
+
+	/**
+	 * Returns whether anything inside the given sphere might be seen.
+	 */
+	public boolean isVisible(double x, double y, double z, double radius) {
+		this.update();
+		double[] p = this.planes;
+		for (int i = 0; i < 24; i += 4) {
+			if (p[i] * x + p[i + 1] * y + p[i + 2] * z + p[i + 3] < -radius) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns whether anything inside the given {@link Bounds} might be seen.
+	 * The sphere is tested first, then the corner of the box furthest inside
+	 * each plane.
+	 */
+	public boolean isVisible(Bounds b) {
+		if (b.isEmpty()
+				|| !this.isVisible(b.getCenterX(), b.getCenterY(),
+						b.getCenterZ(), b.getRadius())) {
+			return false;
+		}
+		double[] p = this.planes;
+		for (int i = 0; i < 24; i += 4) {
+			double x = p[i] >= 0 ? b.getMaxX() : b.getMinX();
+			double y = p[i + 1] >= 0 ? b.getMaxY() : b.getMinY();
+			double z = p[i + 2] >= 0 ? b.getMaxZ() : b.getMinZ();
+			if (p[i] * x + p[i + 1] * y + p[i + 2] * z + p[i + 3] < 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Works out the matrices and planes again if the camera has changed.
+	 */
+	private void update() {
+		if (!this.dirty) {
+			return;
+		}
+		this.dirty = false;
+
+		// Forward, side and up axes of the camera.
+		double fx = this.targetX - this.eyeX;
+		double fy = this.targetY - this.eyeY;
+		double fz = this.targetZ - this.eyeZ;
+		double length = Vector.magnitude(fx, fy, fz);
+		fx /= length;
+		fy /= length;
+		fz /= length;
+		double sx = Vector.crossX(fx, fy, fz, this.upX, this.upY, this.upZ);
+		double sy = Vector.crossY(fx, fy, fz, this.upX, this.upY, this.upZ);
+		double sz = Vector.crossZ(fx, fy, fz, this.upX, this.upY, this.upZ);
+		length = Vector.magnitude(sx, sy, sz);
+		sx /= length;
+		sy /= length;
+		sz /= length;
+		double ux = Vector.crossX(sx, sy, sz, fx, fy, fz);
+		double uy = Vector.crossY(sx, sy, sz, fx, fy, fz);
+		double uz = Vector.crossZ(sx, sy, sz, fx, fy, fz);
+		double ex = this.eyeX, ey = this.eyeY, ez = this.eyeZ;
+		this.view.set(sx, sy, sz, -Vector.dot(sx, sy, sz, ex, ey, ez), ux, uy,
+				uz, -Vector.dot(ux, uy, uz, ex, ey, ez), -fx, -fy, -fz,
+				Vector.dot(fx, fy, fz, ex, ey, ez), 0, 0, 0, 1);
+
+		double f = 1 / Math.tan(this.fovY / 2);
+		double n = this.near;
+		double r = this.far;
+		this.projection.set(f / this.aspect, 0, 0, 0, 0, f, 0, 0, 0, 0,
+				(r + n) / (n - r), 2 * r * n / (n - r), 0, 0, -1, 0);
+		Matrix4.multiplyInto(this.projection, this.view, this.viewProjection);
+
+		// Each plane is the last row of the matrix plus or minus another.
+		Matrix4 m = this.viewProjection;
+		for (int j = 0; j < 4; j++) {
+			double w = m.getEntry(3, j);
+			this.planes[LEFT + j] = w + m.getEntry(0, j);
+			this.planes[RIGHT + j] = w - m.getEntry(0, j);
+			this.planes[BOTTOM + j] = w + m.getEntry(1, j);
+			this.planes[TOP + j] = w - m.getEntry(1, j);
+			this.planes[NEAR + j] = w + m.getEntry(2, j);
+			this.planes[FAR + j] = w - m.getEntry(2, j);
+		}
+		for (int i = 0; i < 24; i += 4) {
+			double scale = Vector.magnitude(this.planes[i],
+					this.planes[i + 1], this.planes[i + 2]);
+			for (int j = 0; j < 4; j++) {
+				this.planes[i + j] /= scale;
+			}
+		}
+	}
+}
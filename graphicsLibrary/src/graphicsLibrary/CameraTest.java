@@ -0,0 +1,62 @@
+package graphicsLibrary;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class CameraTest {
+
+	@Test
+	public void testFrustum() {
+		Camera camera = new Camera(Math.PI / 2, 1, 1, 100);
+		camera.lookAt(new Point(0, 0, 10), new Point(0, 0, 0), new Vector(0,
+				1, 0));
+		assertTrue(camera.isVisible(0, 0, 0, 1));
+		assertFalse(camera.isVisible(0, 0, 20, 1));
+		assertFalse(camera.isVisible(0, 0, -200, 1));
+		// The view is 90 degrees wide, so x = 10 is at the edge at z = 0.
+		assertTrue(camera.isVisible(10.5, 0, 0, 1));
+		assertFalse(camera.isVisible(12, 0, 0, 1));
+
+		Point p = camera.getViewProjectionMatrix().transformPoint(
+				new Point(0, 0, 9));
+		assertEquals(0, p.getX(), 1e-12);
+		assertEquals(-1, p.getZ(), 1e-12);
+
+		Shape near = Shape.newSphere(0, 0, 0, 1, 2);
+		Shape behind = Shape.newSphere(0, 0, 15, 1, 2);
+		assertTrue(camera.isVisible(near.getBounds()));
+		assertFalse(camera.isVisible(behind.getBounds()));
+	}
+
+	@Test
+	public void testBackFaceCulling() {
+		Camera camera = new Camera(Math.PI / 2, 1, 1, 100);
+		camera.lookAt(new Point(0, 0, 20), new Point(0, 0, 0), new Vector(0,
+				1, 0));
+		for (Shape s : new Shape[] { Shape.newSphere(0, 0, 0, 2, 6),
+				Shape.newSphereInstance(0, 0, 0, 2, 6) }) {
+			RecordingBackend backend = new RecordingBackend();
+			s.setRenderBackend(backend);
+			assertTrue(s.drawShape(new Point(5, 5, 5), 0, camera));
+			assertEquals(0, s.getBackFaceCulledCount());
+			s.setBackFaceCulling(true);
+			s.drawShape(new Point(5, 5, 5), 0, camera);
+			int total = s.getMesh().getTriangleCount();
+			assertEquals(total, s.getDrawnCount() + s.getBackFaceCulledCount());
+			// About half of a sphere faces the camera.
+			assertTrue(s.getDrawnCount() <= total / 2);
+			assertTrue(s.getDrawnCount() > total / 3);
+			// And it is the half toward the camera, at +z.
+			float[] v = backend.getLastVertices();
+			int stride = RenderBackend.FLOATS_PER_VERTEX;
+			assertEquals(3 * s.getDrawnCount(), v.length / stride);
+			for (int t = 0; t < v.length; t += 3 * stride) {
+				double z = (v[t + 2] + v[t + stride + 2]
+						+ v[t + 2 * stride + 2]) / 3;
+				assertTrue(z > 0);
+			}
+		}
+	}
+
+}
@@ -14,6 +14,12 @@ public class ColorUtil {
 	public static final int SHADOW_MODE = 44;
 	public static final int FULL = 55;
 
+	/**
+	 * The number of steps the fraction is quantized to by
+	 * {@link #shade(int, double, int)}.
+	 */
+	public static final int SHADE_STEPS = 1024;
+
 	public static Color clone(Color c) {
 		return new Color(c.getRed(), c.getGreen(), c.getBlue());
 	}
@@ -22,51 +28,166 @@ public class ColorUtil {
 		return new Color(255 - c.getRed(), 255 - c.getGreen(), 255 - c.getBlue());
 	}
 
+	/**
+	 * Shades the given colour. Same as {@link #shade(int, double, int)}, and
+	 * always opaque.
+	 */
 	public static Color shade(Color c, double frac, int mode) {
-		double red = c.getRed()/255.0;
-		double green = c.getGreen()/255.0;
-		double blue = c.getBlue()/255.0;
-		
-		Color out;
-		
-		switch (mode) {
-		case ColorUtil.FULL_SHADE:
-			if (frac > 0 && frac < 1) {
+		return new Color(shade(c.getRGB(), frac, mode));
+	}
+
+	/**
+	 * Shades a colour packed as ARGB in an int, and makes no objects. The
+	 * fraction is quantized to one of {@link #SHADE_STEPS} steps, and each
+	 * channel looked up in a table built for the mode on first use, so the
+	 * result can differ from the exact arithmetic by a level or so. Channels
+	 * that would leave 0 to 255 are clamped. Alpha is kept.
+	 *
+	 * @param argb
+	 *            -colour to shade
+	 * @param frac
+	 *            -how far the surface is turned from the light, from 0 to 1;
+	 *            the colour is left as it is outside that range
+	 * @param mode
+	 *            -shading mode, such as {@link #FULL_SHADE}
+	 * @return shaded colour
+	 */
+	public static int shade(int argb, double frac, int mode) {
+		byte[][] tables = Tables.forMode(mode);
+		if (tables == null || !(frac > 0 && frac < 1)) {
+			return argb;
+		}
+		int step = (int) (frac * SHADE_STEPS) << 8;
+		return argb & 0xFF000000
+				| (tables[0][step | argb >> 16 & 0xFF] & 0xFF) << 16
+				| (tables[1][step | argb >> 8 & 0xFF] & 0xFF) << 8
+				| tables[2][step | argb & 0xFF] & 0xFF;
+	}
+
+	/**
+	 * Shades the first count colours of the given array, each by the
+	 * fraction at the same index, and stores them back. Same as
+	 * {@link #shade(int, double, int)} on each.
+	 *
+	 * @param argb
+	 *            -colours to shade, replaced by the shaded colours
+	 * @param fracs
+	 *            -fraction for each colour
+	 * @param count
+	 *            -number of colours
+	 * @param mode
+	 *            -shading mode
+	 */
+	public static void shade(int[] argb, double[] fracs, int count, int mode) {
+		byte[][] tables = Tables.forMode(mode);
+		if (tables == null) {
+			return;
+		}
+		byte[] red = tables[0], green = tables[1], blue = tables[2];
+		for (int i = 0; i < count; i++) {
+			double frac = fracs[i];
+			if (!(frac > 0 && frac < 1)) {
+				continue;
+			}
+			int c = argb[i];
+			int step = (int) (frac * SHADE_STEPS) << 8;
+			argb[i] = c & 0xFF000000 | (red[step | c >> 16 & 0xFF] & 0xFF) << 16
+					| (green[step | c >> 8 & 0xFF] & 0xFF) << 8
+					| blue[step | c & 0xFF] & 0xFF;
+		}
+	}
+
+	/**
+	 * Shades a packed RGB colour with the arithmetic the tables are built
+	 * from. Slower than {@link #shade(int, double, int)}, and always opaque.
+	 */
+	static int shadeExact(int rgb, double frac, int mode) {
+		double red = (rgb >> 16 & 0xFF) / 255.0;
+		double green = (rgb >> 8 & 0xFF) / 255.0;
+		double blue = (rgb & 0xFF) / 255.0;
+		if (frac > 0 && frac < 1) {
+			switch (mode) {
+			case ColorUtil.FULL_SHADE:
 				red *= frac;
 				green *= frac;
 				blue *= frac;
-			}
-			break;
-		case ColorUtil.HALF_SHADE:
-			if (frac > 0 && frac < 1) {
+				break;
+			case ColorUtil.HALF_SHADE:
 				red *= red * frac / 2.0 + 0.5;
 				green *= green * frac / 2.0 + 0.5;
 				blue *= blue * frac / 2.0 + 0.5;
-			}
-			break;
-		case ColorUtil.COLOR_SHIFT:
-			if (frac > 0 && frac < 1) {
-				red *= -Math.cos(frac * Math.PI) / 2.0 + (1 - frac / 2.0);
-				green *= -Math.cos(frac * Math.PI);
-				blue *= Math.cos(frac * Math.PI);
-			}
-			break;
-		case ColorUtil.SHADOW_MODE:
-			if (frac > 0 && frac < 1) {
-				double multiply = frac>=0.5?2*frac-1:0;
+				break;
+			case ColorUtil.COLOR_SHIFT:
+				double cos = Math.cos(frac * Math.PI);
+				red *= -cos / 2.0 + (1 - frac / 2.0);
+				green *= -cos;
+				blue *= cos;
+				break;
+			case ColorUtil.SHADOW_MODE:
+				double multiply = frac >= 0.5 ? 2 * frac - 1 : 0;
 				red *= multiply;
-				green *=multiply;
+				green *= multiply;
 				blue *= multiply;
+				break;
+			default:
+				// FULL, and unknown modes, leave the colour as it is.
+				break;
+			}
+		}
+		return 0xFF000000 | channel(red) << 16 | channel(green) << 8
+				| channel(blue);
+	}
+
+	private static int channel(double value) {
+		int c = (int) (value * 255);
+		return c < 0 ? 0 : c > 255 ? 255 : c;
+	}
+
+	/**
+	 * Tables for {@link ColorUtil#shade(int, double, int)}, built the first
+	 * time one is needed. For each mode there is a red, green and blue table,
+	 * the same table for modes that treat the channels alike, each indexed
+	 * by the step of the fraction times 256 plus the channel.
+	 */
+	private static final class Tables {
+		private static final byte[][] FULL_SHADE = build(ColorUtil.FULL_SHADE);
+		private static final byte[][] HALF_SHADE = build(ColorUtil.HALF_SHADE);
+		private static final byte[][] COLOR_SHIFT = build(ColorUtil.COLOR_SHIFT);
+		private static final byte[][] SHADOW_MODE = build(ColorUtil.SHADOW_MODE);
+
+		private static byte[][] forMode(int mode) {
+			switch (mode) {
+			case ColorUtil.FULL_SHADE:
+				return FULL_SHADE;
+			case ColorUtil.HALF_SHADE:
+				return HALF_SHADE;
+			case ColorUtil.COLOR_SHIFT:
+				return COLOR_SHIFT;
+			case ColorUtil.SHADOW_MODE:
+				return SHADOW_MODE;
+			default:
+				return null;
+			}
+		}
+
+		private static byte[][] build(int mode) {
+			byte[] red = new byte[256 * SHADE_STEPS];
+			byte[] green = mode == ColorUtil.COLOR_SHIFT ? new byte[red.length]
+					: red;
+			byte[] blue = mode == ColorUtil.COLOR_SHIFT ? new byte[red.length]
+					: red;
+			for (int step = 0; step < SHADE_STEPS; step++) {
+				// Each step stands for the fractions in it by its middle.
+				double frac = (step + 0.5) / SHADE_STEPS;
+				for (int c = 0; c < 256; c++) {
+					int rgb = shadeExact(c << 16 | c << 8 | c, frac, mode);
+					int i = step << 8 | c;
+					red[i] = (byte) (rgb >> 16);
+					green[i] = (byte) (rgb >> 8);
+					blue[i] = (byte) rgb;
+				}
 			}
-			break;
-		case ColorUtil.FULL:
-			break;
-		default:
-			out = shade(c, frac, ColorUtil.FULL_SHADE);
-			break;
+			return new byte[][] { red, green, blue };
 		}
-		
-		out = new Color((int) (red*255), (int) (green*255), (int) (blue*255));
-		return out;
 	}
 }
@@ -1,6 +1,11 @@
 package graphicsLibrary;
 
 public class Entity {
+	// Sphere meshes shared by every entity. When drawn with a Camera, switch
+	// levels as the radius on the screen drops below 40, 12 and 4 pixels.
+	private static final LevelOfDetail SPHERE_LOD = LevelOfDetail.sphere(
+			new int[] { 20, 8, 4, 2 }, new double[] { 40, 12, 4 }, 0.1);
+
 	private Shape shape;
 	private Point center;
 	private Vector velocity;
@@ -14,7 +19,9 @@ public class Entity {
 		this.mass = mass;
 		this.volume = radius * radius * radius * Math.PI * (4.0/3.0);
 		this.density = this.mass/this.volume;
-		this.shape = Shape.newSphere(Cx, Cy, Cz, radius, 20);
+		// Every entity shares the same sphere meshes, so moving the shape only
+		// moves its world matrix.
+		this.shape = Shape.newSphereInstance(Cx, Cy, Cz, radius, SPHERE_LOD);
 	}
 	
 	public Entity(Point center, Vector velocity, double radius, double mass){
@@ -33,12 +40,19 @@ public class Entity {
 		return center;
 	}
 
+	/**
+	 * Returns a copy of the velocity, which later calls to
+	 * {@link #accelerate(Vector)} do not change.
+	 */
 	public Vector getVelocity() {
-		return velocity;
+		return velocity.clone();
 	}
 
+	/**
+	 * Sets the velocity to a copy of the given {@link Vector}.
+	 */
 	public void setVelocity(Vector velocity) {
-		this.velocity = velocity;
+		this.velocity.set(velocity);
 	}
 
 	public double getRadius() {
@@ -63,24 +77,28 @@ public class Entity {
 	}
 	
 	public void accelerate(Vector a){
-		this.velocity = Vector.add(this.velocity, a);
+		this.velocity.add(a);
 	}
 	
 	public boolean isColliding(Entity o){
-		double dis = (new Vector(this.getCenter(), o.getCenter()).getMagnitude());
-		return dis<=this.radius+o.radius;
+		double reach = this.radius + o.radius;
+		return Vector.distanceSquared(this.center, o.center) <= reach * reach;
 	}
 	
 	public void checkCollision(Entity o){
 		if (this.isColliding(o)) {
-			Vector normal = new Vector(o.getCenter(), this.getCenter());
-			Vector correct = new Vector(this.getCenter(), o.getCenter());
-			correct = correct.toUnitVector().multiply(this.radius+o.radius*0.5-
-					normal.getMagnitude()*0.5);
-			this.center.translate(correct.negative());
-			o.center.translate(correct);
-			this.shape.translate(correct.negative());
-			o.shape.translate(correct);
+			double dx = o.center.getX() - this.center.getX();
+			double dy = o.center.getY() - this.center.getY();
+			double dz = o.center.getZ() - this.center.getZ();
+			double dis = Vector.magnitude(dx, dy, dz);
+			double scale = (this.radius + o.radius * 0.5 - dis * 0.5) / dis;
+			dx *= scale;
+			dy *= scale;
+			dz *= scale;
+			this.center.translate(-dx, -dy, -dz);
+			o.center.translate(dx, dy, dz);
+			this.shape.translate(-dx, -dy, -dz);
+			o.shape.translate(dx, dy, dz);
 
 		}
 	}
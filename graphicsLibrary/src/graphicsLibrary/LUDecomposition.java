@@ -0,0 +1,220 @@
+package graphicsLibrary;
+
+/**
+ * The LU decomposition of a square {@link Matrix}, with partial pivoting.
+ *
+ * Factoring takes O(n^3) time once. After that, the determinant costs O(n),
+ * and each solve against a new right-hand side costs O(n^2), so one
+ * {@code LUDecomposition} should be kept and reused when solving against the
+ * same matrix many times.
+ *
+ * @author caudeljn
+ *
+ */
+public class LUDecomposition {
+	private final int n;
+	// L (below the diagonal, with an implied unit diagonal) and U (on and
+	// above the diagonal), row-major.
+	private final double[] lu;
+	// Row i of lu came from row pivot[i] of the original matrix.
+	private final int[] pivot;
+	private final int pivotSign;
+	private final boolean singular;
+
+	/**
+	 * Factors the given matrix.
+	 *
+	 * @param m
+	 *            -square matrix to factor
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if the matrix is not square
+	 */
+	public LUDecomposition(Matrix m) throws ArrayIndexOutOfBoundsException {
+		if (m.getWidth() != m.getHeight()) {
+			throw new ArrayIndexOutOfBoundsException();
+		}
+		int n = m.getHeight();
+		double[][] entries = m.toArray();
+		double[] lu = new double[n * n];
+		int[] pivot = new int[n];
+		for (int i = 0; i < n; i++) {
+			System.arraycopy(entries[i], 0, lu, i * n, n);
+			pivot[i] = i;
+		}
+		int sign = 1;
+		boolean singular = false;
+
+		for (int k = 0; k < n; k++) {
+			// Use the largest entry in the column as the pivot.
+			int p = k;
+			double max = Math.abs(lu[k * n + k]);
+			for (int i = k + 1; i < n; i++) {
+				double value = Math.abs(lu[i * n + k]);
+				if (value > max) {
+					max = value;
+					p = i;
+				}
+			}
+			if (p != k) {
+				for (int j = 0; j < n; j++) {
+					double swap = lu[p * n + j];
+					lu[p * n + j] = lu[k * n + j];
+					lu[k * n + j] = swap;
+				}
+				int swap = pivot[p];
+				pivot[p] = pivot[k];
+				pivot[k] = swap;
+				sign = -sign;
+			}
+
+			double diagonal = lu[k * n + k];
+			if (diagonal == 0) {
+				singular = true;
+				continue;
+			}
+			for (int i = k + 1; i < n; i++) {
+				double factor = lu[i * n + k] / diagonal;
+				lu[i * n + k] = factor;
+				if (factor != 0) {
+					for (int j = k + 1; j < n; j++) {
+						lu[i * n + j] -= factor * lu[k * n + j];
+					}
+				}
+			}
+		}
+
+		this.n = n;
+		this.lu = lu;
+		this.pivot = pivot;
+		this.pivotSign = sign;
+		this.singular = singular;
+	}
+
+	/**
+	 * Returns the size of the factored matrix.
+	 */
+	public int getSize() {
+		return this.n;
+	}
+
+	/**
+	 * Returns whether the factored matrix is singular, in which case it has
+	 * no inverse and cannot be solved against.
+	 */
+	public boolean isSingular() {
+		return this.singular;
+	}
+
+	/**
+	 * Returns the determinant of the factored matrix.
+	 *
+	 * @return determinant
+	 */
+	public double determinant() {
+		double det = this.pivotSign;
+		for (int i = 0; i < this.n; i++) {
+			det *= this.lu[i * this.n + i];
+		}
+		return det;
+	}
+
+	/**
+	 * Returns x such that Ax = b, where A is the factored matrix.
+	 *
+	 * @param b
+	 *            -right-hand side, of the same length as the matrix
+	 * @return new array holding x
+	 * @throws ArithmeticException
+	 *             if the matrix is singular
+	 */
+	public double[] solve(double[] b) throws ArithmeticException {
+		return this.solveInto(b, new double[this.n]);
+	}
+
+	/**
+	 * Stores x such that Ax = b in the given array, where A is the factored
+	 * matrix. x may be b.
+	 *
+	 * @return x
+	 * @throws ArithmeticException
+	 *             if the matrix is singular
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if b or x has the wrong length
+	 */
+	public double[] solveInto(double[] b, double[] x)
+			throws ArithmeticException, ArrayIndexOutOfBoundsException {
+		if (b.length != this.n || x.length != this.n) {
+			throw new ArrayIndexOutOfBoundsException();
+		}
+		if (this.singular) {
+			throw new ArithmeticException("Matrix is singular");
+		}
+		int n = this.n;
+		double[] lu = this.lu;
+		if (x == b) {
+			b = b.clone();
+		}
+		// Solve Ly = Pb.
+		for (int i = 0; i < n; i++) {
+			double sum = b[this.pivot[i]];
+			for (int j = 0; j < i; j++) {
+				sum -= lu[i * n + j] * x[j];
+			}
+			x[i] = sum;
+		}
+		// Solve Ux = y.
+		for (int i = n - 1; i >= 0; i--) {
+			double sum = x[i];
+			for (int j = i + 1; j < n; j++) {
+				sum -= lu[i * n + j] * x[j];
+			}
+			x[i] = sum / lu[i * n + i];
+		}
+		return x;
+	}
+
+	/**
+	 * Returns X such that AX = B, where A is the factored matrix. Each column
+	 * of B is solved separately.
+	 *
+	 * @param b
+	 *            -right-hand sides, with the same height as the matrix
+	 * @return X
+	 * @throws ArithmeticException
+	 *             if the matrix is singular
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if b has the wrong height
+	 */
+	public Matrix solve(Matrix b) throws ArithmeticException,
+			ArrayIndexOutOfBoundsException {
+		if (b.getHeight() != this.n) {
+			throw new ArrayIndexOutOfBoundsException();
+		}
+		int width = b.getWidth();
+		double[][] in = b.toArray();
+		double[][] out = new double[this.n][width];
+		double[] column = new double[this.n];
+		double[] solution = new double[this.n];
+		for (int j = 0; j < width; j++) {
+			for (int i = 0; i < this.n; i++) {
+				column[i] = in[i][j];
+			}
+			this.solveInto(column, solution);
+			for (int i = 0; i < this.n; i++) {
+				out[i][j] = solution[i];
+			}
+		}
+		return new Matrix(out);
+	}
+
+	/**
+	 * Returns the inverse of the factored matrix.
+	 *
+	 * @return inverse
+	 * @throws ArithmeticException
+	 *             if the matrix is singular
+	 */
+	public Matrix inverse() throws ArithmeticException {
+		return this.solve(Matrix.identity(this.n));
+	}
+}
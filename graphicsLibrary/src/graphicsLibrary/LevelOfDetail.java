@@ -0,0 +1,189 @@
+package graphicsLibrary;
+
+/**
+ * A chain of meshes for the same object at decreasing levels of detail.
+ *
+ * Level 0 is the most detailed. The level to draw is picked from the
+ * projected size of the object, such as its radius on the screen in pixels:
+ * level i is used while the size is at least {@code getMinSize(i)}, and the
+ * last level is used for anything smaller. To stop an object that sits near
+ * a limit from switching back and forth every frame, the size has to pass a
+ * limit by the hysteresis fraction before the level changes.
+ *
+ * The meshes are meant to be shared, like those of
+ * {@link Shape#newSphereInstance(double, double, double, double, int)}, so
+ * one {@code LevelOfDetail} serves any number of shapes.
+ *
+ * @author caudeljn
+ *
+ */
+public class LevelOfDetail {
+	private final Mesh[] levels;
+	private final double[] minSizes;
+	private final double hysteresis;
+
+	/**
+	 * Constructs a new {@code LevelOfDetail}.
+	 *
+	 * @param levels
+	 *            -meshes, most detailed first
+	 * @param minSizes
+	 *            -smallest projected size for each level but the last, in
+	 *            decreasing order
+	 * @param hysteresis
+	 *            -fraction by which the size must pass a limit to change
+	 *            level, such as 0.1
+	 * @throws IllegalArgumentException
+	 *             if there is not one size fewer than levels, or the sizes are
+	 *             not decreasing
+	 */
+	public LevelOfDetail(Mesh[] levels, double[] minSizes, double hysteresis)
+			throws IllegalArgumentException {
+		if (levels.length == 0 || minSizes.length != levels.length - 1) {
+			throw new IllegalArgumentException(
+					"Need one size fewer than levels");
+		}
+		for (int i = 1; i < minSizes.length; i++) {
+			if (!(minSizes[i] < minSizes[i - 1])) {
+				throw new IllegalArgumentException("Sizes must decrease");
+			}
+		}
+		this.levels = levels.clone();
+		this.minSizes = minSizes.clone();
+		this.hysteresis = hysteresis;
+	}
+
+	/**
+	 * Returns a chain of the shared unit spheres used by
+	 * {@link Shape#newSphereInstance(double, double, double, double, int)}.
+	 *
+	 * @param details
+	 *            -detail of each level, most detailed first
+	 * @param minSizes
+	 *            -smallest projected size for each level but the last
+	 * @param hysteresis
+	 *            -fraction by which the size must pass a limit to change
+	 *            level
+	 */
+	public static LevelOfDetail sphere(int[] details, double[] minSizes,
+			double hysteresis) throws IllegalArgumentException {
+		Mesh[] levels = new Mesh[details.length];
+		for (int i = 0; i < details.length; i++) {
+			levels[i] = Shape.sphereTemplate(details[i]);
+		}
+		return new LevelOfDetail(levels, minSizes, hysteresis);
+	}
+
+	/**
+	 * Returns a chain of simplified copies of the given mesh, made by
+	 * {@link MeshSimplifier}. Each level is simplified from the one before,
+	 * and the given mesh itself is used as level 0.
+	 *
+	 * @param mesh
+	 *            -most detailed mesh
+	 * @param triangleCounts
+	 *            -number of triangles to aim for at each level after the
+	 *            first
+	 * @param minSizes
+	 *            -smallest projected size for each level but the last
+	 * @param hysteresis
+	 *            -fraction by which the size must pass a limit to change
+	 *            level
+	 */
+	public static LevelOfDetail simplify(Mesh mesh, int[] triangleCounts,
+			double[] minSizes, double hysteresis)
+			throws IllegalArgumentException {
+		Mesh[] levels = new Mesh[triangleCounts.length + 1];
+		levels[0] = mesh;
+		for (int i = 0; i < triangleCounts.length; i++) {
+			levels[i + 1] = MeshSimplifier.simplify(levels[i],
+					triangleCounts[i], Double.POSITIVE_INFINITY);
+		}
+		return new LevelOfDetail(levels, minSizes, hysteresis);
+	}
+
+	public int getLevelCount() {
+		return this.levels.length;
+	}
+
+	public Mesh getMesh(int level) {
+		return this.levels[level];
+	}
+
+	/**
+	 * Returns the smallest projected size at which the given level is used.
+	 * The last level has a size of 0.
+	 */
+	public double getMinSize(int level) {
+		return level < this.minSizes.length ? this.minSizes[level] : 0;
+	}
+
+	public double getHysteresis() {
+		return this.hysteresis;
+	}
+
+	/**
+	 * Returns the level to use for the given projected size.
+	 *
+	 * @param current
+	 *            -level in use now, or -1 to pick without hysteresis
+	 * @param size
+	 *            -projected size, in the same units as the limits
+	 * @return level to use
+	 */
+	public int select(int current, double size) {
+		double[] limits = this.minSizes;
+		if (current < 0 || current >= this.levels.length) {
+			int level = 0;
+			while (level < limits.length && size < limits[level]) {
+				level++;
+			}
+			return level;
+		}
+		int level = current;
+		while (level > 0 && size >= limits[level - 1] * (1 + this.hysteresis)) {
+			level--;
+		}
+		while (level < limits.length
+				&& size < limits[level] * (1 - this.hysteresis)) {
+			level++;
+		}
+		return level;
+	}
+
+	/**
+	 * Returns the size on the screen of an object of the given radius at the
+	 * given distance from the eye. With a focal length from
+	 * {@link #focalLength(double, int)}, the size is in pixels. With a focal
+	 * length of 1, it is the radius over the distance, so the limits can be
+	 * given as distances for a unit object.
+	 *
+	 * @param radius
+	 *            -radius of the object
+	 * @param distance
+	 *            -distance from the eye to the center of the object
+	 * @param focalLength
+	 *            -distance from the eye to the screen, in the units of the
+	 *            result
+	 * @return projected radius, or infinity if the eye is inside the object
+	 */
+	public static double projectedSize(double radius, double distance,
+			double focalLength) {
+		if (distance <= radius) {
+			return Double.POSITIVE_INFINITY;
+		}
+		return radius * focalLength / distance;
+	}
+
+	/**
+	 * Returns the focal length, in pixels, of a perspective view.
+	 *
+	 * @param fovY
+	 *            -vertical field of view, in radians
+	 * @param viewportHeight
+	 *            -height of the view, in pixels
+	 */
+	public static double focalLength(double fovY, int viewportHeight) {
+		return viewportHeight / (2 * Math.tan(fovY / 2));
+	}
+}
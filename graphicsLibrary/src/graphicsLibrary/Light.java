@@ -0,0 +1,90 @@
+package graphicsLibrary;
+
+/**
+ * A class to represent a point light, which lights everything within its
+ * radius, fading to nothing at the edge.
+ *
+ * Shapes drawn with more than one light only light themselves with those
+ * whose radius reaches their {@link Bounds}, so a light costs nothing where
+ * it does not reach.
+ *
+ * @author caudeljn
+ *
+ */
+public class Light {
+	private final Point position;
+	private double radius;
+
+	/**
+	 * Constructs a new light at the given point that reaches everything.
+	 */
+	public Light(Point position) {
+		this(position, Double.POSITIVE_INFINITY);
+	}
+
+	/**
+	 * Constructs a new light at the given point.
+	 *
+	 * @param position
+	 *            -where the light is
+	 * @param radius
+	 *            -how far the light reaches
+	 * @throws IllegalArgumentException
+	 *             if the radius is not positive
+	 */
+	public Light(Point position, double radius) throws IllegalArgumentException {
+		this.position = new Point(position);
+		this.setRadius(radius);
+	}
+
+	public Point getPosition() {
+		return new Point(this.position);
+	}
+
+	public void setPosition(Point p) {
+		this.position.setX(p.getX());
+		this.position.setY(p.getY());
+		this.position.setZ(p.getZ());
+	}
+
+	public double getX() {
+		return this.position.getX();
+	}
+
+	public double getY() {
+		return this.position.getY();
+	}
+
+	public double getZ() {
+		return this.position.getZ();
+	}
+
+	/**
+	 * Returns how far the light reaches, which may be infinite.
+	 */
+	public double getRadius() {
+		return this.radius;
+	}
+
+	/**
+	 * Sets how far the light reaches.
+	 *
+	 * @param radius
+	 *            -distance at which the light fades to nothing, or
+	 *            {@link Double#POSITIVE_INFINITY} for no fading
+	 * @throws IllegalArgumentException
+	 *             if the radius is not positive
+	 */
+	public void setRadius(double radius) throws IllegalArgumentException {
+		if (!(radius > 0)) {
+			throw new IllegalArgumentException("Light radius must be positive: "
+					+ radius);
+		}
+		this.radius = radius;
+	}
+
+	@Override
+	public String toString() {
+		return "Light at " + this.position + ", radius " + this.radius;
+	}
+}
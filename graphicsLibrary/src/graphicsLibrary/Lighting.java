@@ -0,0 +1,159 @@
+package graphicsLibrary;
+
+/**
+ * Lighting for whole meshes at a time, on flat arrays.
+ *
+ * The shade of a triangle depends on the angle between its normal and the
+ * direction to the light, as a fraction of Pi, as in
+ * {@link Vector#getAngle(Vector)}. Here the cosine of that angle comes from
+ * one dot product with the normals cached by {@link Mesh#getNormals()}, and
+ * the fraction from a polynomial instead of {@link Math#acos(double)}, so a
+ * triangle costs a square root and no objects.
+ *
+ * @author caudeljn
+ *
+ */
+public class Lighting {
+	// Abramowitz and Stegun 4.4.46: acos(x) = sqrt(1 - x) * poly(x) on
+	// [0, 1], to within 2e-8.
+	private static final double A0 = 1.5707963050, A1 = -0.2145988016,
+			A2 = 0.0889789874, A3 = -0.0501743046, A4 = 0.0308918810,
+			A5 = -0.0170881256, A6 = 0.0066700901, A7 = -0.0012624911;
+
+	/**
+	 * The number of doubles per light given to
+	 * {@link #shade(double[], double[], int[], int[], int, double[], int, int)}
+	 * : x, y, z and radius.
+	 */
+	public static final int LIGHT_STRIDE = 4;
+
+	// The smallest fraction a triangle lit by several lights is given, so
+	// that one no light reaches is shaded dark, not left as it is.
+	private static final double MIN_FRACTION = 1e-9;
+
+	private Lighting() {
+	}
+
+	/**
+	 * Returns the angle with the given cosine as a fraction of Pi, the same
+	 * as {@code Math.acos(cosTheta) / Math.PI} to within 1e-8.
+	 *
+	 * @param cosTheta
+	 *            -cosine, from -1 to 1
+	 * @return fraction, from 0 to 1, or NaN for NaN
+	 */
+	public static double fraction(double cosTheta) {
+		double x = Math.abs(cosTheta);
+		if (x > 1) {
+			x = 1;
+		}
+		double p = A7;
+		p = p * x + A6;
+		p = p * x + A5;
+		p = p * x + A4;
+		p = p * x + A3;
+		p = p * x + A2;
+		p = p * x + A1;
+		p = p * x + A0;
+		double angle = Math.sqrt(1 - x) * p;
+		if (cosTheta < 0) {
+			angle = Math.PI - angle;
+		}
+		return angle / Math.PI;
+	}
+
+	/**
+	 * Shades the listed triangles for a light at the given point. For each i
+	 * below count, triangle {@code triangles[i]} is shaded from colour
+	 * {@code colors[i]}, and the result is stored back in {@code colors[i]}.
+	 * The result for each is the same as
+	 * {@link ColorUtil#shade(int, double, int)} with the fraction worked out
+	 * the way {@link Shape#fillShape(java.awt.Color, Point, int)} always has,
+	 * to within rounding.
+	 *
+	 * @param normals
+	 *            -unit normals, as from {@link Mesh#getNormals()}
+	 * @param centroids
+	 *            -centroids, as from {@link Mesh#getCentroids()}
+	 * @param triangles
+	 *            -indices of the triangles to shade
+	 * @param colors
+	 *            -base colours as packed ARGB, replaced by the shaded colours
+	 * @param count
+	 *            -number of triangles to shade
+	 * @param mode
+	 *            -shading mode from {@link ColorUtil}
+	 */
+	public static void shade(double[] normals, double[] centroids,
+			int[] triangles, int[] colors, int count, double lightX,
+			double lightY, double lightZ, int mode) {
+		for (int i = 0; i < count; i++) {
+			int t = 3 * triangles[i];
+			double lx = lightX - centroids[t];
+			double ly = lightY - centroids[t + 1];
+			double lz = lightZ - centroids[t + 2];
+			// The normal is a unit vector.
+			double cosTheta = (normals[t] * lx + normals[t + 1] * ly
+					+ normals[t + 2] * lz) / Math.sqrt(lx * lx + ly * ly + lz * lz);
+			colors[i] = ColorUtil.shade(colors[i], fraction(cosTheta), mode);
+		}
+	}
+
+	/**
+	 * Shades the listed triangles for several lights, the way
+	 * {@link #shade(double[], double[], int[], int[], int, double, double, double, int)}
+	 * does for one. Each light gives a fraction as one light would, scaled by
+	 * {@code (1 - d^2 / r^2)^2} for a triangle at distance d from a light of
+	 * radius r, and nothing beyond it. The fractions add up as
+	 * {@code 1 - (1 - f1)(1 - f2)...}, so the order of the lights does not
+	 * matter and the result never passes 1.
+	 *
+	 * Lights and triangles are gone over in one loop with no objects, so a
+	 * triangle costs a little for each light given; leave out lights that
+	 * cannot reach any of the triangles.
+	 *
+	 * @param normals
+	 *            -unit normals, as from {@link Mesh#getNormals()}
+	 * @param centroids
+	 *            -centroids, as from {@link Mesh#getCentroids()}
+	 * @param triangles
+	 *            -indices of the triangles to shade
+	 * @param colors
+	 *            -base colours as packed ARGB, replaced by the shaded colours
+	 * @param count
+	 *            -number of triangles to shade
+	 * @param lights
+	 *            -lights, {@link #LIGHT_STRIDE} doubles each
+	 * @param lightCount
+	 *            -number of lights
+	 * @param mode
+	 *            -shading mode from {@link ColorUtil}
+	 */
+	public static void shade(double[] normals, double[] centroids,
+			int[] triangles, int[] colors, int count, double[] lights,
+			int lightCount, int mode) {
+		int end = LIGHT_STRIDE * lightCount;
+		for (int i = 0; i < count; i++) {
+			int t = 3 * triangles[i];
+			double nx = normals[t], ny = normals[t + 1], nz = normals[t + 2];
+			double cx = centroids[t], cy = centroids[t + 1], cz = centroids[t + 2];
+			double dark = 1;
+			for (int l = 0; l < end; l += LIGHT_STRIDE) {
+				double lx = lights[l] - cx;
+				double ly = lights[l + 1] - cy;
+				double lz = lights[l + 2] - cz;
+				double d2 = lx * lx + ly * ly + lz * lz;
+				double r = lights[l + 3];
+				double fade = 1 - d2 / (r * r);
+				if (fade <= 0 || d2 == 0) {
+					continue;
+				}
+				double cosTheta = (nx * lx + ny * ly + nz * lz) / Math.sqrt(d2);
+				dark *= 1 - fraction(cosTheta) * fade * fade;
+			}
+			double frac = 1 - dark;
+			colors[i] = ColorUtil.shade(colors[i],
+					frac < MIN_FRACTION ? MIN_FRACTION : frac, mode);
+		}
+	}
+}
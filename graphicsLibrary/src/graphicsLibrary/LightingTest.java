@@ -0,0 +1,167 @@
+package graphicsLibrary;
+
+import static org.junit.Assert.*;
+
+import java.awt.Color;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class LightingTest {
+
+	@Test
+	public void testFraction() {
+		for (double c = -1; c <= 1; c += 1e-4) {
+			assertEquals(Math.acos(c) / Math.PI, Lighting.fraction(c), 1e-8);
+		}
+		assertEquals(1, Lighting.fraction(-1), 1e-12);
+		assertEquals(0, Lighting.fraction(1), 1e-12);
+	}
+
+	@Test
+	public void testShade() {
+		Random random = new Random(7);
+		Shape s = Shape.newSphere(0, 0, 0, 1, 6);
+		Mesh mesh = s.getMesh();
+		int count = mesh.getTriangleCount();
+		int[] triangles = new int[count];
+		int[] colors = new int[count];
+		Color[] base = new Color[count];
+		for (int t = 0; t < count; t++) {
+			triangles[t] = t;
+			base[t] = new Color(random.nextInt(256), random.nextInt(256),
+					random.nextInt(256));
+		}
+		Point light = new Point(3, -2, 5);
+		for (int mode : new int[] { ColorUtil.FULL_SHADE,
+				ColorUtil.HALF_SHADE, ColorUtil.COLOR_SHIFT,
+				ColorUtil.SHADOW_MODE, ColorUtil.FULL }) {
+			for (int t = 0; t < count; t++) {
+				colors[t] = base[t].getRGB();
+			}
+			Lighting.shade(mesh.getNormals(), mesh.getCentroids(), triangles,
+					colors, count, light.getX(), light.getY(), light.getZ(),
+					mode);
+			int t = 0;
+			for (Triangle tri : s.getTriangles()) {
+				double frac = Vector.getAngle(tri.getNormal(), new Vector(
+						tri.getCenter(), light))
+						/ Math.PI;
+				Color expected = new Color(ColorUtil.shadeExact(
+						base[t].getRGB(), frac, mode));
+				Color actual = new Color(colors[t]);
+				assertEquals(expected.getRed(), actual.getRed(), 1);
+				assertEquals(expected.getGreen(), actual.getGreen(), 1);
+				assertEquals(expected.getBlue(), actual.getBlue(), 1);
+				t++;
+			}
+		}
+	}
+
+	@Test
+	public void testShadeTables() {
+		Random random = new Random(11);
+		int count = 10000;
+		int[] colors = new int[count];
+		int[] batch = new int[count];
+		double[] fracs = new double[count];
+		for (int mode : new int[] { ColorUtil.FULL_SHADE,
+				ColorUtil.HALF_SHADE, ColorUtil.COLOR_SHIFT,
+				ColorUtil.SHADOW_MODE, ColorUtil.FULL }) {
+			for (int i = 0; i < count; i++) {
+				colors[i] = random.nextInt();
+				fracs[i] = random.nextDouble() * 1.2 - 0.1;
+			}
+			System.arraycopy(colors, 0, batch, 0, count);
+			ColorUtil.shade(batch, fracs, count, mode);
+			for (int i = 0; i < count; i++) {
+				int shaded = ColorUtil.shade(colors[i], fracs[i], mode);
+				assertEquals(shaded, batch[i]);
+				// Alpha is kept, and the colour left alone outside 0 to 1.
+				assertEquals(colors[i] >>> 24, shaded >>> 24);
+				if (!(fracs[i] > 0 && fracs[i] < 1)) {
+					assertEquals(colors[i], shaded);
+					continue;
+				}
+				int exact = ColorUtil.shadeExact(colors[i], fracs[i], mode);
+				for (int shift = 0; shift < 24; shift += 8) {
+					assertEquals(exact >> shift & 0xFF, shaded >> shift & 0xFF, 1);
+				}
+			}
+		}
+		assertEquals(Color.BLACK, ColorUtil.shade(Color.WHITE, 0.25,
+				ColorUtil.SHADOW_MODE));
+	}
+
+	private static float[] draw(Shape s, Light[] lights, int mode) {
+		RecordingBackend backend = new RecordingBackend();
+		s.setRenderBackend(backend);
+		s.fillShape(Color.RED, lights, mode, null);
+		return backend.getLastVertices();
+	}
+
+	@Test
+	public void testMultiLight() {
+		Point near = new Point(3, -2, 5);
+		for (Shape s : new Shape[] { Shape.newSphere(0, 0, 0, 1, 10),
+				Shape.newSphereInstance(0, 0, 0, 1, 10) }) {
+			// One light that reaches everything is the same as drawing with
+			// it alone.
+			RecordingBackend backend = new RecordingBackend();
+			s.setRenderBackend(backend);
+			s.fillShape(Color.RED, near, ColorUtil.FULL_SHADE);
+			float[] single = backend.getLastVertices();
+			float[] multi = draw(s, new Light[] { new Light(near) },
+					ColorUtil.FULL_SHADE);
+			assertEquals(single.length, multi.length);
+			for (int i = 0; i < single.length; i++) {
+				assertEquals(single[i], multi[i], 1 / 255.0 + 1e-6);
+			}
+
+			// Lights that cannot reach the shape are left out, and change
+			// nothing.
+			Light[] lights = new Light[51];
+			lights[0] = new Light(near, 20);
+			for (int i = 1; i < lights.length; i++) {
+				lights[i] = new Light(new Point(10 * i, 0, 0), 5);
+			}
+			float[] many = draw(s, lights, ColorUtil.FULL_SHADE);
+			assertEquals(1, s.getLightCount());
+			float[] one = draw(s, new Light[] { lights[0] },
+					ColorUtil.FULL_SHADE);
+			assertTrue(Arrays.equals(one, many));
+
+			// A second light brightens, whatever the order.
+			Light other = new Light(new Point(-3, 2, -5), 20);
+			float[] both = draw(s, new Light[] { lights[0], other },
+					ColorUtil.FULL_SHADE);
+			float[] reversed = draw(s, new Light[] { other, lights[0] },
+					ColorUtil.FULL_SHADE);
+			assertEquals(2, s.getLightCount());
+			assertTrue(Arrays.equals(both, reversed));
+			for (int i = 3; i < both.length; i += 6) {
+				assertTrue(both[i] >= one[i]);
+			}
+
+			// With no light in reach, everything is dark.
+			float[] none = draw(s, new Light[] { lights[1] },
+					ColorUtil.FULL_SHADE);
+			assertEquals(0, s.getLightCount());
+			for (int i = 3; i < none.length; i += 6) {
+				assertEquals(0, none[i], 1e-6);
+			}
+		}
+	}
+
+	@Test
+	public void testLightRadius() {
+		try {
+			new Light(new Point(0, 0, 0), 0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// Expected.
+		}
+	}
+
+}
@@ -1,5 +1,8 @@
 package graphicsLibrary;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 /**
  * A class to handle Matrices. 
  * @author caudeljn
@@ -25,7 +28,9 @@ public class Matrix {
 	}
 
 	/**
-	 * Returns the product of two matrices.
+	 * Returns the product of two matrices. Small products use a plain loop.
+	 * Larger ones transpose b and multiply in blocks that fit in cache, and
+	 * the largest are split across threads.
 	 * 
 	 * @param a
 	 *            -first matrix to multiply
@@ -41,17 +46,142 @@ public class Matrix {
 			throw new ArrayIndexOutOfBoundsException();
 		}
 		double[][] out = new double[a.height][b.width];
-		for (int i = 0; i < b.width; i++) {
-			for (int j = 0; j < a.height; j++) {
-				double set = 0;
-				for (int ii = 0; ii < b.height; ii++) {
-					set += a.getEntry(j, ii) * b.getEntry(ii, i);
-				}
-				out[j][i] = set;
+		long work = (long) a.height * a.width * b.width;
+		if (work <= SMALL_MULTIPLY) {
+			multiplySmall(a.entries, b.entries, out, a.width, b.width);
+			return new Matrix(out);
+		}
+
+		// Transposing b makes each entry of the product a dot product of two
+		// contiguous rows.
+		int inner = a.width;
+		double[] bt = new double[b.width * inner];
+		for (int k = 0; k < inner; k++) {
+			double[] row = b.entries[k];
+			for (int j = 0; j < b.width; j++) {
+				bt[j * inner + k] = row[j];
 			}
 		}
+		BlockedMultiply task = new BlockedMultiply(a.entries, bt, out, inner,
+				b.width, 0, a.height);
+		if (work >= PARALLEL_MULTIPLY
+				&& Runtime.getRuntime().availableProcessors() > 1) {
+			ForkJoinPool.commonPool().invoke(task);
+		} else {
+			task.compute();
+		}
 		return new Matrix(out);
 	}
+
+	// Products with at most this many multiply-adds use the plain loop.
+	private static final long SMALL_MULTIPLY = 32 * 32 * 32;
+	// Products with at least this many multiply-adds are split across threads.
+	private static final long PARALLEL_MULTIPLY = 128 * 128 * 128;
+	// Side length of the blocks used by BlockedMultiply.
+	private static final int BLOCK = 64;
+
+	private static void multiplySmall(double[][] a, double[][] b,
+			double[][] out, int inner, int width) {
+		for (int i = 0; i < out.length; i++) {
+			double[] ai = a[i];
+			double[] ci = out[i];
+			for (int k = 0; k < inner; k++) {
+				double aik = ai[k];
+				double[] bk = b[k];
+				for (int j = 0; j < width; j++) {
+					ci[j] += aik * bk[j];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Multiplies a range of rows of a by a transposed b, in blocks. Splits
+	 * itself in half until each task has only a few blocks of rows.
+	 */
+	private static class BlockedMultiply extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final double[][] a;
+		private final double[] bt;
+		private final double[][] out;
+		private final int inner;
+		private final int width;
+		private final int start;
+		private final int end;
+
+		private BlockedMultiply(double[][] a, double[] bt, double[][] out,
+				int inner, int width, int start, int end) {
+			this.a = a;
+			this.bt = bt;
+			this.out = out;
+			this.inner = inner;
+			this.width = width;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute() {
+			if (this.end - this.start > 2 * BLOCK
+					&& getSurplusQueuedTaskCount() <= 2 && inForkJoinPool()) {
+				int middle = (this.start + this.end) >>> 1;
+				invokeAll(new BlockedMultiply(this.a, this.bt, this.out,
+						this.inner, this.width, this.start, middle),
+						new BlockedMultiply(this.a, this.bt, this.out,
+								this.inner, this.width, middle, this.end));
+				return;
+			}
+			this.multiplyRows();
+		}
+
+		private void multiplyRows() {
+			int inner = this.inner;
+			int width = this.width;
+			double[] bt = this.bt;
+			for (int i0 = this.start; i0 < this.end; i0 += BLOCK) {
+				int i1 = Math.min(i0 + BLOCK, this.end);
+				for (int j0 = 0; j0 < width; j0 += BLOCK) {
+					int j1 = Math.min(j0 + BLOCK, width);
+					for (int k0 = 0; k0 < inner; k0 += BLOCK) {
+						int k1 = Math.min(k0 + BLOCK, inner);
+						for (int i = i0; i < i1; i++) {
+							double[] ai = this.a[i];
+							double[] ci = this.out[i];
+							int j = j0;
+							// Four columns at a time, so each entry of a is
+							// loaded once for four products.
+							for (; j + 3 < j1; j += 4) {
+								int b0 = j * inner;
+								int b1 = b0 + inner;
+								int b2 = b1 + inner;
+								int b3 = b2 + inner;
+								double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+								for (int k = k0; k < k1; k++) {
+									double aik = ai[k];
+									s0 += aik * bt[b0 + k];
+									s1 += aik * bt[b1 + k];
+									s2 += aik * bt[b2 + k];
+									s3 += aik * bt[b3 + k];
+								}
+								ci[j] += s0;
+								ci[j + 1] += s1;
+								ci[j + 2] += s2;
+								ci[j + 3] += s3;
+							}
+							for (; j < j1; j++) {
+								int b0 = j * inner;
+								double s = 0;
+								for (int k = k0; k < k1; k++) {
+									s += ai[k] * bt[b0 + k];
+								}
+								ci[j] += s;
+							}
+						}
+					}
+				}
+			}
+		}
+	}
 	
 	/**
 	 * Adds the two given Matrices together.
@@ -146,18 +276,65 @@ public class Matrix {
 		if (this.width != this.height) {
 			throw new Exception();
 		}
-		if (this.width == 1) {
-			return this.getEntry(0, 0);
-		} else {
-			// TODO: implement.
-			double total = 0;
-			for (int i = 0; i < this.width; i++) {
-				Matrix cofactor = this.removeColumn(i).removeRow(0);
-				total += cofactor.determinant() * this.getEntry(0, i)
-						* (i % 2 == 0 ? 1 : -1);
-			}
-			return total;
-		}
+		return this.lu().determinant();
+	}
+
+	/**
+	 * Returns the LU decomposition of the matrix. Keep it to solve against the
+	 * same matrix more than once.
+	 * 
+	 * @return LU decomposition
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if the matrix is not square.
+	 */
+	public LUDecomposition lu() throws ArrayIndexOutOfBoundsException {
+		return new LUDecomposition(this);
+	}
+
+	/**
+	 * Returns the inverse of the matrix.
+	 * 
+	 * @return inverse
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if the matrix is not square.
+	 * @throws ArithmeticException
+	 *             if the matrix is singular.
+	 */
+	public Matrix inverse() throws ArrayIndexOutOfBoundsException,
+			ArithmeticException {
+		return this.lu().inverse();
+	}
+
+	/**
+	 * Returns x such that (this)x = b.
+	 * 
+	 * @param b
+	 *            -right-hand side
+	 * @return x
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if the matrix is not square, or b is the wrong length.
+	 * @throws ArithmeticException
+	 *             if the matrix is singular.
+	 */
+	public double[] solve(double[] b) throws ArrayIndexOutOfBoundsException,
+			ArithmeticException {
+		return this.lu().solve(b);
+	}
+
+	/**
+	 * Returns X such that (this)X = B.
+	 * 
+	 * @param b
+	 *            -right-hand sides, one per column
+	 * @return X
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if the matrix is not square, or b is the wrong height.
+	 * @throws ArithmeticException
+	 *             if the matrix is singular.
+	 */
+	public Matrix solve(Matrix b) throws ArrayIndexOutOfBoundsException,
+			ArithmeticException {
+		return this.lu().solve(b);
 	}
 
 	/**
@@ -0,0 +1,392 @@
+package graphicsLibrary;
+
+/**
+ * A class to represent 3x3 matrices, such as rotations and scales in 3D space.
+ *
+ * Unlike {@link Matrix}, the entries are stored as fields and every operation
+ * is written out in full. Each operation that returns a new {@code Matrix3},
+ * {@link Point} or {@link Vector} has an {@code Into} version that writes to
+ * a given destination instead, so no new objects are made. The destination
+ * may be one of the arguments.
+ *
+ * Points and vectors are treated as columns, so {@code multiply(a, b)}
+ * applies b first, then a.
+ *
+ * @author caudeljn
+ *
+ */
+public class Matrix3 {
+	// Package-private so Matrix4 can read them without going through
+	// getEntry.
+	double m00, m01, m02;
+	double m10, m11, m12;
+	double m20, m21, m22;
+
+	/**
+	 * Constructs a new identity {@code Matrix3}.
+	 */
+	public Matrix3() {
+		this.setIdentity();
+	}
+
+	/**
+	 * Constructs a new {@code Matrix3} with the given entries, row by row.
+	 */
+	public Matrix3(double m00, double m01, double m02, double m10, double m11,
+			double m12, double m20, double m21, double m22) {
+		this.set(m00, m01, m02, m10, m11, m12, m20, m21, m22);
+	}
+
+	/**
+	 * Constructs a copy of the given {@code Matrix3}.
+	 *
+	 * @param m
+	 *            -matrix to copy
+	 */
+	public Matrix3(Matrix3 m) {
+		this.set(m);
+	}
+
+	/**
+	 * Returns the entry at the given row and column.
+	 *
+	 * @param i
+	 *            -row, from 0 to 2
+	 * @param j
+	 *            -column, from 0 to 2
+	 * @return entry
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if i or j is out of range
+	 */
+	public double getEntry(int i, int j) throws ArrayIndexOutOfBoundsException {
+		if (i < 0 || i > 2 || j < 0 || j > 2) {
+			throw new ArrayIndexOutOfBoundsException();
+		}
+		switch (3 * i + j) {
+		case 0:
+			return this.m00;
+		case 1:
+			return this.m01;
+		case 2:
+			return this.m02;
+		case 3:
+			return this.m10;
+		case 4:
+			return this.m11;
+		case 5:
+			return this.m12;
+		case 6:
+			return this.m20;
+		case 7:
+			return this.m21;
+		default:
+			return this.m22;
+		}
+	}
+
+	/**
+	 * Sets every entry, row by row.
+	 *
+	 * @return this {@code Matrix3}
+	 */
+	public Matrix3 set(double m00, double m01, double m02, double m10,
+			double m11, double m12, double m20, double m21, double m22) {
+		this.m00 = m00;
+		this.m01 = m01;
+		this.m02 = m02;
+		this.m10 = m10;
+		this.m11 = m11;
+		this.m12 = m12;
+		this.m20 = m20;
+		this.m21 = m21;
+		this.m22 = m22;
+		return this;
+	}
+
+	/**
+	 * Sets this {@code Matrix3} to a copy of the given one.
+	 *
+	 * @return this {@code Matrix3}
+	 */
+	public Matrix3 set(Matrix3 m) {
+		return this.set(m.m00, m.m01, m.m02, m.m10, m.m11, m.m12, m.m20,
+				m.m21, m.m22);
+	}
+
+	/**
+	 * Sets this {@code Matrix3} to the identity.
+	 *
+	 * @return this {@code Matrix3}
+	 */
+	public Matrix3 setIdentity() {
+		return this.set(1, 0, 0, 0, 1, 0, 0, 0, 1);
+	}
+
+	/**
+	 * Returns a new identity {@code Matrix3}.
+	 */
+	public static Matrix3 identity() {
+		return new Matrix3();
+	}
+
+	/**
+	 * Returns a rotation around the x-axis. This turns points the same way as
+	 * {@link Point#rotateX(double, double, double, double)}, which is the
+	 * opposite way to {@link Matrix#rotationMatrix3DX(double)}.
+	 *
+	 * @param angle
+	 *            -Angle to rotate, in radians.
+	 */
+	public static Matrix3 rotationX(double angle) {
+		return rotationXInto(angle, new Matrix3());
+	}
+
+	public static Matrix3 rotationXInto(double angle, Matrix3 dst) {
+		double c = Math.cos(angle);
+		double s = Math.sin(angle);
+		return dst.set(1, 0, 0, 0, c, s, 0, -s, c);
+	}
+
+	/**
+	 * Returns a rotation around the y-axis. This turns points the same way as
+	 * {@link Point#rotateY(double, double, double, double)}.
+	 *
+	 * @param angle
+	 *            -Angle to rotate, in radians.
+	 */
+	public static Matrix3 rotationY(double angle) {
+		return rotationYInto(angle, new Matrix3());
+	}
+
+	public static Matrix3 rotationYInto(double angle, Matrix3 dst) {
+		double c = Math.cos(angle);
+		double s = Math.sin(angle);
+		return dst.set(c, 0, -s, 0, 1, 0, s, 0, c);
+	}
+
+	/**
+	 * Returns a rotation around the z-axis. This turns points the same way as
+	 * {@link Point#rotateZ(double, double, double, double)}.
+	 *
+	 * @param angle
+	 *            -Angle to rotate, in radians.
+	 */
+	public static Matrix3 rotationZ(double angle) {
+		return rotationZInto(angle, new Matrix3());
+	}
+
+	public static Matrix3 rotationZInto(double angle, Matrix3 dst) {
+		double c = Math.cos(angle);
+		double s = Math.sin(angle);
+		return dst.set(c, -s, 0, s, c, 0, 0, 0, 1);
+	}
+
+	/**
+	 * Returns a rotation around the given axis. This turns points the same way
+	 * as {@link Point#rotateAroundVector(double, Point, Vector)}.
+	 *
+	 * @param angle
+	 *            -Angle to rotate, in radians.
+	 * @param axis
+	 *            -{@link Vector} around which to rotate
+	 */
+	public static Matrix3 rotation(double angle, Vector axis) {
+		return rotationInto(angle, axis, new Matrix3());
+	}
+
+	public static Matrix3 rotationInto(double angle, Vector axis, Matrix3 dst) {
+		double length = axis.getMagnitude();
+		double x = axis.getX() / length;
+		double y = axis.getY() / length;
+		double z = axis.getZ() / length;
+		double c = Math.cos(angle);
+		double s = Math.sin(angle);
+		double t = 1 - c;
+		return dst.set(c + x * x * t, x * y * t + z * s, x * z * t - y * s,
+				y * x * t - z * s, c + y * y * t, y * z * t + x * s,
+				z * x * t + y * s, z * y * t - x * s, c + z * z * t);
+	}
+
+	/**
+	 * Returns a scale by the given amounts along each axis.
+	 */
+	public static Matrix3 scale(double sx, double sy, double sz) {
+		return new Matrix3(sx, 0, 0, 0, sy, 0, 0, 0, sz);
+	}
+
+	/**
+	 * Returns the product of two matrices.
+	 *
+	 * @param a
+	 *            -first matrix to multiply
+	 * @param b
+	 *            -second matrix to multiply
+	 * @return product ab
+	 */
+	public static Matrix3 multiply(Matrix3 a, Matrix3 b) {
+		return multiplyInto(a, b, new Matrix3());
+	}
+
+	/**
+	 * Stores the product ab in dst.
+	 *
+	 * @return dst
+	 */
+	public static Matrix3 multiplyInto(Matrix3 a, Matrix3 b, Matrix3 dst) {
+		double r00 = a.m00 * b.m00 + a.m01 * b.m10 + a.m02 * b.m20;
+		double r01 = a.m00 * b.m01 + a.m01 * b.m11 + a.m02 * b.m21;
+		double r02 = a.m00 * b.m02 + a.m01 * b.m12 + a.m02 * b.m22;
+		double r10 = a.m10 * b.m00 + a.m11 * b.m10 + a.m12 * b.m20;
+		double r11 = a.m10 * b.m01 + a.m11 * b.m11 + a.m12 * b.m21;
+		double r12 = a.m10 * b.m02 + a.m11 * b.m12 + a.m12 * b.m22;
+		double r20 = a.m20 * b.m00 + a.m21 * b.m10 + a.m22 * b.m20;
+		double r21 = a.m20 * b.m01 + a.m21 * b.m11 + a.m22 * b.m21;
+		double r22 = a.m20 * b.m02 + a.m21 * b.m12 + a.m22 * b.m22;
+		return dst.set(r00, r01, r02, r10, r11, r12, r20, r21, r22);
+	}
+
+	/**
+	 * Returns the transform that applies this {@code Matrix3}, then the given
+	 * one.
+	 *
+	 * @param next
+	 *            -transform to apply second
+	 * @return product (next)(this)
+	 */
+	public Matrix3 compose(Matrix3 next) {
+		return multiplyInto(next, this, new Matrix3());
+	}
+
+	public Matrix3 composeInto(Matrix3 next, Matrix3 dst) {
+		return multiplyInto(next, this, dst);
+	}
+
+	/**
+	 * Returns a new {@link Point} that is the given one transformed by this
+	 * {@code Matrix3}.
+	 */
+	public Point transformPoint(Point p) {
+		return this.transformPointInto(p, new Point(0, 0, 0));
+	}
+
+	/**
+	 * Stores the {@link Point} p transformed by this {@code Matrix3} in dst.
+	 *
+	 * @return dst
+	 */
+	public Point transformPointInto(Point p, Point dst) {
+		double x = p.getX();
+		double y = p.getY();
+		double z = p.getZ();
+		dst.setX(this.m00 * x + this.m01 * y + this.m02 * z);
+		dst.setY(this.m10 * x + this.m11 * y + this.m12 * z);
+		dst.setZ(this.m20 * x + this.m21 * y + this.m22 * z);
+		return dst;
+	}
+
+	/**
+	 * Returns a new {@link Vector} that is the given one transformed by this
+	 * {@code Matrix3}.
+	 */
+	public Vector transformDirection(Vector v) {
+		return this.transformDirectionInto(v, new Vector(0, 0, 0));
+	}
+
+	/**
+	 * Stores the {@link Vector} v transformed by this {@code Matrix3} in dst.
+	 *
+	 * @return dst
+	 */
+	public Vector transformDirectionInto(Vector v, Vector dst) {
+		double x = v.getX();
+		double y = v.getY();
+		double z = v.getZ();
+		dst.set(this.m00 * x + this.m01 * y + this.m02 * z, this.m10 * x
+				+ this.m11 * y + this.m12 * z, this.m20 * x + this.m21 * y
+				+ this.m22 * z);
+		return dst;
+	}
+
+	/**
+	 * Returns the determinant of the {@code Matrix3}.
+	 */
+	public double determinant() {
+		return this.m00 * (this.m11 * this.m22 - this.m12 * this.m21)
+				- this.m01 * (this.m10 * this.m22 - this.m12 * this.m20)
+				+ this.m02 * (this.m10 * this.m21 - this.m11 * this.m20);
+	}
+
+	/**
+	 * Returns the inverse of the {@code Matrix3}.
+	 *
+	 * @throws ArithmeticException
+	 *             if the matrix is singular
+	 */
+	public Matrix3 invert() throws ArithmeticException {
+		return this.invertInto(new Matrix3());
+	}
+
+	public Matrix3 invertInto(Matrix3 dst) throws ArithmeticException {
+		double c00 = this.m11 * this.m22 - this.m12 * this.m21;
+		double c01 = this.m12 * this.m20 - this.m10 * this.m22;
+		double c02 = this.m10 * this.m21 - this.m11 * this.m20;
+		double det = this.m00 * c00 + this.m01 * c01 + this.m02 * c02;
+		if (det == 0) {
+			throw new ArithmeticException("Matrix is singular");
+		}
+		double inv = 1 / det;
+		return dst.set(c00 * inv,
+				(this.m02 * this.m21 - this.m01 * this.m22) * inv,
+				(this.m01 * this.m12 - this.m02 * this.m11) * inv,
+				c01 * inv,
+				(this.m00 * this.m22 - this.m02 * this.m20) * inv,
+				(this.m02 * this.m10 - this.m00 * this.m12) * inv,
+				c02 * inv,
+				(this.m01 * this.m20 - this.m00 * this.m21) * inv,
+				(this.m00 * this.m11 - this.m01 * this.m10) * inv);
+	}
+
+	/**
+	 * Returns the transpose of the {@code Matrix3}. For a rotation, this is
+	 * also the inverse.
+	 */
+	public Matrix3 transpose() {
+		return this.transposeInto(new Matrix3());
+	}
+
+	public Matrix3 transposeInto(Matrix3 dst) {
+		return dst.set(this.m00, this.m10, this.m20, this.m01, this.m11,
+				this.m21, this.m02, this.m12, this.m22);
+	}
+
+	/**
+	 * Returns a {@link Matrix} with the same entries.
+	 */
+	public Matrix toMatrix() {
+		return new Matrix(new double[][] { { this.m00, this.m01, this.m02 },
+				{ this.m10, this.m11, this.m12 },
+				{ this.m20, this.m21, this.m22 } });
+	}
+
+	/**
+	 * Returns a {@code Matrix3} with the same entries as the given 3x3
+	 * {@link Matrix}, such as one from {@link Matrix#rotationMatrix3DX(double)}.
+	 *
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if m is not 3x3
+	 */
+	public static Matrix3 fromMatrix(Matrix m)
+			throws ArrayIndexOutOfBoundsException {
+		if (m.getHeight() != 3 || m.getWidth() != 3) {
+			throw new ArrayIndexOutOfBoundsException();
+		}
+		double[][] e = m.toArray();
+		return new Matrix3(e[0][0], e[0][1], e[0][2], e[1][0], e[1][1],
+				e[1][2], e[2][0], e[2][1], e[2][2]);
+	}
+
+	@Override
+	public String toString() {
+		return this.toMatrix().toString();
+	}
+}
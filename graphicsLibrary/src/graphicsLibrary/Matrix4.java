@@ -0,0 +1,447 @@
+package graphicsLibrary;
+
+/**
+ * A class to represent 4x4 homogeneous matrices, for affine transforms
+ * (rotation, scale and translation together) and projections in 3D space.
+ *
+ * Like {@link Matrix3}, the entries are stored as fields, every operation is
+ * written out in full, and each operation has an {@code Into} version that
+ * writes to a given destination. The destination may be one of the arguments.
+ *
+ * Points and vectors are treated as columns, so {@code multiply(a, b)}
+ * applies b first, then a. {@link Point}s are transformed with w = 1 and
+ * {@link Vector}s with w = 0, so vectors are not translated.
+ *
+ * @author caudeljn
+ *
+ */
+public class Matrix4 {
+	private double m00, m01, m02, m03;
+	private double m10, m11, m12, m13;
+	private double m20, m21, m22, m23;
+	private double m30, m31, m32, m33;
+
+	/**
+	 * Constructs a new identity {@code Matrix4}.
+	 */
+	public Matrix4() {
+		this.setIdentity();
+	}
+
+	/**
+	 * Constructs a new {@code Matrix4} with the given entries, row by row.
+	 */
+	public Matrix4(double m00, double m01, double m02, double m03,
+			double m10, double m11, double m12, double m13, double m20,
+			double m21, double m22, double m23, double m30, double m31,
+			double m32, double m33) {
+		this.set(m00, m01, m02, m03, m10, m11, m12, m13, m20, m21, m22, m23,
+				m30, m31, m32, m33);
+	}
+
+	/**
+	 * Constructs a copy of the given {@code Matrix4}.
+	 *
+	 * @param m
+	 *            -matrix to copy
+	 */
+	public Matrix4(Matrix4 m) {
+		this.set(m);
+	}
+
+	/**
+	 * Returns the entry at the given row and column.
+	 *
+	 * @param i
+	 *            -row, from 0 to 3
+	 * @param j
+	 *            -column, from 0 to 3
+	 * @return entry
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if i or j is out of range
+	 */
+	public double getEntry(int i, int j) throws ArrayIndexOutOfBoundsException {
+		if (i < 0 || i > 3 || j < 0 || j > 3) {
+			throw new ArrayIndexOutOfBoundsException();
+		}
+		switch (4 * i + j) {
+		case 0:
+			return this.m00;
+		case 1:
+			return this.m01;
+		case 2:
+			return this.m02;
+		case 3:
+			return this.m03;
+		case 4:
+			return this.m10;
+		case 5:
+			return this.m11;
+		case 6:
+			return this.m12;
+		case 7:
+			return this.m13;
+		case 8:
+			return this.m20;
+		case 9:
+			return this.m21;
+		case 10:
+			return this.m22;
+		case 11:
+			return this.m23;
+		case 12:
+			return this.m30;
+		case 13:
+			return this.m31;
+		case 14:
+			return this.m32;
+		default:
+			return this.m33;
+		}
+	}
+
+	/**
+	 * Sets every entry, row by row.
+	 *
+	 * @return this {@code Matrix4}
+	 */
+	public Matrix4 set(double m00, double m01, double m02, double m03,
+			double m10, double m11, double m12, double m13, double m20,
+			double m21, double m22, double m23, double m30, double m31,
+			double m32, double m33) {
+		this.m00 = m00;
+		this.m01 = m01;
+		this.m02 = m02;
+		this.m03 = m03;
+		this.m10 = m10;
+		this.m11 = m11;
+		this.m12 = m12;
+		this.m13 = m13;
+		this.m20 = m20;
+		this.m21 = m21;
+		this.m22 = m22;
+		this.m23 = m23;
+		this.m30 = m30;
+		this.m31 = m31;
+		this.m32 = m32;
+		this.m33 = m33;
+		return this;
+	}
+
+	/**
+	 * Sets this {@code Matrix4} to a copy of the given one.
+	 *
+	 * @return this {@code Matrix4}
+	 */
+	public Matrix4 set(Matrix4 m) {
+		return this.set(m.m00, m.m01, m.m02, m.m03, m.m10, m.m11, m.m12,
+				m.m13, m.m20, m.m21, m.m22, m.m23, m.m30, m.m31, m.m32, m.m33);
+	}
+
+	/**
+	 * Sets this {@code Matrix4} to the affine transform with the given linear
+	 * part and translation.
+	 *
+	 * @param r
+	 *            -rotation, scale or other linear part
+	 * @return this {@code Matrix4}
+	 */
+	public Matrix4 set(Matrix3 r, double tx, double ty, double tz) {
+		return this.set(r.m00, r.m01, r.m02, tx, r.m10, r.m11, r.m12, ty, r.m20,
+				r.m21, r.m22, tz, 0, 0, 0, 1);
+	}
+
+	/**
+	 * Sets this {@code Matrix4} to the identity.
+	 *
+	 * @return this {@code Matrix4}
+	 */
+	public Matrix4 setIdentity() {
+		return this.set(1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1);
+	}
+
+	/**
+	 * Returns a new identity {@code Matrix4}.
+	 */
+	public static Matrix4 identity() {
+		return new Matrix4();
+	}
+
+	/**
+	 * Returns whether the bottom row is (0, 0, 0, 1), so that the
+	 * {@code Matrix4} is an affine transform.
+	 */
+	public boolean isAffine() {
+		return this.m30 == 0 && this.m31 == 0 && this.m32 == 0
+				&& this.m33 == 1;
+	}
+
+	/**
+	 * Returns a translation by the given amount.
+	 */
+	public static Matrix4 translation(double dx, double dy, double dz) {
+		return translationInto(dx, dy, dz, new Matrix4());
+	}
+
+	public static Matrix4 translationInto(double dx, double dy, double dz,
+			Matrix4 dst) {
+		return dst.set(1, 0, 0, dx, 0, 1, 0, dy, 0, 0, 1, dz, 0, 0, 0, 1);
+	}
+
+	/**
+	 * Returns the affine transform that applies the given {@link Matrix3}
+	 * around the given center. With a rotation from
+	 * {@link Matrix3#rotationX(double)}, this turns points the same way as
+	 * {@link Point#rotateX(double, double, double, double)}.
+	 *
+	 * @param r
+	 *            -linear transform to apply
+	 */
+	public static Matrix4 around(Matrix3 r, double Cx, double Cy, double Cz) {
+		return aroundInto(r, Cx, Cy, Cz, new Matrix4());
+	}
+
+	public static Matrix4 aroundInto(Matrix3 r, double Cx, double Cy,
+			double Cz, Matrix4 dst) {
+		// p' = R(p - C) + C = Rp + (C - RC)
+		double tx = Cx - (r.m00 * Cx + r.m01 * Cy + r.m02 * Cz);
+		double ty = Cy - (r.m10 * Cx + r.m11 * Cy + r.m12 * Cz);
+		double tz = Cz - (r.m20 * Cx + r.m21 * Cy + r.m22 * Cz);
+		return dst.set(r, tx, ty, tz);
+	}
+
+	/**
+	 * Returns the product of two matrices.
+	 *
+	 * @param a
+	 *            -first matrix to multiply
+	 * @param b
+	 *            -second matrix to multiply
+	 * @return product ab
+	 */
+	public static Matrix4 multiply(Matrix4 a, Matrix4 b) {
+		return multiplyInto(a, b, new Matrix4());
+	}
+
+	/**
+	 * Stores the product ab in dst.
+	 *
+	 * @return dst
+	 */
+	public static Matrix4 multiplyInto(Matrix4 a, Matrix4 b, Matrix4 dst) {
+		double r00 = a.m00 * b.m00 + a.m01 * b.m10 + a.m02 * b.m20 + a.m03
+				* b.m30;
+		double r01 = a.m00 * b.m01 + a.m01 * b.m11 + a.m02 * b.m21 + a.m03
+				* b.m31;
+		double r02 = a.m00 * b.m02 + a.m01 * b.m12 + a.m02 * b.m22 + a.m03
+				* b.m32;
+		double r03 = a.m00 * b.m03 + a.m01 * b.m13 + a.m02 * b.m23 + a.m03
+				* b.m33;
+		double r10 = a.m10 * b.m00 + a.m11 * b.m10 + a.m12 * b.m20 + a.m13
+				* b.m30;
+		double r11 = a.m10 * b.m01 + a.m11 * b.m11 + a.m12 * b.m21 + a.m13
+				* b.m31;
+		double r12 = a.m10 * b.m02 + a.m11 * b.m12 + a.m12 * b.m22 + a.m13
+				* b.m32;
+		double r13 = a.m10 * b.m03 + a.m11 * b.m13 + a.m12 * b.m23 + a.m13
+				* b.m33;
+		double r20 = a.m20 * b.m00 + a.m21 * b.m10 + a.m22 * b.m20 + a.m23
+				* b.m30;
+		double r21 = a.m20 * b.m01 + a.m21 * b.m11 + a.m22 * b.m21 + a.m23
+				* b.m31;
+		double r22 = a.m20 * b.m02 + a.m21 * b.m12 + a.m22 * b.m22 + a.m23
+				* b.m32;
+		double r23 = a.m20 * b.m03 + a.m21 * b.m13 + a.m22 * b.m23 + a.m23
+				* b.m33;
+		double r30 = a.m30 * b.m00 + a.m31 * b.m10 + a.m32 * b.m20 + a.m33
+				* b.m30;
+		double r31 = a.m30 * b.m01 + a.m31 * b.m11 + a.m32 * b.m21 + a.m33
+				* b.m31;
+		double r32 = a.m30 * b.m02 + a.m31 * b.m12 + a.m32 * b.m22 + a.m33
+				* b.m32;
+		double r33 = a.m30 * b.m03 + a.m31 * b.m13 + a.m32 * b.m23 + a.m33
+				* b.m33;
+		return dst.set(r00, r01, r02, r03, r10, r11, r12, r13, r20, r21, r22,
+				r23, r30, r31, r32, r33);
+	}
+
+	/**
+	 * Returns the transform that applies this {@code Matrix4}, then the given
+	 * one.
+	 *
+	 * @param next
+	 *            -transform to apply second
+	 * @return product (next)(this)
+	 */
+	public Matrix4 compose(Matrix4 next) {
+		return multiplyInto(next, this, new Matrix4());
+	}
+
+	public Matrix4 composeInto(Matrix4 next, Matrix4 dst) {
+		return multiplyInto(next, this, dst);
+	}
+
+	/**
+	 * Returns a new {@link Point} that is the given one transformed by this
+	 * {@code Matrix4}.
+	 */
+	public Point transformPoint(Point p) {
+		return this.transformPointInto(p, new Point(0, 0, 0));
+	}
+
+	/**
+	 * Stores the {@link Point} p transformed by this {@code Matrix4} in dst.
+	 * If the result has a w other than 1, x, y and z are divided by it.
+	 *
+	 * @return dst
+	 */
+	public Point transformPointInto(Point p, Point dst) {
+		double x = p.getX();
+		double y = p.getY();
+		double z = p.getZ();
+		double ox = this.m00 * x + this.m01 * y + this.m02 * z + this.m03;
+		double oy = this.m10 * x + this.m11 * y + this.m12 * z + this.m13;
+		double oz = this.m20 * x + this.m21 * y + this.m22 * z + this.m23;
+		double w = this.m30 * x + this.m31 * y + this.m32 * z + this.m33;
+		if (w != 1) {
+			ox /= w;
+			oy /= w;
+			oz /= w;
+		}
+		dst.setX(ox);
+		dst.setY(oy);
+		dst.setZ(oz);
+		return dst;
+	}
+
+	/**
+	 * Transforms the point stored at src[srcOffset] to src[srcOffset + 2], as
+	 * x, y and z, and stores the result at dst[dstOffset] to
+	 * dst[dstOffset + 2]. src and dst may be the same array. The
+	 * {@code Matrix4} is assumed to be affine.
+	 */
+	public void transformPointInto(double[] src, int srcOffset, double[] dst,
+			int dstOffset) {
+		double x = src[srcOffset];
+		double y = src[srcOffset + 1];
+		double z = src[srcOffset + 2];
+		dst[dstOffset] = this.m00 * x + this.m01 * y + this.m02 * z + this.m03;
+		dst[dstOffset + 1] = this.m10 * x + this.m11 * y + this.m12 * z
+				+ this.m13;
+		dst[dstOffset + 2] = this.m20 * x + this.m21 * y + this.m22 * z
+				+ this.m23;
+	}
+
+	/**
+	 * Returns a new {@link Vector} that is the given one transformed by this
+	 * {@code Matrix4}, without translation.
+	 */
+	public Vector transformDirection(Vector v) {
+		return this.transformDirectionInto(v, new Vector(0, 0, 0));
+	}
+
+	/**
+	 * Stores the {@link Vector} v transformed by this {@code Matrix4}, without
+	 * translation, in dst.
+	 *
+	 * @return dst
+	 */
+	public Vector transformDirectionInto(Vector v, Vector dst) {
+		double x = v.getX();
+		double y = v.getY();
+		double z = v.getZ();
+		dst.set(this.m00 * x + this.m01 * y + this.m02 * z, this.m10 * x
+				+ this.m11 * y + this.m12 * z, this.m20 * x + this.m21 * y
+				+ this.m22 * z);
+		return dst;
+	}
+
+	/**
+	 * Returns the inverse of the {@code Matrix4}, assuming it is affine (see
+	 * {@link #isAffine()}). Much cheaper than a general 4x4 inverse.
+	 *
+	 * @throws ArithmeticException
+	 *             if the linear part is singular
+	 */
+	public Matrix4 invertAffine() throws ArithmeticException {
+		return this.invertAffineInto(new Matrix4());
+	}
+
+	public Matrix4 invertAffineInto(Matrix4 dst) throws ArithmeticException {
+		double c00 = this.m11 * this.m22 - this.m12 * this.m21;
+		double c01 = this.m12 * this.m20 - this.m10 * this.m22;
+		double c02 = this.m10 * this.m21 - this.m11 * this.m20;
+		double det = this.m00 * c00 + this.m01 * c01 + this.m02 * c02;
+		if (det == 0) {
+			throw new ArithmeticException("Matrix is singular");
+		}
+		double inv = 1 / det;
+		double i00 = c00 * inv;
+		double i01 = (this.m02 * this.m21 - this.m01 * this.m22) * inv;
+		double i02 = (this.m01 * this.m12 - this.m02 * this.m11) * inv;
+		double i10 = c01 * inv;
+		double i11 = (this.m00 * this.m22 - this.m02 * this.m20) * inv;
+		double i12 = (this.m02 * this.m10 - this.m00 * this.m12) * inv;
+		double i20 = c02 * inv;
+		double i21 = (this.m01 * this.m20 - this.m00 * this.m21) * inv;
+		double i22 = (this.m00 * this.m11 - this.m01 * this.m10) * inv;
+		// The inverse translation is -(R^-1)t.
+		double tx = -(i00 * this.m03 + i01 * this.m13 + i02 * this.m23);
+		double ty = -(i10 * this.m03 + i11 * this.m13 + i12 * this.m23);
+		double tz = -(i20 * this.m03 + i21 * this.m13 + i22 * this.m23);
+		return dst.set(i00, i01, i02, tx, i10, i11, i12, ty, i20, i21, i22,
+				tz, 0, 0, 0, 1);
+	}
+
+	/**
+	 * Returns the upper-left 3x3 part of the {@code Matrix4}, which is the
+	 * linear part of an affine transform.
+	 */
+	public Matrix3 getLinear() {
+		return this.getLinearInto(new Matrix3());
+	}
+
+	public Matrix3 getLinearInto(Matrix3 dst) {
+		return dst.set(this.m00, this.m01, this.m02, this.m10, this.m11,
+				this.m12, this.m20, this.m21, this.m22);
+	}
+
+	/**
+	 * Returns a {@link Matrix} with the same entries.
+	 */
+	public Matrix toMatrix() {
+		return new Matrix(new double[][] {
+				{ this.m00, this.m01, this.m02, this.m03 },
+				{ this.m10, this.m11, this.m12, this.m13 },
+				{ this.m20, this.m21, this.m22, this.m23 },
+				{ this.m30, this.m31, this.m32, this.m33 } });
+	}
+
+	/**
+	 * Returns a {@code Matrix4} with the same entries as the given 4x4
+	 * {@link Matrix}. A 3x3 {@code Matrix}, such as one from
+	 * {@link Matrix#rotationMatrix3DX(double)}, becomes the linear part of an
+	 * affine transform with no translation.
+	 *
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if m is not 3x3 or 4x4
+	 */
+	public static Matrix4 fromMatrix(Matrix m)
+			throws ArrayIndexOutOfBoundsException {
+		if (m.getHeight() == 3 && m.getWidth() == 3) {
+			return new Matrix4().set(Matrix3.fromMatrix(m), 0, 0, 0);
+		}
+		if (m.getHeight() != 4 || m.getWidth() != 4) {
+			throw new ArrayIndexOutOfBoundsException();
+		}
+		double[][] e = m.toArray();
+		return new Matrix4(e[0][0], e[0][1], e[0][2], e[0][3], e[1][0],
+				e[1][1], e[1][2], e[1][3], e[2][0], e[2][1], e[2][2], e[2][3],
+				e[3][0], e[3][1], e[3][2], e[3][3]);
+	}
+
+	@Override
+	public String toString() {
+		return this.toMatrix().toString();
+	}
+}
@@ -0,0 +1,124 @@
+package graphicsLibrary;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class MatrixTest {
+
+	private static void assertPointEquals(Point expected, Point actual) {
+		assertEquals(expected.getX(), actual.getX(), 1e-9);
+		assertEquals(expected.getY(), actual.getY(), 1e-9);
+		assertEquals(expected.getZ(), actual.getZ(), 1e-9);
+	}
+
+	@Test
+	public void testRotationsMatchPoint() {
+		Point center = new Point(1, -2, 0.5);
+		Vector axis = new Vector(1, 2, -3);
+		Matrix4 m = Matrix4.around(Matrix3.rotationX(0.4), 1, -2, 0.5)
+				.compose(Matrix4.around(Matrix3.rotationY(-1.1), 1, -2, 0.5))
+				.compose(Matrix4.around(Matrix3.rotationZ(2.3), 1, -2, 0.5))
+				.compose(Matrix4.around(Matrix3.rotation(0.7, axis), 1, -2, 0.5))
+				.compose(Matrix4.translation(3, 4, 5));
+
+		Point p = new Point(0.3, 1.7, -2.2);
+		Point q = m.transformPoint(p);
+		p.rotateX(0.4, center);
+		p.rotateY(-1.1, center);
+		p.rotateZ(2.3, center);
+		p.rotateAroundVector(0.7, center, axis);
+		p.translate(3, 4, 5);
+		assertPointEquals(p, q);
+	}
+
+	@Test
+	public void testInverse() {
+		Matrix4 m = Matrix4.around(Matrix3.rotation(0.7, new Vector(1, 1, 0)),
+				1, 2, 3).compose(Matrix4.translation(-4, 0, 2));
+		Matrix4 product = Matrix4.multiply(m, m.invertAffine());
+		for (int i = 0; i < 4; i++) {
+			for (int j = 0; j < 4; j++) {
+				assertEquals(i == j ? 1 : 0, product.getEntry(i, j), 1e-12);
+			}
+		}
+
+		Matrix3 s = new Matrix3(2, 1, 0, 0, 3, 1, 1, 0, 4);
+		Matrix3 identity = Matrix3.multiply(s, s.invert());
+		for (int i = 0; i < 3; i++) {
+			for (int j = 0; j < 3; j++) {
+				assertEquals(i == j ? 1 : 0, identity.getEntry(i, j), 1e-12);
+			}
+		}
+	}
+
+	@Test
+	public void testFromMatrix() {
+		Matrix3 r = Matrix3.fromMatrix(Matrix.rotationMatrix3DZ(0.3));
+		assertPointEquals(Matrix3.rotationZ(0.3).transformPoint(
+				new Point(1, 2, 3)), r.transformPoint(new Point(1, 2, 3)));
+		Matrix4 m = Matrix4.fromMatrix(Matrix.identity(4));
+		assertTrue(m.isAffine());
+	}
+
+	@Test
+	public void testDeterminantAndSolve() throws Exception {
+		Matrix m = new Matrix(new double[][] { { 0, 2, 1 }, { 4, 1, -1 },
+				{ 2, 3, 5 } });
+		// Expanded along the first row: 0 - 2 * 22 + 1 * 10
+		assertEquals(-34, m.determinant(), 1e-12);
+		assertEquals(0, new Matrix(new double[][] { { 1, 2 }, { 2, 4 } })
+				.determinant(), 0);
+
+		LUDecomposition lu = m.lu();
+		double[] x = lu.solve(new double[] { 3, 4, 10 });
+		assertEquals(1, x[0], 1e-12);
+		assertEquals(1, x[1], 1e-12);
+		assertEquals(1, x[2], 1e-12);
+
+		Matrix identity = Matrix.multiply(m, m.inverse());
+		for (int i = 0; i < 3; i++) {
+			for (int j = 0; j < 3; j++) {
+				assertEquals(i == j ? 1 : 0, identity.getEntry(i, j), 1e-12);
+			}
+		}
+	}
+
+	private static double[][] random(Random random, int height, int width) {
+		double[][] out = new double[height][width];
+		for (int i = 0; i < height; i++) {
+			for (int j = 0; j < width; j++) {
+				out[i][j] = 2 * random.nextDouble() - 1;
+			}
+		}
+		return out;
+	}
+
+	@Test
+	public void testMultiply() {
+		Random random = new Random(5);
+		// Below the blocked threshold, above it, above the parallel one, and
+		// shapes that are neither square nor multiples of the block or of
+		// the four columns done at once.
+		int[][] shapes = { { 31, 31, 31 }, { 100, 100, 100 }, { 300, 300, 300 },
+				{ 100, 37, 93 }, { 7, 300, 5 }, { 300, 131, 203 },
+				{ 1, 300, 301 }, { 257, 65, 3 } };
+		for (int[] shape : shapes) {
+			double[][] a = random(random, shape[0], shape[1]);
+			double[][] b = random(random, shape[1], shape[2]);
+			Matrix product = Matrix.multiply(new Matrix(a), new Matrix(b));
+			for (int i = 0; i < shape[0]; i++) {
+				for (int j = 0; j < shape[2]; j++) {
+					double expected = 0;
+					for (int k = 0; k < shape[1]; k++) {
+						expected += a[i][k] * b[k][j];
+					}
+					assertEquals(expected, product.getEntry(i, j), 1e-11);
+				}
+			}
+		}
+	}
+
+}
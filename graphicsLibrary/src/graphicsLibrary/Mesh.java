@@ -0,0 +1,874 @@
+package graphicsLibrary;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * A class to store the geometry of a {@link Shape} as flat arrays.
+ *
+ * Vertices are packed into a single {@code double[]} as x, y, z triples, and
+ * triangles are stored as an {@code int[]} of vertex indices, three per
+ * triangle, going counterclockwise from the front of the face (the same order
+ * {@link Triangle} expects). Each triangle also keeps its own {@link Color}.
+ *
+ * {@link Point} and {@link Triangle} views of the mesh can be requested for
+ * compatibility; they read and write through to the arrays.
+ *
+ * Transforms given to {@link #transform(Matrix4)} are combined into one
+ * pending matrix, which is applied to every vertex in a single pass the next
+ * time the vertices are read.
+ *
+ * In single-precision mode (see {@link #setSinglePrecision(boolean)}) the
+ * vertices are stored as floats, relative to an origin kept as doubles. This
+ * halves the memory used by the vertices, while a mesh far from (0, 0, 0)
+ * keeps its precision.
+ *
+ * Every change to the vertices or triangles bumps a version number. The unit
+ * normal and centroid of each triangle, and the {@link Bounds} of the
+ * vertices, are cached, and recomputed in one pass the first time they are
+ * asked for after a change.
+ *
+ * @author caudeljn
+ *
+ */
+public class Mesh {
+	private static final int INITIAL_CAPACITY = 16;
+
+	/**
+	 * Number of triangles in each batch; see {@link #getBatchBounds(int)}.
+	 */
+	public static final int BATCH_SIZE = 256;
+
+	// Exactly one of these is used, depending on the precision mode.
+	private double[] vertices;
+	private float[] floatVertices;
+	// Added to every float vertex. Always zero in double-precision mode.
+	private double originX, originY, originZ;
+	private int vertexCount;
+	private int[] indices;
+	private Color[] colors;
+	private int triangleCount;
+
+	private final Matrix4 pending = new Matrix4();
+	private boolean hasPending;
+
+	private int version;
+	// Three per triangle, valid while cacheVersion is version.
+	private double[] normals;
+	private double[] centroids;
+	private int cacheVersion = -1;
+	private final Bounds bounds = new Bounds();
+	private int boundsVersion = -1;
+	private Bounds[] batchBounds;
+	private int batchVersion = -1;
+
+	private ArrayList<Point> pointViews;
+	private ArrayList<Triangle> triangleViews;
+
+	/**
+	 * Constructs a new, empty {@code Mesh}.
+	 */
+	public Mesh() {
+		this(INITIAL_CAPACITY, INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Constructs a new, empty {@code Mesh} with room for the given number of
+	 * vertices and triangles.
+	 *
+	 * @param vertexCapacity
+	 *            -number of vertices to reserve
+	 * @param triangleCapacity
+	 *            -number of triangles to reserve
+	 */
+	public Mesh(int vertexCapacity, int triangleCapacity) {
+		this.vertices = new double[3 * Math.max(vertexCapacity, 1)];
+		this.indices = new int[3 * Math.max(triangleCapacity, 1)];
+		this.colors = new Color[Math.max(triangleCapacity, 1)];
+	}
+
+	/**
+	 * Constructs a {@code Mesh} that uses the given arrays without copying
+	 * them. Exactly one of vertices and floatVertices should be non-null; the
+	 * origin is only used with floatVertices.
+	 */
+	Mesh(double[] vertices, float[] floatVertices, double originX,
+			double originY, double originZ, int vertexCount, int[] indices,
+			Color[] colors, int triangleCount) {
+		this.vertices = vertices;
+		this.floatVertices = floatVertices;
+		if (floatVertices != null) {
+			this.originX = originX;
+			this.originY = originY;
+			this.originZ = originZ;
+		}
+		this.vertexCount = vertexCount;
+		this.indices = indices;
+		this.colors = colors;
+		this.triangleCount = triangleCount;
+	}
+
+	/**
+	 * Constructs a copy of the given {@code Mesh}, including its pending
+	 * transforms and precision mode. The colours are shared, as
+	 * {@link Color}s cannot be changed.
+	 *
+	 * @param m
+	 *            -mesh to copy
+	 */
+	public Mesh(Mesh m) {
+		if (m.vertices != null) {
+			this.vertices = Arrays.copyOf(m.vertices,
+					Math.max(3 * m.vertexCount, 3));
+		}
+		if (m.floatVertices != null) {
+			this.floatVertices = Arrays.copyOf(m.floatVertices,
+					Math.max(3 * m.vertexCount, 3));
+		}
+		this.originX = m.originX;
+		this.originY = m.originY;
+		this.originZ = m.originZ;
+		this.vertexCount = m.vertexCount;
+		this.indices = Arrays.copyOf(m.indices,
+				Math.max(3 * m.triangleCount, 3));
+		this.colors = Arrays.copyOf(m.colors, Math.max(m.triangleCount, 1));
+		this.triangleCount = m.triangleCount;
+		this.pending.set(m.pending);
+		this.hasPending = m.hasPending;
+	}
+
+	/**
+	 * Returns the number of vertices in the {@code Mesh}.
+	 *
+	 * @return vertex count
+	 */
+	public int getVertexCount() {
+		return this.vertexCount;
+	}
+
+	/**
+	 * Returns the number of triangles in the {@code Mesh}.
+	 *
+	 * @return triangle count
+	 */
+	public int getTriangleCount() {
+		return this.triangleCount;
+	}
+
+	/**
+	 * Returns the backing vertex array. Vertex i is stored at indices 3i, 3i+1
+	 * and 3i+2. Only the first {@code 3 * getVertexCount()} entries are used.
+	 *
+	 * @return vertex array, not a copy
+	 * @throws IllegalStateException
+	 *             in single-precision mode; use {@link #getFloatVertices()}
+	 */
+	public double[] getVertices() throws IllegalStateException {
+		if (this.vertices == null) {
+			throw new IllegalStateException("Mesh is in single-precision mode");
+		}
+		this.flushTransforms();
+		return this.vertices;
+	}
+
+	/**
+	 * Returns the backing vertex array in single-precision mode. Vertex i is
+	 * stored at indices 3i, 3i+1 and 3i+2, relative to the origin given by
+	 * {@link #getOriginX()}, {@link #getOriginY()} and {@link #getOriginZ()}.
+	 *
+	 * @return vertex array, not a copy
+	 * @throws IllegalStateException
+	 *             in double-precision mode; use {@link #getVertices()}
+	 */
+	public float[] getFloatVertices() throws IllegalStateException {
+		if (this.floatVertices == null) {
+			throw new IllegalStateException("Mesh is in double-precision mode");
+		}
+		this.flushTransforms();
+		return this.floatVertices;
+	}
+
+	public double getOriginX() {
+		this.flushTransforms();
+		return this.originX;
+	}
+
+	public double getOriginY() {
+		this.flushTransforms();
+		return this.originY;
+	}
+
+	public double getOriginZ() {
+		this.flushTransforms();
+		return this.originZ;
+	}
+
+	public boolean isSinglePrecision() {
+		return this.floatVertices != null;
+	}
+
+	/**
+	 * Switches between storing vertices as doubles and as floats. Switching to
+	 * floats moves the origin to the average of the vertices, so the floats
+	 * are as small as possible.
+	 *
+	 * @param single
+	 *            -true to store vertices as floats
+	 */
+	public void setSinglePrecision(boolean single) {
+		if (single == this.isSinglePrecision()) {
+			return;
+		}
+		this.version++;
+		this.flushTransforms();
+		int n = 3 * this.vertexCount;
+		if (single) {
+			double[] v = this.vertices;
+			double sx = 0, sy = 0, sz = 0;
+			for (int i = 0; i < n; i += 3) {
+				sx += v[i];
+				sy += v[i + 1];
+				sz += v[i + 2];
+			}
+			int count = Math.max(this.vertexCount, 1);
+			this.originX = sx / count;
+			this.originY = sy / count;
+			this.originZ = sz / count;
+			float[] f = new float[v.length];
+			for (int i = 0; i < n; i += 3) {
+				f[i] = (float) (v[i] - this.originX);
+				f[i + 1] = (float) (v[i + 1] - this.originY);
+				f[i + 2] = (float) (v[i + 2] - this.originZ);
+			}
+			this.floatVertices = f;
+			this.vertices = null;
+		} else {
+			float[] f = this.floatVertices;
+			double[] v = new double[f.length];
+			for (int i = 0; i < n; i += 3) {
+				v[i] = this.originX + f[i];
+				v[i + 1] = this.originY + f[i + 1];
+				v[i + 2] = this.originZ + f[i + 2];
+			}
+			this.vertices = v;
+			this.floatVertices = null;
+			this.originX = 0;
+			this.originY = 0;
+			this.originZ = 0;
+		}
+	}
+
+	/**
+	 * Returns the backing index array. Triangle t uses the vertices at indices
+	 * 3t, 3t+1 and 3t+2. Only the first {@code 3 * getTriangleCount()} entries
+	 * are used.
+	 *
+	 * @return index array, not a copy
+	 */
+	public int[] getIndices() {
+		return this.indices;
+	}
+
+	public double getX(int vertex) {
+		this.flushTransforms();
+		if (this.floatVertices != null) {
+			return this.originX + this.floatVertices[3 * vertex];
+		}
+		return this.vertices[3 * vertex];
+	}
+
+	public double getY(int vertex) {
+		this.flushTransforms();
+		if (this.floatVertices != null) {
+			return this.originY + this.floatVertices[3 * vertex + 1];
+		}
+		return this.vertices[3 * vertex + 1];
+	}
+
+	public double getZ(int vertex) {
+		this.flushTransforms();
+		if (this.floatVertices != null) {
+			return this.originZ + this.floatVertices[3 * vertex + 2];
+		}
+		return this.vertices[3 * vertex + 2];
+	}
+
+	public void setX(int vertex, double x) {
+		this.version++;
+		this.flushTransforms();
+		if (this.floatVertices != null) {
+			this.floatVertices[3 * vertex] = (float) (x - this.originX);
+		} else {
+			this.vertices[3 * vertex] = x;
+		}
+	}
+
+	public void setY(int vertex, double y) {
+		this.version++;
+		this.flushTransforms();
+		if (this.floatVertices != null) {
+			this.floatVertices[3 * vertex + 1] = (float) (y - this.originY);
+		} else {
+			this.vertices[3 * vertex + 1] = y;
+		}
+	}
+
+	public void setZ(int vertex, double z) {
+		this.version++;
+		this.flushTransforms();
+		if (this.floatVertices != null) {
+			this.floatVertices[3 * vertex + 2] = (float) (z - this.originZ);
+		} else {
+			this.vertices[3 * vertex + 2] = z;
+		}
+	}
+
+	public Color getColor(int triangle) {
+		return this.colors[triangle];
+	}
+
+	public void setColor(int triangle, Color c) {
+		this.colors[triangle] = c;
+	}
+
+	/**
+	 * Sets every triangle in the {@code Mesh} to the given {@link Color}.
+	 *
+	 * @param c
+	 *            -new colour
+	 */
+	public void setColor(Color c) {
+		Arrays.fill(this.colors, 0, this.triangleCount, c);
+	}
+
+	/**
+	 * Adds a vertex to the {@code Mesh}.
+	 *
+	 * @return index of the new vertex
+	 */
+	public int addVertex(double x, double y, double z) {
+		this.version++;
+		// Pending transforms belong to the vertices already in the mesh.
+		this.flushTransforms();
+		int i = 3 * this.vertexCount;
+		if (this.floatVertices != null) {
+			if (i + 3 > this.floatVertices.length) {
+				this.floatVertices = Arrays.copyOf(this.floatVertices,
+						Math.max(2 * this.floatVertices.length, i + 3));
+			}
+			this.floatVertices[i] = (float) (x - this.originX);
+			this.floatVertices[i + 1] = (float) (y - this.originY);
+			this.floatVertices[i + 2] = (float) (z - this.originZ);
+		} else {
+			if (i + 3 > this.vertices.length) {
+				this.vertices = Arrays.copyOf(this.vertices,
+						Math.max(2 * this.vertices.length, i + 3));
+			}
+			this.vertices[i] = x;
+			this.vertices[i + 1] = y;
+			this.vertices[i + 2] = z;
+		}
+		return this.vertexCount++;
+	}
+
+	/**
+	 * Adds a triangle between three existing vertices. The order of the
+	 * vertices should go counterclockwise from the front of the face.
+	 *
+	 * @param a
+	 *            -index of first vertex
+	 * @param b
+	 *            -index of second vertex
+	 * @param c
+	 *            -index of third vertex
+	 * @param color
+	 *            -colour of the triangle
+	 * @return index of the new triangle
+	 */
+	public int addTriangle(int a, int b, int c, Color color) {
+		this.version++;
+		if (3 * this.triangleCount + 3 > this.indices.length) {
+			this.indices = Arrays.copyOf(this.indices,
+					Math.max(2 * this.indices.length, 3 * this.triangleCount + 3));
+			this.colors = Arrays.copyOf(this.colors, this.indices.length / 3);
+		}
+		int i = 3 * this.triangleCount;
+		this.indices[i] = a;
+		this.indices[i + 1] = b;
+		this.indices[i + 2] = c;
+		this.colors[this.triangleCount] = color;
+		return this.triangleCount++;
+	}
+
+	/**
+	 * Merges vertices no more than the given distance apart, using a
+	 * {@link VertexWelder}, and points the triangles at the merged vertices.
+	 * Views from {@link #getPoints()} and {@link #getTriangles()} made before
+	 * this call should not be used afterwards.
+	 *
+	 * @param epsilon
+	 *            -largest distance between merged vertices; 0 merges only
+	 *            exactly equal vertices
+	 * @return number of vertices removed
+	 */
+	public int weld(double epsilon) {
+		this.version++;
+		this.flushTransforms();
+		VertexWelder welder = new VertexWelder(epsilon);
+		int[] remap = new int[this.vertexCount];
+		for (int i = 0; i < this.vertexCount; i++) {
+			remap[i] = welder.add(this.getX(i), this.getY(i), this.getZ(i));
+		}
+		if (welder.getMergedCount() == 0) {
+			return 0;
+		}
+		for (int i = 0; i < 3 * this.triangleCount; i++) {
+			this.indices[i] = remap[this.indices[i]];
+		}
+		boolean single = this.isSinglePrecision();
+		if (single) {
+			this.setSinglePrecision(false);
+		}
+		this.vertices = welder.getVertices();
+		this.vertexCount = welder.getVertexCount();
+		if (single) {
+			this.setSinglePrecision(true);
+		}
+		this.pointViews = null;
+		this.triangleViews = null;
+		return welder.getMergedCount();
+	}
+
+	/**
+	 * Returns a number that changes every time the vertices or triangles
+	 * change, including when a transform is added. Code that writes straight
+	 * into {@link #getVertices()} should call {@link #markChanged()}.
+	 */
+	public int getVersion() {
+		return this.version;
+	}
+
+	/**
+	 * Records that the vertices were changed through the backing array, so
+	 * cached normals and centroids are recomputed.
+	 */
+	public void markChanged() {
+		this.version++;
+	}
+
+	/**
+	 * Returns the bounds of the vertices. They are cached, and only fitted
+	 * again after the mesh changes.
+	 *
+	 * @return bounds, not a copy
+	 */
+	public Bounds getBounds() {
+		this.flushTransforms();
+		if (this.boundsVersion != this.version) {
+			if (this.floatVertices != null) {
+				this.bounds.fit(this.floatVertices, this.vertexCount,
+						this.originX, this.originY, this.originZ);
+			} else {
+				this.bounds.fit(this.vertices, this.vertexCount);
+			}
+			this.boundsVersion = this.version;
+		}
+		return this.bounds;
+	}
+
+	/**
+	 * Returns the number of batches the triangles are split into. Batch b
+	 * holds triangles {@code b * BATCH_SIZE} up to, but not including,
+	 * {@code (b + 1) * BATCH_SIZE}.
+	 */
+	public int getBatchCount() {
+		return (this.triangleCount + BATCH_SIZE - 1) / BATCH_SIZE;
+	}
+
+	/**
+	 * Returns the bounds of the vertices used by the given batch of
+	 * triangles. They are cached like {@link #getBounds()}, and let parts of a
+	 * large mesh that cannot be seen be skipped.
+	 *
+	 * @param batch
+	 *            -index of the batch
+	 * @return bounds, not a copy
+	 */
+	public Bounds getBatchBounds(int batch) {
+		this.flushTransforms();
+		if (this.batchVersion != this.version) {
+			this.fitBatches();
+			this.batchVersion = this.version;
+		}
+		return this.batchBounds[batch];
+	}
+
+	private void fitBatches() {
+		int count = this.getBatchCount();
+		if (this.batchBounds == null || this.batchBounds.length < count) {
+			this.batchBounds = new Bounds[count];
+			for (int b = 0; b < count; b++) {
+				this.batchBounds[b] = new Bounds();
+			}
+		}
+		for (int b = 0; b < count; b++) {
+			int start = 3 * b * BATCH_SIZE;
+			int end = Math.min(start + 3 * BATCH_SIZE, 3 * this.triangleCount);
+			double x0 = Double.POSITIVE_INFINITY, y0 = x0, z0 = x0;
+			double x1 = Double.NEGATIVE_INFINITY, y1 = x1, z1 = x1;
+			for (int i = start; i < end; i++) {
+				int v = this.indices[i];
+				double x = this.getX(v), y = this.getY(v), z = this.getZ(v);
+				x0 = Math.min(x0, x);
+				y0 = Math.min(y0, y);
+				z0 = Math.min(z0, z);
+				x1 = Math.max(x1, x);
+				y1 = Math.max(y1, y);
+				z1 = Math.max(z1, z);
+			}
+			double cx = (x0 + x1) / 2, cy = (y0 + y1) / 2, cz = (z0 + z1) / 2;
+			double max = 0;
+			for (int i = start; i < end; i++) {
+				int v = this.indices[i];
+				max = Math.max(max, Vector.magnitudeSquared(this.getX(v) - cx,
+						this.getY(v) - cy, this.getZ(v) - cz));
+			}
+			this.batchBounds[b].set(x0, y0, z0, x1, y1, z1, cx, cy, cz,
+					Math.sqrt(max));
+		}
+	}
+
+	/**
+	 * Returns whether the cached normals and centroids are out of date.
+	 */
+	public boolean isTriangleCacheStale() {
+		return this.cacheVersion != this.version;
+	}
+
+	/**
+	 * Returns the unit normal of each triangle, as x, y, z triples. The normal
+	 * is (c - a) x (b - a), like {@link Triangle#getNormal()}, or zero for a
+	 * triangle with no area.
+	 *
+	 * @return normal array, not a copy
+	 */
+	public double[] getNormals() {
+		this.updateTriangleCache();
+		return this.normals;
+	}
+
+	/**
+	 * Returns the centroid of each triangle, as x, y, z triples.
+	 *
+	 * @return centroid array, not a copy
+	 */
+	public double[] getCentroids() {
+		this.updateTriangleCache();
+		return this.centroids;
+	}
+
+	/**
+	 * Recomputes every normal and centroid if anything has changed since they
+	 * were last computed.
+	 */
+	public void updateTriangleCache() {
+		this.flushTransforms();
+		if (this.cacheVersion == this.version) {
+			return;
+		}
+		int n = 3 * this.triangleCount;
+		if (this.normals == null || this.normals.length < n) {
+			this.normals = new double[Math.max(n, 3)];
+			this.centroids = new double[Math.max(n, 3)];
+		}
+		double[] normal = this.normals;
+		double[] centroid = this.centroids;
+		int[] index = this.indices;
+		double[] v = this.vertices;
+		float[] f = this.floatVertices;
+		for (int i = 0; i < n; i += 3) {
+			int a = 3 * index[i];
+			int b = 3 * index[i + 1];
+			int c = 3 * index[i + 2];
+			double ax, ay, az, bx, by, bz, cx, cy, cz;
+			if (f == null) {
+				ax = v[a];
+				ay = v[a + 1];
+				az = v[a + 2];
+				bx = v[b];
+				by = v[b + 1];
+				bz = v[b + 2];
+				cx = v[c];
+				cy = v[c + 1];
+				cz = v[c + 2];
+			} else {
+				ax = f[a];
+				ay = f[a + 1];
+				az = f[a + 2];
+				bx = f[b];
+				by = f[b + 1];
+				bz = f[b + 2];
+				cx = f[c];
+				cy = f[c + 1];
+				cz = f[c + 2];
+			}
+			double acx = cx - ax, acy = cy - ay, acz = cz - az;
+			double abx = bx - ax, aby = by - ay, abz = bz - az;
+			double nx = acy * abz - acz * aby;
+			double ny = acz * abx - acx * abz;
+			double nz = acx * aby - acy * abx;
+			double length = Math.sqrt(nx * nx + ny * ny + nz * nz);
+			if (length > 0) {
+				nx /= length;
+				ny /= length;
+				nz /= length;
+			}
+			normal[i] = nx;
+			normal[i + 1] = ny;
+			normal[i + 2] = nz;
+			// Float vertices are relative to the origin.
+			centroid[i] = this.originX + (ax + bx + cx) / 3;
+			centroid[i + 1] = this.originY + (ay + by + cy) / 3;
+			centroid[i + 2] = this.originZ + (az + bz + cz) / 3;
+		}
+		this.cacheVersion = this.version;
+	}
+
+	/**
+	 * Adds the given affine transform to the pending transforms. The vertices
+	 * are not changed until they are next read, or until
+	 * {@link #flushTransforms()} is called.
+	 *
+	 * @param m
+	 *            -transform to apply after any already pending
+	 */
+	public void transform(Matrix4 m) {
+		this.version++;
+		Matrix4.multiplyInto(m, this.pending, this.pending);
+		this.hasPending = true;
+	}
+
+	/**
+	 * Returns whether there are transforms that have not been applied to the
+	 * vertices yet.
+	 */
+	public boolean hasPendingTransforms() {
+		return this.hasPending;
+	}
+
+	/**
+	 * Applies any pending transforms to the vertices, in one pass.
+	 */
+	public void flushTransforms() {
+		if (this.hasPending) {
+			this.hasPending = false;
+			// transform() already bumped the version.
+			this.apply(this.pending);
+			this.pending.setIdentity();
+		}
+	}
+
+	/**
+	 * Applies the given affine transform to every vertex right away.
+	 *
+	 * @param m
+	 *            -transform to apply
+	 */
+	public void applyTransform(Matrix4 m) {
+		this.version++;
+		this.apply(m);
+	}
+
+	private void apply(Matrix4 m) {
+		if (this.floatVertices == null) {
+			PointBuffer.transformInterleaved(m, this.getVertices(),
+					this.vertexCount);
+			return;
+		}
+		// Each vertex is origin + local, so the origin moves as a point and
+		// the floats only need the linear part.
+		this.flushTransforms();
+		double[] origin = { this.originX, this.originY, this.originZ };
+		m.transformPointInto(origin, 0, origin, 0);
+		this.originX = origin[0];
+		this.originY = origin[1];
+		this.originZ = origin[2];
+		PointBuffer.transformLinear(m, this.floatVertices, this.vertexCount);
+	}
+
+	/**
+	 * Sets the x-value of every vertex.
+	 */
+	public void fillX(double x) {
+		this.version++;
+		this.flushTransforms();
+		if (this.floatVertices != null) {
+			float local = (float) (x - this.originX);
+			for (int i = 0; i < this.vertexCount; i++) {
+				this.floatVertices[3 * i] = local;
+			}
+			return;
+		}
+		for (int i = 0; i < this.vertexCount; i++) {
+			this.vertices[3 * i] = x;
+		}
+	}
+
+	/**
+	 * Sets the y-value of every vertex.
+	 */
+	public void fillY(double y) {
+		this.version++;
+		this.flushTransforms();
+		if (this.floatVertices != null) {
+			float local = (float) (y - this.originY);
+			for (int i = 0; i < this.vertexCount; i++) {
+				this.floatVertices[3 * i + 1] = local;
+			}
+			return;
+		}
+		for (int i = 0; i < this.vertexCount; i++) {
+			this.vertices[3 * i + 1] = y;
+		}
+	}
+
+	/**
+	 * Sets the z-value of every vertex.
+	 */
+	public void fillZ(double z) {
+		this.version++;
+		this.flushTransforms();
+		if (this.floatVertices != null) {
+			float local = (float) (z - this.originZ);
+			for (int i = 0; i < this.vertexCount; i++) {
+				this.floatVertices[3 * i + 2] = local;
+			}
+			return;
+		}
+		for (int i = 0; i < this.vertexCount; i++) {
+			this.vertices[3 * i + 2] = z;
+		}
+	}
+
+	/**
+	 * Returns a list of {@link Point} views of the vertices. The list is built
+	 * the first time it is asked for, and changes to the points are written
+	 * back into the {@code Mesh}.
+	 *
+	 * @return list of points
+	 */
+	public ArrayList<Point> getPoints() {
+		if (this.pointViews == null) {
+			this.pointViews = new ArrayList<Point>(this.vertexCount);
+		}
+		for (int i = this.pointViews.size(); i < this.vertexCount; i++) {
+			this.pointViews.add(new PointView(this, i));
+		}
+		return this.pointViews;
+	}
+
+	/**
+	 * Returns a list of {@link Triangle} views of the triangles. The list is
+	 * built the first time it is asked for. The triangles share the
+	 * {@link Point} views from {@link #getPoints()}, and changes to their
+	 * colours are written back into the {@code Mesh}.
+	 *
+	 * @return list of triangles
+	 */
+	public ArrayList<Triangle> getTriangles() {
+		ArrayList<Point> points = this.getPoints();
+		if (this.triangleViews == null) {
+			this.triangleViews = new ArrayList<Triangle>(this.triangleCount);
+		}
+		for (int t = this.triangleViews.size(); t < this.triangleCount; t++) {
+			this.triangleViews.add(new TriangleView(this, t,
+					points.get(this.indices[3 * t]),
+					points.get(this.indices[3 * t + 1]),
+					points.get(this.indices[3 * t + 2])));
+		}
+		return this.triangleViews;
+	}
+
+	/**
+	 * A {@link Point} that reads and writes a vertex of a {@code Mesh}.
+	 */
+	private static class PointView extends Point {
+		private final Mesh mesh;
+		private final int index;
+
+		private PointView(Mesh mesh, int index) {
+			super(0, 0, 0);
+			this.mesh = mesh;
+			this.index = index;
+		}
+
+		@Override
+		public double getX() {
+			return this.mesh.getX(this.index);
+		}
+
+		@Override
+		public double getY() {
+			return this.mesh.getY(this.index);
+		}
+
+		@Override
+		public double getZ() {
+			return this.mesh.getZ(this.index);
+		}
+
+		@Override
+		public void setX(double x) {
+			this.mesh.setX(this.index, x);
+		}
+
+		@Override
+		public void setY(double y) {
+			this.mesh.setY(this.index, y);
+		}
+
+		@Override
+		public void setZ(double z) {
+			this.mesh.setZ(this.index, z);
+		}
+	}
+
+	/**
+	 * A {@link Triangle} whose colour is stored in a {@code Mesh}.
+	 */
+	private static class TriangleView extends Triangle {
+		private final Mesh mesh;
+		private final int index;
+
+		private TriangleView(Mesh mesh, int index, Point a, Point b, Point c) {
+			super(a, b, c);
+			this.mesh = mesh;
+			this.index = index;
+		}
+
+		@Override
+		public Color getColor() {
+			return this.mesh.colors[this.index];
+		}
+
+		@Override
+		public void setColor(Color c) {
+			this.mesh.colors[this.index] = c;
+		}
+
+		@Override
+		public Vector getNormal() {
+			double[] n = this.mesh.getNormals();
+			int i = 3 * this.index;
+			return new Vector(n[i], n[i + 1], n[i + 2]);
+		}
+
+		@Override
+		public Point getCenter() {
+			double[] c = this.mesh.getCentroids();
+			int i = 3 * this.index;
+			return new Point(c[i], c[i + 1], c[i + 2]);
+		}
+	}
+}
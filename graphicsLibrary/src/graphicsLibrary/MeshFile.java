@@ -0,0 +1,277 @@
+package graphicsLibrary;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A class to save and load shapes in a compact binary format.
+ *
+ * A file is a fixed header followed by the arrays of a {@link Mesh}, all
+ * little-endian:
+ * <ul>
+ * <li>magic number {@code "GLMS"}, format version, flags, vertex count and
+ * triangle count, as ints, then one unused int;</li>
+ * <li>the origin of single-precision vertices, and the center of the shape,
+ * as three doubles each;</li>
+ * <li>the vertices, as x, y, z triples of doubles, or of floats if flag
+ * {@link #SINGLE_PRECISION} is set;</li>
+ * <li>three vertex indices per triangle, as ints;</li>
+ * <li>one colour per triangle, as an ARGB int from {@link Color#getRGB()},
+ * with 0 for none.</li>
+ * </ul>
+ *
+ * Files are streamed through a {@link FileChannel} and one small direct
+ * buffer of {@link #CHUNK_SIZE} bytes, and each array is copied in bulk
+ * between that buffer and the arrays of the mesh, a chunk at a time. So the
+ * only full-size copy on the heap is the mesh itself. The file is not mapped:
+ * on Windows a mapping stays alive until it is garbage collected, and until
+ * then the file cannot be replaced or deleted.
+ *
+ * @author caudeljn
+ *
+ */
+public class MeshFile {
+	/**
+	 * The first four bytes of every file.
+	 */
+	public static final int MAGIC = 0x534D4C47;
+	/**
+	 * The version of the format written by this class.
+	 */
+	public static final int VERSION = 1;
+	/**
+	 * Flag set when the vertices are floats.
+	 */
+	public static final int SINGLE_PRECISION = 1;
+
+	/**
+	 * The size of the buffer files are streamed through, in bytes.
+	 */
+	public static final int CHUNK_SIZE = 1 << 16;
+
+	private static final int HEADER_SIZE = 6 * 4 + 6 * 8;
+	// The most vertices or triangles whose coordinates or indices fit in one
+	// array.
+	private static final int MAX_COUNT = Integer.MAX_VALUE / 3;
+
+	private MeshFile() {
+	}
+
+	/**
+	 * Writes the given shape to a file, replacing anything already there. In
+	 * world matrix mode, the vertices are saved with the world matrix
+	 * applied.
+	 *
+	 * @param s
+	 *            -shape to save
+	 * @param file
+	 *            -file to write
+	 * @throws IOException
+	 *             if the file cannot be written
+	 */
+	public static void write(Shape s, Path file) throws IOException {
+		Mesh mesh = s.getMesh();
+		if (s.isWorldMatrixMode()) {
+			mesh = new Mesh(mesh);
+			mesh.applyTransform(s.getWorldMatrix());
+		}
+		write(mesh, s.getCenter(), file);
+	}
+
+	/**
+	 * Writes the given mesh to a file, with the given center.
+	 *
+	 * @throws IOException
+	 *             if the file cannot be written
+	 */
+	public static void write(Mesh mesh, Point center, Path file)
+			throws IOException {
+		mesh.flushTransforms();
+		boolean single = mesh.isSinglePrecision();
+		int vertexCount = mesh.getVertexCount();
+		int triangleCount = mesh.getTriangleCount();
+		ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_SIZE).order(
+				ByteOrder.LITTLE_ENDIAN);
+		try (FileChannel channel = FileChannel.open(file,
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			buffer.putInt(MAGIC).putInt(VERSION)
+					.putInt(single ? SINGLE_PRECISION : 0).putInt(vertexCount)
+					.putInt(triangleCount).putInt(0);
+			buffer.putDouble(single ? mesh.getOriginX() : 0)
+					.putDouble(single ? mesh.getOriginY() : 0)
+					.putDouble(single ? mesh.getOriginZ() : 0);
+			buffer.putDouble(center.getX()).putDouble(center.getY())
+					.putDouble(center.getZ());
+			flush(channel, buffer);
+
+			if (single) {
+				float[] v = mesh.getFloatVertices();
+				for (int i = 0; i < 3 * vertexCount;) {
+					int n = Math.min(3 * vertexCount - i, CHUNK_SIZE / 4);
+					buffer.asFloatBuffer().put(v, i, n);
+					buffer.position(4 * n);
+					flush(channel, buffer);
+					i += n;
+				}
+			} else {
+				double[] v = mesh.getVertices();
+				for (int i = 0; i < 3 * vertexCount;) {
+					int n = Math.min(3 * vertexCount - i, CHUNK_SIZE / 8);
+					buffer.asDoubleBuffer().put(v, i, n);
+					buffer.position(8 * n);
+					flush(channel, buffer);
+					i += n;
+				}
+			}
+			int[] indices = mesh.getIndices();
+			for (int i = 0; i < 3 * triangleCount;) {
+				int n = Math.min(3 * triangleCount - i, CHUNK_SIZE / 4);
+				buffer.asIntBuffer().put(indices, i, n);
+				buffer.position(4 * n);
+				flush(channel, buffer);
+				i += n;
+			}
+			for (int t = 0; t < triangleCount; t++) {
+				if (!buffer.hasRemaining()) {
+					flush(channel, buffer);
+				}
+				Color c = mesh.getColor(t);
+				buffer.putInt(c == null ? 0 : c.getRGB());
+			}
+			flush(channel, buffer);
+		}
+	}
+
+	/**
+	 * Writes what has been put in the buffer, and clears it.
+	 */
+	private static void flush(FileChannel channel, ByteBuffer buffer)
+			throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	/**
+	 * Reads the given number of bytes, no more than the size of the buffer,
+	 * into the start of the buffer, and leaves it ready to get them.
+	 */
+	private static void fill(FileChannel channel, ByteBuffer buffer,
+			int bytes, Path file) throws IOException {
+		buffer.clear();
+		buffer.limit(bytes);
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer) < 0) {
+				throw new IOException("Unexpected end of file: " + file);
+			}
+		}
+		buffer.flip();
+	}
+
+	/**
+	 * Reads a shape written by {@link #write(Shape, Path)}.
+	 *
+	 * @param file
+	 *            -file to read
+	 * @return new shape
+	 * @throws IOException
+	 *             if the file cannot be read, or is not a valid mesh file
+	 */
+	public static Shape read(Path file) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_SIZE).order(
+				ByteOrder.LITTLE_ENDIAN);
+		try (FileChannel channel = FileChannel.open(file,
+				StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size < HEADER_SIZE) {
+				throw new IOException("Not a mesh file: " + file);
+			}
+			fill(channel, buffer, HEADER_SIZE, file);
+			if (buffer.getInt() != MAGIC) {
+				throw new IOException("Not a mesh file: " + file);
+			}
+			int version = buffer.getInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported mesh file version "
+						+ version + ": " + file);
+			}
+			boolean single = (buffer.getInt() & SINGLE_PRECISION) != 0;
+			int vertexCount = buffer.getInt();
+			int triangleCount = buffer.getInt();
+			buffer.getInt();
+			long expected = HEADER_SIZE + 3L * vertexCount * (single ? 4 : 8)
+					+ 16L * triangleCount;
+			if (vertexCount < 0 || triangleCount < 0 || size != expected
+					|| vertexCount > MAX_COUNT || triangleCount > MAX_COUNT) {
+				throw new IOException("Corrupt mesh file: " + file);
+			}
+			double originX = buffer.getDouble();
+			double originY = buffer.getDouble();
+			double originZ = buffer.getDouble();
+			Point center = new Point(buffer.getDouble(), buffer.getDouble(),
+					buffer.getDouble());
+
+			double[] vertices = null;
+			float[] floatVertices = null;
+			if (single) {
+				floatVertices = new float[Math.max(3 * vertexCount, 3)];
+				for (int i = 0; i < 3 * vertexCount;) {
+					int n = Math.min(3 * vertexCount - i, CHUNK_SIZE / 4);
+					fill(channel, buffer, 4 * n, file);
+					buffer.asFloatBuffer().get(floatVertices, i, n);
+					i += n;
+				}
+			} else {
+				vertices = new double[Math.max(3 * vertexCount, 3)];
+				for (int i = 0; i < 3 * vertexCount;) {
+					int n = Math.min(3 * vertexCount - i, CHUNK_SIZE / 8);
+					fill(channel, buffer, 8 * n, file);
+					buffer.asDoubleBuffer().get(vertices, i, n);
+					i += n;
+				}
+			}
+			int[] indices = new int[Math.max(3 * triangleCount, 3)];
+			for (int i = 0; i < 3 * triangleCount;) {
+				int n = Math.min(3 * triangleCount - i, CHUNK_SIZE / 4);
+				fill(channel, buffer, 4 * n, file);
+				buffer.asIntBuffer().get(indices, i, n);
+				i += n;
+			}
+			for (int i = 0; i < 3 * triangleCount; i++) {
+				if (indices[i] < 0 || indices[i] >= vertexCount) {
+					throw new IOException("Corrupt mesh file: " + file);
+				}
+			}
+			Color[] colors = new Color[Math.max(triangleCount, 1)];
+			// Meshes usually have few colours, so share the Color objects.
+			Color last = null;
+			for (int t0 = 0; t0 < triangleCount;) {
+				int n = Math.min(triangleCount - t0, CHUNK_SIZE / 4);
+				fill(channel, buffer, 4 * n, file);
+				for (int t = t0; t < t0 + n; t++) {
+					int argb = buffer.getInt();
+					if (argb == 0) {
+						continue;
+					}
+					if (last == null || last.getRGB() != argb) {
+						last = new Color(argb, true);
+					}
+					colors[t] = last;
+				}
+				t0 += n;
+			}
+
+			Mesh mesh = new Mesh(vertices, floatVertices, originX, originY,
+					originZ, vertexCount, indices, colors, triangleCount);
+			return Shape.fromMesh(mesh, center);
+		}
+	}
+}
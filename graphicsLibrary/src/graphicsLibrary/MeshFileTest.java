@@ -0,0 +1,87 @@
+package graphicsLibrary;
+
+import static org.junit.Assert.*;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+public class MeshFileTest {
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		Path file = Files.createTempFile("mesh", ".glms");
+		try {
+			// A small mesh, and one whose arrays take several chunks.
+			for (int c = 0; c < 4; c++) {
+				int detail = c < 2 ? 5 : 100;
+				boolean single = c % 2 == 1;
+				Shape s = Shape.newSphere(1e4, 2, -3, 2, detail);
+				s.rotateX(0.4, s.getCenter());
+				s.getMesh().setColor(3, Color.RED);
+				int last = s.getMesh().getTriangleCount() - 1;
+				s.getMesh().setColor(last, Color.BLUE);
+				s.setSinglePrecision(single);
+				MeshFile.write(s, file);
+				Shape loaded = MeshFile.read(file);
+
+				Mesh a = s.getMesh();
+				Mesh b = loaded.getMesh();
+				assertEquals(single, b.isSinglePrecision());
+				assertEquals(a.getVertexCount(), b.getVertexCount());
+				assertEquals(a.getTriangleCount(), b.getTriangleCount());
+				for (int i = 0; i < a.getVertexCount(); i++) {
+					assertEquals(a.getX(i), b.getX(i), 0);
+					assertEquals(a.getY(i), b.getY(i), 0);
+					assertEquals(a.getZ(i), b.getZ(i), 0);
+				}
+				for (int i = 0; i < 3 * a.getTriangleCount(); i++) {
+					assertEquals(a.getIndices()[i], b.getIndices()[i]);
+				}
+				assertEquals(Color.RED, b.getColor(3));
+				assertEquals(Color.WHITE, b.getColor(4));
+				assertEquals(Color.BLUE, b.getColor(last));
+				assertEquals(s.getX(), loaded.getX(), 0);
+			}
+
+			Files.write(file, new byte[] { 1, 2, 3 });
+			try {
+				MeshFile.read(file);
+				fail();
+			} catch (IOException e) {
+				// Expected.
+			}
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Ignore("Benchmark: times loading against regenerating a large sphere")
+	@Test
+	public void testLoadTime() throws IOException {
+		Path file = Files.createTempFile("mesh", ".glms");
+		try {
+			MeshFile.write(Shape.newSphere(0, 0, 0, 1, 150), file);
+			long generate = Long.MAX_VALUE;
+			long load = Long.MAX_VALUE;
+			for (int i = 0; i < 5; i++) {
+				long start = System.nanoTime();
+				Shape.newSphere(0, 0, 0, 1, 150);
+				generate = Math.min(generate, System.nanoTime() - start);
+				start = System.nanoTime();
+				MeshFile.read(file);
+				load = Math.min(load, System.nanoTime() - start);
+			}
+			System.out.println("Detail 150 sphere: generated in "
+					+ generate / 1000000 + " ms, loaded in " + load / 1000000
+					+ " ms");
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+}
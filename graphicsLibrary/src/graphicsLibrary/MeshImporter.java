@@ -0,0 +1,676 @@
+package graphicsLibrary;
+
+import java.awt.Color;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * A class to load meshes from Wavefront OBJ and PLY files.
+ *
+ * Files are read in chunks into one byte array, and numbers are parsed
+ * straight from the bytes, so importing makes no objects per line or per
+ * vertex. Vertices go through a {@link VertexWelder} into a flat array and
+ * faces straight into an index array; polygons with more than three sides
+ * are split into fans of triangles. Only positions and faces are read;
+ * texture coordinates, normals, materials and other properties are skipped.
+ *
+ * @author caudeljn
+ *
+ */
+public class MeshImporter {
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	// Exact powers of ten for the number parser.
+	private static final double[] POWERS = new double[23];
+	static {
+		POWERS[0] = 1;
+		for (int i = 1; i < POWERS.length; i++) {
+			POWERS[i] = POWERS[i - 1] * 10;
+		}
+	}
+
+	private MeshImporter() {
+	}
+
+	/**
+	 * Reads a shape from an OBJ or PLY file, chosen by the extension of the
+	 * file name. The center of the shape is the center of its bounds.
+	 *
+	 * @param file
+	 *            -file to read
+	 * @param weldEpsilon
+	 *            -largest distance between vertices to merge, 0 to merge only
+	 *            exactly equal vertices, or negative not to merge any
+	 * @return new shape
+	 * @throws IOException
+	 *             if the file cannot be read, is not an OBJ or PLY file, or
+	 *             is malformed
+	 */
+	public static Shape read(Path file, double weldEpsilon) throws IOException {
+		String name = file.getFileName().toString().toLowerCase();
+		Mesh mesh;
+		try (InputStream in = Files.newInputStream(file)) {
+			if (name.endsWith(".obj")) {
+				mesh = readObj(in, weldEpsilon);
+			} else if (name.endsWith(".ply")) {
+				mesh = readPly(in, weldEpsilon);
+			} else {
+				throw new IOException("Unknown mesh format: " + file);
+			}
+		}
+		Bounds b = mesh.getBounds();
+		return Shape.fromMesh(mesh, new Point(b.getCenterX(), b.getCenterY(),
+				b.getCenterZ()));
+	}
+
+	/**
+	 * Reads a mesh from a Wavefront OBJ stream. Uses the {@code v} and
+	 * {@code f} lines, with one-based or negative (relative) indices.
+	 *
+	 * @param in
+	 *            -stream to read, which is not closed
+	 * @param weldEpsilon
+	 *            -see {@link #read(Path, double)}
+	 * @return new mesh
+	 * @throws IOException
+	 *             if the stream cannot be read or is malformed
+	 */
+	public static Mesh readObj(InputStream in, double weldEpsilon)
+			throws IOException {
+		Input input = new Input(in);
+		Builder builder = new Builder(weldEpsilon);
+		int[] face = new int[16];
+		while (true) {
+			input.skipWhitespace();
+			int c = input.peek();
+			if (c < 0) {
+				break;
+			}
+			if (c == 'v') {
+				input.next();
+				if (input.peek() == ' ' || input.peek() == '\t') {
+					builder.addVertex(input.nextDouble(), input.nextDouble(),
+							input.nextDouble());
+				}
+			} else if (c == 'f') {
+				input.next();
+				int sides = 0;
+				while (!input.atLineEnd()) {
+					long index = input.nextLong();
+					// Skip texture coordinate and normal indices.
+					input.skipToken();
+					if (index < 0) {
+						index += builder.getRawCount();
+					} else {
+						index--;
+					}
+					if (sides == face.length) {
+						face = Arrays.copyOf(face, 2 * sides);
+					}
+					face[sides++] = builder.checkIndex(index, input);
+				}
+				builder.addPolygon(face, sides, input);
+			}
+			input.skipLine();
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Reads a mesh from a PLY stream, in the ASCII or either binary format.
+	 * Uses the x, y and z properties of the {@code vertex} element and the
+	 * {@code vertex_indices} list of the {@code face} element.
+	 *
+	 * @param in
+	 *            -stream to read, which is not closed
+	 * @param weldEpsilon
+	 *            -see {@link #read(Path, double)}
+	 * @return new mesh
+	 * @throws IOException
+	 *             if the stream cannot be read or is malformed
+	 */
+	public static Mesh readPly(InputStream in, double weldEpsilon)
+			throws IOException {
+		Input input = new Input(in);
+		if (!"ply".equals(input.nextWord())) {
+			throw new IOException("Not a PLY file");
+		}
+		input.skipLine();
+
+		// The header is a handful of lines, so plain strings are fine here.
+		int format = -1;
+		ArrayList<Element> elements = new ArrayList<Element>();
+		while (true) {
+			String keyword = input.nextWord();
+			if (keyword.equals("end_header")) {
+				input.skipLine();
+				break;
+			} else if (keyword.equals("format")) {
+				String name = input.nextWord();
+				if (name.equals("ascii")) {
+					format = Input.ASCII;
+				} else if (name.equals("binary_little_endian")) {
+					format = Input.LITTLE_ENDIAN;
+				} else if (name.equals("binary_big_endian")) {
+					format = Input.BIG_ENDIAN;
+				} else {
+					throw input.error("Unknown PLY format " + name);
+				}
+			} else if (keyword.equals("element")) {
+				elements.add(new Element(input.nextWord(), input.nextLong()));
+			} else if (keyword.equals("property")) {
+				if (elements.isEmpty()) {
+					throw input.error("Property before any element");
+				}
+				Element element = elements.get(elements.size() - 1);
+				String type = input.nextWord();
+				int countType = -1;
+				if (type.equals("list")) {
+					countType = Input.type(input.nextWord(), input);
+					type = input.nextWord();
+				}
+				element.add(input.nextWord(), Input.type(type, input),
+						countType);
+			} else if (keyword.length() == 0 && input.peek() < 0) {
+				throw input.error("No end_header");
+			}
+			input.skipLine();
+		}
+		if (format < 0) {
+			throw new IOException("PLY file has no format");
+		}
+
+		Builder builder = new Builder(weldEpsilon);
+		int[] face = new int[16];
+		for (Element element : elements) {
+			boolean vertices = element.name.equals("vertex");
+			boolean faces = element.name.equals("face");
+			int x = element.find("x");
+			int y = element.find("y");
+			int z = element.find("z");
+			int list = element.find("vertex_indices");
+			if (list < 0) {
+				list = element.find("vertex_index");
+			}
+			if (vertices && (x < 0 || y < 0 || z < 0)) {
+				throw new IOException("PLY vertices need x, y and z");
+			}
+			double vx = 0, vy = 0, vz = 0;
+			for (long e = 0; e < element.count; e++) {
+				int sides = 0;
+				for (int p = 0; p < element.size; p++) {
+					int type = element.types[p];
+					if (element.countTypes[p] < 0) {
+						double value = input.readValue(format, type);
+						if (p == x) {
+							vx = value;
+						} else if (p == y) {
+							vy = value;
+						} else if (p == z) {
+							vz = value;
+						}
+						continue;
+					}
+					long count = (long) input.readValue(format,
+							element.countTypes[p]);
+					for (long i = 0; i < count; i++) {
+						long index = (long) input.readValue(format, type);
+						if (faces && p == list) {
+							if (sides == face.length) {
+								face = Arrays.copyOf(face, 2 * sides);
+							}
+							face[sides++] = builder.checkIndex(index, input);
+						}
+					}
+				}
+				if (vertices) {
+					builder.addVertex(vx, vy, vz);
+				} else if (faces) {
+					builder.addPolygon(face, sides, input);
+				}
+				if (format == Input.ASCII) {
+					input.skipLine();
+				}
+			}
+		}
+		return builder.build();
+	}
+
+	/**
+	 * An element declared in a PLY header, and its properties.
+	 */
+	private static class Element {
+		private final String name;
+		private final long count;
+		private String[] names = new String[4];
+		private int[] types = new int[4];
+		// Type of the count of each list property, or -1 for scalars.
+		private int[] countTypes = new int[4];
+		private int size;
+
+		private Element(String name, long count) {
+			this.name = name;
+			this.count = count;
+		}
+
+		private void add(String name, int type, int countType) {
+			if (this.size == this.names.length) {
+				this.names = Arrays.copyOf(this.names, 2 * this.size);
+				this.types = Arrays.copyOf(this.types, 2 * this.size);
+				this.countTypes = Arrays.copyOf(this.countTypes, 2 * this.size);
+			}
+			this.names[this.size] = name;
+			this.types[this.size] = type;
+			this.countTypes[this.size] = countType;
+			this.size++;
+		}
+
+		private int find(String name) {
+			for (int i = 0; i < this.size; i++) {
+				if (this.names[i].equals(name)) {
+					return i;
+				}
+			}
+			return -1;
+		}
+	}
+
+	/**
+	 * Collects vertices and triangles into flat arrays as they are read.
+	 */
+	private static class Builder {
+		private final VertexWelder welder;
+		// Without a welder, vertices are kept here.
+		private double[] coords;
+		// Welded index of each vertex in the file.
+		private int[] remap = new int[1024];
+		private int rawCount;
+		private int[] indices = new int[3 * 1024];
+		private int triangleCount;
+
+		private Builder(double weldEpsilon) {
+			if (weldEpsilon >= 0) {
+				this.welder = new VertexWelder(weldEpsilon);
+			} else {
+				this.welder = null;
+				this.coords = new double[3 * 1024];
+			}
+		}
+
+		private int getRawCount() {
+			return this.rawCount;
+		}
+
+		private void addVertex(double x, double y, double z) {
+			int i = this.rawCount;
+			if (this.welder != null) {
+				if (i == this.remap.length) {
+					this.remap = Arrays.copyOf(this.remap, 2 * i);
+				}
+				this.remap[i] = this.welder.add(x, y, z);
+			} else {
+				if (3 * i == this.coords.length) {
+					this.coords = Arrays.copyOf(this.coords, 6 * i);
+				}
+				this.coords[3 * i] = x;
+				this.coords[3 * i + 1] = y;
+				this.coords[3 * i + 2] = z;
+			}
+			this.rawCount++;
+		}
+
+		/**
+		 * Returns the welded index of the given vertex of the file.
+		 */
+		private int checkIndex(long index, Input input) throws IOException {
+			if (index < 0 || index >= this.rawCount) {
+				throw input.error("Vertex index out of range");
+			}
+			return this.welder != null ? this.remap[(int) index] : (int) index;
+		}
+
+		/**
+		 * Adds a polygon as a fan of triangles, leaving out any that welding
+		 * made degenerate.
+		 */
+		private void addPolygon(int[] face, int sides, Input input)
+				throws IOException {
+			if (sides < 3) {
+				throw input.error("Face with fewer than three vertices");
+			}
+			for (int i = 2; i < sides; i++) {
+				int a = face[0], b = face[i - 1], c = face[i];
+				if (a == b || b == c || a == c) {
+					continue;
+				}
+				int t = 3 * this.triangleCount;
+				if (t == this.indices.length) {
+					this.indices = Arrays.copyOf(this.indices, 2 * t);
+				}
+				this.indices[t] = a;
+				this.indices[t + 1] = b;
+				this.indices[t + 2] = c;
+				this.triangleCount++;
+			}
+		}
+
+		private Mesh build() {
+			double[] vertices;
+			int vertexCount;
+			if (this.welder != null) {
+				vertices = this.welder.getVertices();
+				vertexCount = this.welder.getVertexCount();
+			} else {
+				vertices = Arrays.copyOf(this.coords, 3 * this.rawCount);
+				vertexCount = this.rawCount;
+			}
+			Color[] colors = new Color[Math.max(this.triangleCount, 1)];
+			Arrays.fill(colors, Color.WHITE);
+			return new Mesh(vertices, null, 0, 0, 0, vertexCount,
+					Arrays.copyOf(this.indices, 3 * this.triangleCount),
+					colors, this.triangleCount);
+		}
+	}
+
+	/**
+	 * Reads text and binary values from a stream through one buffer.
+	 */
+	private static class Input {
+		private static final int ASCII = 0, LITTLE_ENDIAN = 1,
+				BIG_ENDIAN = 2;
+		private static final int INT8 = 0, UINT8 = 1, INT16 = 2, UINT16 = 3,
+				INT32 = 4, UINT32 = 5, FLOAT32 = 6, FLOAT64 = 7;
+
+		private final InputStream in;
+		private final byte[] buffer = new byte[BUFFER_SIZE];
+		private int position;
+		private int limit;
+		private long line = 1;
+		// Only used for numbers the fast parser cannot handle.
+		private final StringBuilder slow = new StringBuilder();
+
+		private Input(InputStream in) {
+			this.in = in;
+		}
+
+		private static int type(String name, Input input) throws IOException {
+			switch (name) {
+			case "char":
+			case "int8":
+				return INT8;
+			case "uchar":
+			case "uint8":
+				return UINT8;
+			case "short":
+			case "int16":
+				return INT16;
+			case "ushort":
+			case "uint16":
+				return UINT16;
+			case "int":
+			case "int32":
+				return INT32;
+			case "uint":
+			case "uint32":
+				return UINT32;
+			case "float":
+			case "float32":
+				return FLOAT32;
+			case "double":
+			case "float64":
+				return FLOAT64;
+			default:
+				throw input.error("Unknown PLY type " + name);
+			}
+		}
+
+		private IOException error(String message) {
+			return new IOException(message + " on line " + this.line);
+		}
+
+		/**
+		 * Returns the next byte without using it, or -1 at the end.
+		 */
+		private int peek() throws IOException {
+			if (this.position == this.limit) {
+				this.limit = this.in.read(this.buffer, 0, this.buffer.length);
+				this.position = 0;
+				if (this.limit <= 0) {
+					this.limit = 0;
+					return -1;
+				}
+			}
+			return this.buffer[this.position] & 0xFF;
+		}
+
+		private int next() throws IOException {
+			int c = this.peek();
+			if (c >= 0) {
+				this.position++;
+				if (c == '\n') {
+					this.line++;
+				}
+			}
+			return c;
+		}
+
+		private int nextByte() throws IOException {
+			int c = this.peek();
+			if (c < 0) {
+				throw new EOFException("Unexpected end of file");
+			}
+			this.position++;
+			return c;
+		}
+
+		private void skipSpaces() throws IOException {
+			int c;
+			while ((c = this.peek()) == ' ' || c == '\t' || c == '\r') {
+				this.position++;
+			}
+		}
+
+		private void skipWhitespace() throws IOException {
+			int c;
+			while ((c = this.peek()) == ' ' || c == '\t' || c == '\r'
+					|| c == '\n') {
+				this.next();
+			}
+		}
+
+		private boolean atLineEnd() throws IOException {
+			this.skipSpaces();
+			int c = this.peek();
+			return c < 0 || c == '\n' || c == '#';
+		}
+
+		private void skipLine() throws IOException {
+			int c;
+			while ((c = this.next()) >= 0 && c != '\n') {
+				// Skip.
+			}
+		}
+
+		private void skipToken() throws IOException {
+			int c;
+			while ((c = this.peek()) >= 0 && c != ' ' && c != '\t'
+					&& c != '\r' && c != '\n') {
+				this.position++;
+			}
+		}
+
+		private String nextWord() throws IOException {
+			this.skipSpaces();
+			StringBuilder out = new StringBuilder();
+			int c;
+			while ((c = this.peek()) >= 0 && c != ' ' && c != '\t'
+					&& c != '\r' && c != '\n') {
+				out.append((char) c);
+				this.position++;
+			}
+			return out.toString();
+		}
+
+		private long nextLong() throws IOException {
+			this.skipSpaces();
+			boolean negative = false;
+			int c = this.peek();
+			if (c == '-' || c == '+') {
+				negative = c == '-';
+				this.position++;
+			}
+			long value = 0;
+			int digits = 0;
+			while ((c = this.peek()) >= '0' && c <= '9') {
+				value = 10 * value + (c - '0');
+				digits++;
+				this.position++;
+			}
+			if (digits == 0) {
+				throw this.error("Expected an integer");
+			}
+			return negative ? -value : value;
+		}
+
+		/**
+		 * Parses a decimal number. Numbers with up to 18 significant digits
+		 * and small exponents are worked out exactly from the digits; anything
+		 * else falls back on {@link Double#parseDouble(String)}.
+		 */
+		private double nextDouble() throws IOException {
+			this.skipSpaces();
+			StringBuilder slow = this.slow;
+			slow.setLength(0);
+			boolean negative = false;
+			int c = this.peek();
+			if (c == '-' || c == '+') {
+				negative = c == '-';
+				slow.append((char) c);
+				this.position++;
+			}
+			long mantissa = 0;
+			int digits = 0;
+			int exponent = 0;
+			boolean exact = true;
+			boolean any = false;
+			while ((c = this.peek()) >= '0' && c <= '9') {
+				slow.append((char) c);
+				any = true;
+				if (digits < 18) {
+					mantissa = 10 * mantissa + (c - '0');
+					if (mantissa != 0) {
+						digits++;
+					}
+				} else {
+					exponent++;
+					exact = false;
+				}
+				this.position++;
+			}
+			if (c == '.') {
+				slow.append('.');
+				this.position++;
+				while ((c = this.peek()) >= '0' && c <= '9') {
+					slow.append((char) c);
+					any = true;
+					if (digits < 18) {
+						mantissa = 10 * mantissa + (c - '0');
+						if (mantissa != 0) {
+							digits++;
+						}
+						exponent--;
+					} else {
+						exact = false;
+					}
+					this.position++;
+				}
+			}
+			if (!any) {
+				throw this.error("Expected a number");
+			}
+			if (c == 'e' || c == 'E') {
+				slow.append((char) c);
+				this.position++;
+				c = this.peek();
+				boolean negativeExponent = false;
+				if (c == '-' || c == '+') {
+					negativeExponent = c == '-';
+					slow.append((char) c);
+					this.position++;
+				}
+				int e = 0;
+				boolean anyExponent = false;
+				while ((c = this.peek()) >= '0' && c <= '9') {
+					slow.append((char) c);
+					anyExponent = true;
+					if (e < 100000) {
+						e = 10 * e + (c - '0');
+					}
+					this.position++;
+				}
+				if (!anyExponent) {
+					throw this.error("Expected an exponent");
+				}
+				exponent += negativeExponent ? -e : e;
+			}
+
+			double value;
+			// Below 2^53 the mantissa is exact as a double, and so are powers
+			// of ten up to 10^22, so one multiply or divide rounds correctly.
+			if (exact && mantissa < (1L << 53) && exponent >= -22
+					&& exponent <= 22) {
+				value = exponent >= 0 ? mantissa * POWERS[exponent] : mantissa
+						/ POWERS[-exponent];
+			} else {
+				value = Math.abs(Double.parseDouble(slow.toString()));
+			}
+			return negative ? -value : value;
+		}
+
+		/**
+		 * Reads one PLY value of the given type.
+		 */
+		private double readValue(int format, int type) throws IOException {
+			if (format == ASCII) {
+				return this.nextDouble();
+			}
+			boolean little = format == LITTLE_ENDIAN;
+			switch (type) {
+			case INT8:
+				return (byte) this.nextByte();
+			case UINT8:
+				return this.nextByte();
+			case INT16:
+				return (short) this.readBits(2, little);
+			case UINT16:
+				return this.readBits(2, little);
+			case INT32:
+				return (int) this.readBits(4, little);
+			case UINT32:
+				return this.readBits(4, little);
+			case FLOAT32:
+				return Float.intBitsToFloat((int) this.readBits(4, little));
+			default:
+				return Double.longBitsToDouble(this.readBits(8, little));
+			}
+		}
+
+		private long readBits(int bytes, boolean little) throws IOException {
+			long value = 0;
+			for (int i = 0; i < bytes; i++) {
+				long b = this.nextByte();
+				if (little) {
+					value |= b << (8 * i);
+				} else {
+					value = value << 8 | b;
+				}
+			}
+			return value;
+		}
+	}
+}
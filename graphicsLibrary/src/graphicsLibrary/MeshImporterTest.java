@@ -0,0 +1,93 @@
+package graphicsLibrary;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class MeshImporterTest {
+
+	@Test
+	public void testObj() throws IOException {
+		String obj = "# square\n" + "v 0 0 0\n" + "v 1.5 0 0\r\n"
+				+ "vt 0.5 0.5\n" + "v 1.5 -2.5e-1 0\n" + "v 0 1 0 1.0\n"
+				+ "v 1.5 0.0 0\n" + "f 1/1/1 2/1/1 3/1/1 4/1/1\n"
+				+ "f -5//1 -1//1 -2//1 # welded onto vertex 2\n";
+		Path file = Files.createTempFile("mesh", ".obj");
+		try {
+			Files.write(file, obj.getBytes(StandardCharsets.US_ASCII));
+			Mesh mesh = MeshImporter.read(file, 0).getMesh();
+			assertEquals(4, mesh.getVertexCount());
+			assertEquals(3, mesh.getTriangleCount());
+			assertEquals(-0.25, mesh.getY(2), 0);
+			assertArrayEquals(new int[] { 0, 1, 2, 0, 2, 3, 0, 1, 3 },
+					Arrays.copyOf(mesh.getIndices(), 9));
+
+			mesh = MeshImporter.readObj(
+					new ByteArrayInputStream(obj.getBytes(StandardCharsets.US_ASCII)),
+					-1);
+			assertEquals(5, mesh.getVertexCount());
+		} finally {
+			Files.delete(file);
+		}
+
+		try {
+			MeshImporter.readObj(new ByteArrayInputStream("v 0 0 0\nf 1 2 3\n"
+					.getBytes(StandardCharsets.US_ASCII)), 0);
+			fail();
+		} catch (IOException e) {
+			// Expected.
+		}
+	}
+
+	@Test
+	public void testPly() throws IOException {
+		String header = "ply\nformat %s 1.0\ncomment test\n"
+				+ "element vertex 4\nproperty float x\nproperty float y\n"
+				+ "property float z\nproperty uchar red\n"
+				+ "element face 1\nproperty list uchar int vertex_indices\n"
+				+ "end_header\n";
+		String ascii = String.format(header, "ascii") + "0 0 0 255\n"
+				+ "1 0 0 0\n" + "1 1 0 0\n" + "0 1 0 0\n" + "4 0 1 2 3\n";
+		Mesh a = MeshImporter.readPly(new ByteArrayInputStream(
+				ascii.getBytes(StandardCharsets.US_ASCII)), 0);
+
+		for (ByteOrder order : new ByteOrder[] { ByteOrder.LITTLE_ENDIAN,
+				ByteOrder.BIG_ENDIAN }) {
+			String format = order == ByteOrder.LITTLE_ENDIAN ? "binary_little_endian"
+					: "binary_big_endian";
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] text = String.format(header, format).getBytes(
+					StandardCharsets.US_ASCII);
+			out.write(text, 0, text.length);
+			ByteBuffer data = ByteBuffer.allocate(4 * 13 + 1 + 16).order(order);
+			for (int i = 0; i < 4; i++) {
+				data.putFloat((float) a.getX(i)).putFloat((float) a.getY(i))
+						.putFloat((float) a.getZ(i)).put((byte) 0);
+			}
+			data.put((byte) 4).putInt(0).putInt(1).putInt(2).putInt(3);
+			out.write(data.array(), 0, data.capacity());
+
+			Mesh b = MeshImporter.readPly(
+					new ByteArrayInputStream(out.toByteArray()), 0);
+			assertEquals(4, b.getVertexCount());
+			assertEquals(2, b.getTriangleCount());
+			for (int i = 0; i < 4; i++) {
+				assertEquals(a.getX(i), b.getX(i), 0);
+				assertEquals(a.getY(i), b.getY(i), 0);
+			}
+			assertArrayEquals(Arrays.copyOf(a.getIndices(), 6),
+					Arrays.copyOf(b.getIndices(), 6));
+		}
+	}
+
+}
@@ -0,0 +1,675 @@
+package graphicsLibrary;
+
+import java.awt.Color;
+import java.util.Arrays;
+
+/**
+ * A class to reduce the number of triangles in a {@link Mesh} while keeping
+ * its form, by collapsing edges in order of the quadric error metric of
+ * Garland and Heckbert.
+ *
+ * Each vertex has a quadric that sums the squared distances to the planes
+ * of its triangles, weighted by area. Collapsing an edge moves both ends to
+ * the point that minimizes their summed quadric, and the cost of the
+ * collapse is that error. Edges on the border of an open mesh also get
+ * planes at right angles to their triangles, so borders keep their shape.
+ * Collapses that would flip a triangle over, or join two sheets of the mesh
+ * at a point, are skipped, so every triangle left keeps the winding it had.
+ *
+ * Candidate collapses are kept in a four-way heap of indices into flat
+ * arrays, ordered by cost; the children of an entry sit side by side, so
+ * each level down reads one cache line. A collapse changes the cost of the
+ * edges around the vertex it leaves, so those are pushed again, and the
+ * entries they replace are recognised as stale when they reach the top by
+ * the version numbers of their vertices.
+ *
+ * @author caudeljn
+ *
+ */
+public class MeshSimplifier {
+	// Weight of the planes that hold borders in place, relative to the
+	// squared length of the border edge.
+	private static final double BORDER_WEIGHT = 100;
+
+	private final int vertexCount;
+	private int triangleCount;
+	private final double[] positions;
+	private final double[] quadrics;
+	private final int[] versions;
+	private final int[] indices;
+	private final boolean[] deadTriangles;
+	private final Color[] colors;
+
+	// Triangles around each vertex, as a run of the pool.
+	private int[] pool;
+	private int poolSize;
+	private final int[] listStart;
+	private final int[] listCount;
+	private final int[] listCapacity;
+
+	// Candidate collapses: ends, versions of the ends when pushed, target
+	// point and cost. Freed entries are reused.
+	private int[] entryA, entryB, entryVersionA, entryVersionB;
+	private double[] entryPoint;
+	private int[] freeEntries;
+	private int freeCount;
+	private int entryCount;
+	// The heap holds entries with their costs beside them, so sifting
+	// reads one array.
+	private int[] heap;
+	private double[] heapCost;
+	private int heapSize;
+
+	private final int[] marks;
+	private int stamp;
+	private final double[] target = new double[3];
+
+	/**
+	 * Simplifies the given mesh into a new one, collapsing edges until no
+	 * more than the given number of triangles are left, or the next collapse
+	 * would move the surface further than the given error. The mesh itself is
+	 * not changed, and the new mesh keeps the colour of every triangle left
+	 * and the precision of the old mesh.
+	 *
+	 * @param mesh
+	 *            -mesh to simplify
+	 * @param targetTriangles
+	 *            -number of triangles to stop at
+	 * @param maxError
+	 *            -largest error to allow, as a squared distance, or
+	 *            {@link Double#POSITIVE_INFINITY} for no limit
+	 * @return new, simplified mesh
+	 * @throws IllegalArgumentException
+	 *             if the target is negative or the error is NaN
+	 */
+	public static Mesh simplify(Mesh mesh, int targetTriangles, double maxError)
+			throws IllegalArgumentException {
+		if (targetTriangles < 0 || Double.isNaN(maxError)) {
+			throw new IllegalArgumentException("Bad target or error");
+		}
+		MeshSimplifier simplifier = new MeshSimplifier(mesh);
+		simplifier.collapse(targetTriangles, maxError);
+		Mesh result = simplifier.build();
+		if (mesh.isSinglePrecision()) {
+			result.setSinglePrecision(true);
+		}
+		return result;
+	}
+
+	private MeshSimplifier(Mesh mesh) {
+		int n = mesh.getVertexCount();
+		int t = mesh.getTriangleCount();
+		this.vertexCount = n;
+		this.triangleCount = t;
+		this.positions = new double[3 * n];
+		for (int i = 0; i < n; i++) {
+			this.positions[3 * i] = mesh.getX(i);
+			this.positions[3 * i + 1] = mesh.getY(i);
+			this.positions[3 * i + 2] = mesh.getZ(i);
+		}
+		this.indices = Arrays.copyOf(mesh.getIndices(), 3 * t);
+		this.colors = new Color[t];
+		for (int i = 0; i < t; i++) {
+			this.colors[i] = mesh.getColor(i);
+		}
+		this.deadTriangles = new boolean[t];
+		this.quadrics = new double[10 * n];
+		this.versions = new int[n];
+		this.marks = new int[n];
+
+		// Lists of triangles around each vertex.
+		this.listStart = new int[n];
+		this.listCount = new int[n];
+		this.listCapacity = new int[n];
+		for (int i = 0; i < 3 * t; i++) {
+			this.listCapacity[this.indices[i]]++;
+		}
+		int offset = 0;
+		for (int v = 0; v < n; v++) {
+			this.listStart[v] = offset;
+			offset += this.listCapacity[v];
+		}
+		this.pool = new int[Math.max(2 * offset, 16)];
+		this.poolSize = offset;
+		for (int i = 0; i < 3 * t; i++) {
+			int v = this.indices[i];
+			this.pool[this.listStart[v] + this.listCount[v]++] = i / 3;
+		}
+
+		int edgeGuess = Math.max(3 * t, 16);
+		this.entryA = new int[edgeGuess];
+		this.entryB = new int[edgeGuess];
+		this.entryVersionA = new int[edgeGuess];
+		this.entryVersionB = new int[edgeGuess];
+		this.entryPoint = new double[3 * edgeGuess];
+		this.heap = new int[edgeGuess];
+		this.heapCost = new double[edgeGuess];
+		this.freeEntries = new int[16];
+
+		this.addFaceQuadrics();
+		this.pushEdges();
+	}
+
+	/**
+	 * Adds the plane of every triangle to the quadrics of its corners, and
+	 * the border planes to the quadrics of border vertices.
+	 */
+	private void addFaceQuadrics() {
+		// An edge is on the border if it belongs to only one triangle; sort
+		// all edges, as pairs of ends packed into longs, to count them.
+		long[] edges = new long[3 * this.triangleCount];
+		for (int t = 0; t < this.triangleCount; t++) {
+			for (int k = 0; k < 3; k++) {
+				int a = this.indices[3 * t + k];
+				int b = this.indices[3 * t + (k + 1) % 3];
+				edges[3 * t + k] = (long) Math.min(a, b) << 32 | Math.max(a, b);
+			}
+		}
+		long[] sorted = edges.clone();
+		Arrays.sort(sorted);
+
+		double[] p = this.positions;
+		for (int t = 0; t < this.triangleCount; t++) {
+			int a = 3 * this.indices[3 * t];
+			int b = 3 * this.indices[3 * t + 1];
+			int c = 3 * this.indices[3 * t + 2];
+			double ux = p[b] - p[a], uy = p[b + 1] - p[a + 1], uz = p[b + 2]
+					- p[a + 2];
+			double vx = p[c] - p[a], vy = p[c + 1] - p[a + 1], vz = p[c + 2]
+					- p[a + 2];
+			double nx = Vector.crossX(ux, uy, uz, vx, vy, vz);
+			double ny = Vector.crossY(ux, uy, uz, vx, vy, vz);
+			double nz = Vector.crossZ(ux, uy, uz, vx, vy, vz);
+			double length = Vector.magnitude(nx, ny, nz);
+			if (length == 0) {
+				continue;
+			}
+			double area = length / 2;
+			nx /= length;
+			ny /= length;
+			nz /= length;
+			double d = -Vector.dot(nx, ny, nz, p[a], p[a + 1], p[a + 2]);
+			for (int k = 0; k < 3; k++) {
+				this.addPlane(this.indices[3 * t + k], nx, ny, nz, d, area);
+			}
+
+			for (int k = 0; k < 3; k++) {
+				long key = edges[3 * t + k];
+				int found = Arrays.binarySearch(sorted, key);
+				if ((found > 0 && sorted[found - 1] == key)
+						|| (found + 1 < sorted.length && sorted[found + 1] == key)) {
+					continue;
+				}
+				int i = this.indices[3 * t + k];
+				int j = this.indices[3 * t + (k + 1) % 3];
+				double ex = p[3 * j] - p[3 * i];
+				double ey = p[3 * j + 1] - p[3 * i + 1];
+				double ez = p[3 * j + 2] - p[3 * i + 2];
+				// A plane through the edge, at right angles to the triangle.
+				double mx = Vector.crossX(ex, ey, ez, nx, ny, nz);
+				double my = Vector.crossY(ex, ey, ez, nx, ny, nz);
+				double mz = Vector.crossZ(ex, ey, ez, nx, ny, nz);
+				double edgeLength = Vector.magnitude(mx, my, mz);
+				if (edgeLength == 0) {
+					continue;
+				}
+				mx /= edgeLength;
+				my /= edgeLength;
+				mz /= edgeLength;
+				double e = -Vector.dot(mx, my, mz, p[3 * i], p[3 * i + 1],
+						p[3 * i + 2]);
+				double weight = BORDER_WEIGHT
+						* Vector.magnitudeSquared(ex, ey, ez);
+				this.addPlane(i, mx, my, mz, e, weight);
+				this.addPlane(j, mx, my, mz, e, weight);
+			}
+		}
+	}
+
+	private void addPlane(int v, double a, double b, double c, double d,
+			double weight) {
+		double[] q = this.quadrics;
+		int i = 10 * v;
+		q[i] += weight * a * a;
+		q[i + 1] += weight * a * b;
+		q[i + 2] += weight * a * c;
+		q[i + 3] += weight * a * d;
+		q[i + 4] += weight * b * b;
+		q[i + 5] += weight * b * c;
+		q[i + 6] += weight * b * d;
+		q[i + 7] += weight * c * c;
+		q[i + 8] += weight * c * d;
+		q[i + 9] += weight * d * d;
+	}
+
+	/**
+	 * Pushes a candidate for every edge, once each.
+	 */
+	private void pushEdges() {
+		for (int t = 0; t < this.triangleCount; t++) {
+			for (int k = 0; k < 3; k++) {
+				int a = this.indices[3 * t + k];
+				int b = this.indices[3 * t + (k + 1) % 3];
+				// The other triangle on a shared edge goes from b to a, so
+				// only push each edge from its lower end, or from a border.
+				if (a < b || !this.hasEdge(b, a)) {
+					this.push(a, b);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns whether a live triangle goes from vertex a to vertex b.
+	 */
+	private boolean hasEdge(int a, int b) {
+		int start = this.listStart[a];
+		for (int i = 0; i < this.listCount[a]; i++) {
+			int t = this.pool[start + i];
+			if (this.deadTriangles[t]) {
+				continue;
+			}
+			for (int k = 0; k < 3; k++) {
+				if (this.indices[3 * t + k] == a
+						&& this.indices[3 * t + (k + 1) % 3] == b) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Collapses edges, cheapest first, until the target or error is reached
+	 * or no edge can be collapsed.
+	 */
+	private void collapse(int targetTriangles, double maxError) {
+		while (this.triangleCount > targetTriangles && this.heapSize > 0) {
+			double cost = this.heapCost[0];
+			int e = this.pop();
+			int a = this.entryA[e];
+			int b = this.entryB[e];
+			boolean stale = this.versions[a] != this.entryVersionA[e]
+					|| this.versions[b] != this.entryVersionB[e];
+			double x = this.entryPoint[3 * e];
+			double y = this.entryPoint[3 * e + 1];
+			double z = this.entryPoint[3 * e + 2];
+			this.free(e);
+			if (stale) {
+				continue;
+			}
+			if (cost > maxError) {
+				break;
+			}
+			this.compact(a);
+			this.compact(b);
+			if (!this.isLinkManifold(a, b) || this.flips(a, b, x, y, z)
+					|| this.flips(b, a, x, y, z)) {
+				continue;
+			}
+			this.merge(a, b, x, y, z);
+		}
+	}
+
+	/**
+	 * Removes dead triangles from the list of the given vertex.
+	 */
+	private void compact(int v) {
+		int start = this.listStart[v];
+		int kept = 0;
+		for (int i = 0; i < this.listCount[v]; i++) {
+			int t = this.pool[start + i];
+			if (!this.deadTriangles[t]) {
+				this.pool[start + kept++] = t;
+			}
+		}
+		this.listCount[v] = kept;
+	}
+
+	/**
+	 * Returns whether the vertices next to both a and b are exactly the
+	 * third corners of the triangles on edge ab. Otherwise the collapse would
+	 * pinch the surface into a non-manifold edge or point.
+	 */
+	private boolean isLinkManifold(int a, int b) {
+		int mark = this.nextStamp();
+		int counted = this.nextStamp();
+		int edgeTriangles = 0;
+		int start = this.listStart[a];
+		for (int i = 0; i < this.listCount[a]; i++) {
+			int t = this.pool[start + i];
+			boolean onEdge = false;
+			for (int k = 0; k < 3; k++) {
+				int w = this.indices[3 * t + k];
+				onEdge |= w == b;
+				if (w != a) {
+					this.marks[w] = mark;
+				}
+			}
+			if (onEdge) {
+				edgeTriangles++;
+			}
+		}
+		int shared = 0;
+		start = this.listStart[b];
+		for (int i = 0; i < this.listCount[b]; i++) {
+			int t = this.pool[start + i];
+			for (int k = 0; k < 3; k++) {
+				int w = this.indices[3 * t + k];
+				if (w != a && w != b && this.marks[w] == mark) {
+					this.marks[w] = counted;
+					shared++;
+				}
+			}
+		}
+		return shared == edgeTriangles;
+	}
+
+	private int nextStamp() {
+		if (this.stamp == Integer.MAX_VALUE) {
+			Arrays.fill(this.marks, 0);
+			this.stamp = 0;
+		}
+		return ++this.stamp;
+	}
+
+	/**
+	 * Returns whether moving vertex v to the given point would turn over, or
+	 * flatten to nothing, any triangle around it that does not also use
+	 * vertex other.
+	 */
+	private boolean flips(int v, int other, double x, double y, double z) {
+		double[] p = this.positions;
+		int start = this.listStart[v];
+		for (int i = 0; i < this.listCount[v]; i++) {
+			int t = this.pool[start + i];
+			int k = 0;
+			while (this.indices[3 * t + k] != v) {
+				k++;
+			}
+			int b = this.indices[3 * t + (k + 1) % 3];
+			int c = this.indices[3 * t + (k + 2) % 3];
+			if (b == other || c == other) {
+				continue;
+			}
+			double ux = p[3 * b] - p[3 * v], uy = p[3 * b + 1] - p[3 * v + 1];
+			double uz = p[3 * b + 2] - p[3 * v + 2];
+			double wx = p[3 * c] - p[3 * v], wy = p[3 * c + 1] - p[3 * v + 1];
+			double wz = p[3 * c + 2] - p[3 * v + 2];
+			double nx = Vector.crossX(ux, uy, uz, wx, wy, wz);
+			double ny = Vector.crossY(ux, uy, uz, wx, wy, wz);
+			double nz = Vector.crossZ(ux, uy, uz, wx, wy, wz);
+			ux = p[3 * b] - x;
+			uy = p[3 * b + 1] - y;
+			uz = p[3 * b + 2] - z;
+			wx = p[3 * c] - x;
+			wy = p[3 * c + 1] - y;
+			wz = p[3 * c + 2] - z;
+			double mx = Vector.crossX(ux, uy, uz, wx, wy, wz);
+			double my = Vector.crossY(ux, uy, uz, wx, wy, wz);
+			double mz = Vector.crossZ(ux, uy, uz, wx, wy, wz);
+			if (Vector.dot(nx, ny, nz, mx, my, mz) <= 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Moves vertex a to the given point and replaces b with it.
+	 */
+	private void merge(int a, int b, double x, double y, double z) {
+		this.positions[3 * a] = x;
+		this.positions[3 * a + 1] = y;
+		this.positions[3 * a + 2] = z;
+		for (int i = 0; i < 10; i++) {
+			this.quadrics[10 * a + i] += this.quadrics[10 * b + i];
+		}
+		this.versions[a]++;
+		this.versions[b]++;
+
+		int start = this.listStart[b];
+		for (int i = 0; i < this.listCount[b]; i++) {
+			int t = this.pool[start + i];
+			int k = 3 * t;
+			if (this.indices[k] == a || this.indices[k + 1] == a
+					|| this.indices[k + 2] == a) {
+				this.deadTriangles[t] = true;
+				this.triangleCount--;
+			} else {
+				for (int j = k; j < k + 3; j++) {
+					if (this.indices[j] == b) {
+						this.indices[j] = a;
+					}
+				}
+			}
+		}
+		this.compact(a);
+		this.compact(b);
+		this.append(a, b);
+		this.listCount[b] = 0;
+
+		// Costs of the edges around a have changed.
+		int mark = this.nextStamp();
+		start = this.listStart[a];
+		for (int i = 0; i < this.listCount[a]; i++) {
+			int t = this.pool[start + i];
+			for (int k = 0; k < 3; k++) {
+				int w = this.indices[3 * t + k];
+				if (w != a && this.marks[w] != mark) {
+					this.marks[w] = mark;
+					this.push(a, w);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds the triangles of vertex b to the list of vertex a, moving the list
+	 * to the end of the pool if it does not fit.
+	 */
+	private void append(int a, int b) {
+		int count = this.listCount[a] + this.listCount[b];
+		if (count > this.listCapacity[a]) {
+			int capacity = Math.max(2 * this.listCapacity[a], count);
+			if (this.poolSize + capacity > this.pool.length) {
+				this.pool = Arrays.copyOf(this.pool,
+						Math.max(2 * this.pool.length, this.poolSize + capacity));
+			}
+			System.arraycopy(this.pool, this.listStart[a], this.pool,
+					this.poolSize, this.listCount[a]);
+			this.listStart[a] = this.poolSize;
+			this.listCapacity[a] = capacity;
+			this.poolSize += capacity;
+		}
+		System.arraycopy(this.pool, this.listStart[b], this.pool,
+				this.listStart[a] + this.listCount[a], this.listCount[b]);
+		this.listCount[a] = count;
+	}
+
+	/**
+	 * Works out the best point and cost for collapsing edge ab, and pushes
+	 * it onto the heap.
+	 */
+	private void push(int a, int b) {
+		double cost = this.optimize(a, b);
+		int e;
+		if (this.freeCount > 0) {
+			e = this.freeEntries[--this.freeCount];
+		} else {
+			e = this.entryCount++;
+			if (e == this.entryA.length) {
+				int size = 2 * e;
+				this.entryA = Arrays.copyOf(this.entryA, size);
+				this.entryB = Arrays.copyOf(this.entryB, size);
+				this.entryVersionA = Arrays.copyOf(this.entryVersionA, size);
+				this.entryVersionB = Arrays.copyOf(this.entryVersionB, size);
+				this.entryPoint = Arrays.copyOf(this.entryPoint, 3 * size);
+				this.heap = Arrays.copyOf(this.heap, size);
+				this.heapCost = Arrays.copyOf(this.heapCost, size);
+			}
+		}
+		this.entryA[e] = a;
+		this.entryB[e] = b;
+		this.entryVersionA[e] = this.versions[a];
+		this.entryVersionB[e] = this.versions[b];
+		this.entryPoint[3 * e] = this.target[0];
+		this.entryPoint[3 * e + 1] = this.target[1];
+		this.entryPoint[3 * e + 2] = this.target[2];
+
+		// Sift up.
+		int i = this.heapSize++;
+		while (i > 0) {
+			int parent = (i - 1) / 4;
+			if (this.heapCost[parent] <= cost) {
+				break;
+			}
+			this.heap[i] = this.heap[parent];
+			this.heapCost[i] = this.heapCost[parent];
+			i = parent;
+		}
+		this.heap[i] = e;
+		this.heapCost[i] = cost;
+	}
+
+	private int pop() {
+		int top = this.heap[0];
+		int last = this.heap[--this.heapSize];
+		double cost = this.heapCost[this.heapSize];
+		// Sift down.
+		int i = 0;
+		int n = this.heapSize;
+		while (true) {
+			int first = 4 * i + 1;
+			if (first >= n) {
+				break;
+			}
+			int child = first;
+			int end = Math.min(first + 4, n);
+			for (int j = first + 1; j < end; j++) {
+				if (this.heapCost[j] < this.heapCost[child]) {
+					child = j;
+				}
+			}
+			if (this.heapCost[child] >= cost) {
+				break;
+			}
+			this.heap[i] = this.heap[child];
+			this.heapCost[i] = this.heapCost[child];
+			i = child;
+		}
+		if (n > 0) {
+			this.heap[i] = last;
+			this.heapCost[i] = cost;
+		}
+		return top;
+	}
+
+	private void free(int e) {
+		if (this.freeCount == this.freeEntries.length) {
+			this.freeEntries = Arrays.copyOf(this.freeEntries,
+					2 * this.freeCount);
+		}
+		this.freeEntries[this.freeCount++] = e;
+	}
+
+	/**
+	 * Stores the point that minimizes the summed quadric of a and b in
+	 * target, and returns the error there. If the quadric has no single
+	 * minimum, as on a flat patch, the best of the two ends and their
+	 * midpoint is used.
+	 */
+	private double optimize(int a, int b) {
+		double[] q = this.quadrics;
+		int i = 10 * a, j = 10 * b;
+		double q00 = q[i] + q[j], q01 = q[i + 1] + q[j + 1];
+		double q02 = q[i + 2] + q[j + 2], q03 = q[i + 3] + q[j + 3];
+		double q11 = q[i + 4] + q[j + 4], q12 = q[i + 5] + q[j + 5];
+		double q13 = q[i + 6] + q[j + 6], q22 = q[i + 7] + q[j + 7];
+		double q23 = q[i + 8] + q[j + 8], q33 = q[i + 9] + q[j + 9];
+
+		// Solve the 3x3 system by Cramer's rule.
+		double c00 = q11 * q22 - q12 * q12;
+		double c01 = q02 * q12 - q01 * q22;
+		double c02 = q01 * q12 - q02 * q11;
+		double det = q00 * c00 + q01 * c01 + q02 * c02;
+		double scale = q00 + q11 + q22;
+		if (Math.abs(det) > 1e-10 * scale * scale * scale) {
+			double c11 = q00 * q22 - q02 * q02;
+			double c12 = q01 * q02 - q00 * q12;
+			double c22 = q00 * q11 - q01 * q01;
+			double x = -(c00 * q03 + c01 * q13 + c02 * q23) / det;
+			double y = -(c01 * q03 + c11 * q13 + c12 * q23) / det;
+			double z = -(c02 * q03 + c12 * q13 + c22 * q23) / det;
+			this.target[0] = x;
+			this.target[1] = y;
+			this.target[2] = z;
+			return Math.max(error(q00, q01, q02, q03, q11, q12, q13, q22, q23,
+					q33, x, y, z), 0);
+		}
+
+		double[] p = this.positions;
+		double best = Double.POSITIVE_INFINITY;
+		for (int k = 0; k < 3; k++) {
+			double x, y, z;
+			if (k < 2) {
+				int v = 3 * (k == 0 ? a : b);
+				x = p[v];
+				y = p[v + 1];
+				z = p[v + 2];
+			} else {
+				x = (p[3 * a] + p[3 * b]) / 2;
+				y = (p[3 * a + 1] + p[3 * b + 1]) / 2;
+				z = (p[3 * a + 2] + p[3 * b + 2]) / 2;
+			}
+			double cost = error(q00, q01, q02, q03, q11, q12, q13, q22, q23,
+					q33, x, y, z);
+			if (cost < best) {
+				best = cost;
+				this.target[0] = x;
+				this.target[1] = y;
+				this.target[2] = z;
+			}
+		}
+		return Math.max(best, 0);
+	}
+
+	private static double error(double q00, double q01, double q02,
+			double q03, double q11, double q12, double q13, double q22,
+			double q23, double q33, double x, double y, double z) {
+		return q00 * x * x + 2 * q01 * x * y + 2 * q02 * x * z + 2 * q03 * x
+				+ q11 * y * y + 2 * q12 * y * z + 2 * q13 * y + q22 * z * z + 2
+				* q23 * z + q33;
+	}
+
+	/**
+	 * Returns a new mesh of the triangles left, and the vertices they use.
+	 */
+	private Mesh build() {
+		int[] remap = new int[this.vertexCount];
+		Arrays.fill(remap, -1);
+		int[] newIndices = new int[Math.max(3 * this.triangleCount, 3)];
+		Color[] newColors = new Color[Math.max(this.triangleCount, 1)];
+		double[] newVertices = new double[3 * this.vertexCount];
+		int vertices = 0;
+		int triangles = 0;
+		for (int t = 0; t < this.deadTriangles.length; t++) {
+			if (this.deadTriangles[t]) {
+				continue;
+			}
+			for (int k = 0; k < 3; k++) {
+				int v = this.indices[3 * t + k];
+				if (remap[v] < 0) {
+					remap[v] = vertices;
+					System.arraycopy(this.positions, 3 * v, newVertices,
+							3 * vertices, 3);
+					vertices++;
+				}
+				newIndices[3 * triangles + k] = remap[v];
+			}
+			newColors[triangles++] = this.colors[t];
+		}
+		return new Mesh(Arrays.copyOf(newVertices, Math.max(3 * vertices, 3)),
+				null, 0, 0, 0, vertices, newIndices, newColors, triangles);
+	}
+}
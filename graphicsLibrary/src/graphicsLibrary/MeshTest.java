@@ -0,0 +1,340 @@
+package graphicsLibrary;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class MeshTest {
+
+	@Test
+	public void testSinglePrecision() {
+		// Far from the origin, where floats alone would only be accurate to
+		// about 0.01.
+		for (double offset : new double[] { 0, 1e5 }) {
+			Shape exact = Shape.newSphere(offset, -offset, offset, 2, 4);
+			Shape single = Shape.newSphere(offset, -offset, offset, 2, 4);
+			single.setSinglePrecision(true);
+			assertTrue(single.getMesh().isSinglePrecision());
+			for (Shape s : new Shape[] { exact, single }) {
+				s.rotateAroundVector(0.7, s.getCenter(), new Vector(1, 2, 3));
+				s.translate(3, -1, 0.5);
+				s.rotateY(1.1, s.getCenter());
+			}
+			Mesh a = exact.getMesh();
+			Mesh b = single.getMesh();
+			for (int i = 0; i < a.getVertexCount(); i++) {
+				assertEquals(a.getX(i), b.getX(i), 1e-5);
+				assertEquals(a.getY(i), b.getY(i), 1e-5);
+				assertEquals(a.getZ(i), b.getZ(i), 1e-5);
+			}
+		}
+	}
+
+	private static final Point PIVOT = new Point(1, 2, 3);
+	private static final Vector AXIS = new Vector(1, -1, 2);
+
+	private static void move(Shape s) {
+		s.translate(3, -1, 0.5);
+		s.rotateX(0.4, PIVOT);
+		s.rotateZ(-1.2, 0, 0, 0);
+		s.translate(-2, 0, 7);
+		s.rotateAroundVector(2.1, PIVOT, AXIS);
+	}
+
+	private static void move(Point p) {
+		p.translate(3, -1, 0.5);
+		p.rotateX(0.4, PIVOT);
+		p.rotateZ(-1.2, new Point(0, 0, 0));
+		p.translate(-2, 0, 7);
+		p.rotateAroundVector(2.1, PIVOT, AXIS);
+	}
+
+	@Test
+	public void testDeferredTransforms() {
+		double[] start = Shape.newSphere(0, 0, 0, 2, 6).getMesh().getVertices()
+				.clone();
+		int count = start.length / 3;
+		double[] expected = new double[3 * count];
+		for (int i = 0; i < count; i++) {
+			Point p = new Point(start[3 * i], start[3 * i + 1],
+					start[3 * i + 2]);
+			move(p);
+			expected[3 * i] = p.getX();
+			expected[3 * i + 1] = p.getY();
+			expected[3 * i + 2] = p.getZ();
+		}
+
+		// Read straight after the transforms.
+		Shape read = Shape.newSphere(0, 0, 0, 2, 6);
+		move(read);
+		assertTrue(read.getMesh().hasPendingTransforms());
+		for (int i = 0; i < count; i++) {
+			assertEquals(expected[3 * i], read.getMesh().getX(i), 1e-9);
+			assertEquals(expected[3 * i + 1], read.getMesh().getY(i), 1e-9);
+			assertEquals(expected[3 * i + 2], read.getMesh().getZ(i), 1e-9);
+		}
+		assertFalse(read.getMesh().hasPendingTransforms());
+
+		// Flushed first.
+		Shape flushed = Shape.newSphere(0, 0, 0, 2, 6);
+		move(flushed);
+		flushed.flushTransforms();
+		assertFalse(flushed.getMesh().hasPendingTransforms());
+		double[] v = flushed.getMesh().getVertices();
+		for (int i = 0; i < 3 * count; i++) {
+			assertEquals(expected[i], v[i], 1e-9);
+		}
+
+		// In world matrix mode, the vertices are left alone and the matrix
+		// carries the transforms until the mode is turned off.
+		Shape world = Shape.newSphere(0, 0, 0, 2, 6);
+		world.setWorldMatrixMode(true);
+		move(world);
+		assertTrue(Arrays.equals(start, world.getMesh().getVertices()));
+		double[] w = new double[3];
+		for (int i = 0; i < count; i++) {
+			world.getWorldMatrix().transformPointInto(start, 3 * i, w, 0);
+			assertEquals(expected[3 * i], w[0], 1e-9);
+			assertEquals(expected[3 * i + 1], w[1], 1e-9);
+			assertEquals(expected[3 * i + 2], w[2], 1e-9);
+		}
+		world.setWorldMatrixMode(false);
+		v = world.getMesh().getVertices();
+		for (int i = 0; i < 3 * count; i++) {
+			assertEquals(expected[i], v[i], 1e-9);
+		}
+	}
+
+	@Test
+	public void testWeld() {
+		VertexWelder welder = new VertexWelder(0.01);
+		assertEquals(0, welder.add(1, 2, 3));
+		assertEquals(1, welder.add(1.1, 2, 3));
+		assertEquals(0, welder.add(1.005, 1.999, 3));
+		// Just over the edge of a cell from vertex 1.
+		assertEquals(1, welder.add(1.1 - 0.009, 2, 3));
+		assertEquals(2, welder.getVertexCount());
+		assertEquals(2, welder.getMergedCount());
+
+		Point p = new Point(0, 0, 0);
+		VertexWelder identity = VertexWelder.identity();
+		assertEquals(0, identity.add(p));
+		assertEquals(1, identity.add(new Point(p)));
+		assertEquals(0, identity.add(p));
+
+		Mesh mesh = new Mesh();
+		mesh.addVertex(0, 0, 0);
+		mesh.addVertex(1, 0, 0);
+		mesh.addVertex(0, 1, 0);
+		mesh.addVertex(1, 0, 0);
+		mesh.addVertex(0, 1, -0.0);
+		mesh.addVertex(1, 1, 0);
+		mesh.addTriangle(0, 1, 2, null);
+		mesh.addTriangle(3, 4, 5, null);
+		assertEquals(2, mesh.weld(0));
+		assertEquals(4, mesh.getVertexCount());
+		assertArrayEquals(new int[] { 0, 1, 2, 1, 2, 3 },
+				Arrays.copyOf(mesh.getIndices(), 6));
+	}
+
+	@Test
+	public void testSphereInstance() {
+		Shape a = Shape.newSphereInstance(1, 2, 3, 2, 4);
+		Shape b = Shape.newSphereInstance(-5, 0, 1, 0.5, 4);
+		assertSame(a.getMesh(), b.getMesh());
+
+		Shape exact = Shape.newSphere(1, 2, 3, 2, 4);
+		// The points are those of the surface, 4 * 4 * 4 + 2, then the
+		// center.
+		assertEquals(67, exact.getPoints().size());
+		assertTrue(new Point(1, 2, 3).equals(exact.getPoints().get(66)));
+		a.translate(1, 0, -1);
+		exact.translate(1, 0, -1);
+		Mesh template = a.getMesh();
+		Point p = new Point(0, 0, 0);
+		for (int i = 0; i < template.getVertexCount(); i++) {
+			p.setX(template.getX(i));
+			p.setY(template.getY(i));
+			p.setZ(template.getZ(i));
+			a.getWorldMatrix().transformPointInto(p, p);
+			assertEquals(exact.getMesh().getX(i), p.getX(), 1e-12);
+			assertEquals(exact.getMesh().getY(i), p.getY(), 1e-12);
+			assertEquals(exact.getMesh().getZ(i), p.getZ(), 1e-12);
+		}
+
+		// Changing one instance's mesh gives it its own copy.
+		b.getPoints().get(0).setX(100);
+		assertFalse(b.isSharedMesh());
+		assertTrue(a.isSharedMesh());
+		assertEquals(0, template.getX(0), 0);
+	}
+
+	@Test
+	public void testLevelOfDetail() {
+		LevelOfDetail lod = LevelOfDetail.sphere(new int[] { 8, 4, 1 },
+				new double[] { 10, 2 }, 0.1);
+		assertEquals(0, lod.select(-1, 50));
+		assertEquals(1, lod.select(-1, 5));
+		assertEquals(2, lod.select(-1, 1));
+		// Near a limit, the level in use is kept.
+		assertEquals(0, lod.select(0, 9.5));
+		assertEquals(1, lod.select(1, 10.5));
+		assertEquals(1, lod.select(0, 8.9));
+		assertEquals(0, lod.select(1, 11.1));
+		assertEquals(2, lod.select(0, 0.5));
+
+		Shape s = Shape.newSphereInstance(0, 0, 0, 1, lod);
+		assertEquals(0, s.updateLevelOfDetail(new Point(0, 0, 5), 100));
+		assertEquals(2, s.updateLevelOfDetail(new Point(0, 0, 500), 100));
+		assertSame(lod.getMesh(2), s.getMesh());
+		assertTrue(s.getMesh().getTriangleCount() < lod.getMesh(0)
+				.getTriangleCount());
+		// Drawing with a camera picks the level from the camera.
+		Shape entity = new Entity(0, 0, 0, new Vector(0, 0, 0), 1, 1)
+				.getShape();
+		entity.setRenderBackend(new RecordingBackend());
+		Camera camera = new Camera(Math.PI / 2, 1, 1, 1000);
+		camera.lookAt(new Point(0, 0, 500), new Point(0, 0, 0), new Vector(0,
+				1, 0));
+		assertTrue(entity.drawShape(new Point(0, 0, 10), ColorUtil.FULL,
+				camera));
+		int far = entity.getDrawnCount();
+		assertEquals(3, entity.getLevelOfDetail());
+		camera.lookAt(new Point(0, 0, 5), new Point(0, 0, 0), new Vector(0,
+				1, 0));
+		entity.drawShape(new Point(0, 0, 10), ColorUtil.FULL, camera);
+		assertEquals(0, entity.getLevelOfDetail());
+		assertTrue(far < entity.getDrawnCount());
+		// Fewer pixels make the same distance a coarser level.
+		camera.setViewportHeight(60);
+		entity.drawShape(new Point(0, 0, 10), ColorUtil.FULL, camera);
+		assertEquals(2, entity.getLevelOfDetail());
+	}
+
+	@Test
+	public void testTriangleCache() {
+		Shape s = Shape.newSphere(1, 2, 3, 2, 3);
+		Mesh mesh = s.getMesh();
+		mesh.updateTriangleCache();
+		assertFalse(mesh.isTriangleCacheStale());
+		s.rotateX(0.3, s.getCenter());
+		assertTrue(mesh.isTriangleCacheStale());
+
+		double[] normals = mesh.getNormals();
+		double[] centroids = mesh.getCentroids();
+		int t = 0;
+		for (Triangle tri : s.getTriangles()) {
+			Triangle copy = new Triangle(tri.getPoints()[0],
+					tri.getPoints()[1], tri.getPoints()[2]);
+			assertEquals(copy.getNormal().getX(), normals[3 * t], 1e-12);
+			assertEquals(copy.getNormal().getY(), normals[3 * t + 1], 1e-12);
+			assertEquals(copy.getNormal().getZ(), normals[3 * t + 2], 1e-12);
+			assertEquals(copy.getCenter().getX(), centroids[3 * t], 1e-12);
+			assertEquals(copy.getCenter().getY(), centroids[3 * t + 1], 1e-12);
+			assertEquals(copy.getCenter().getZ(), centroids[3 * t + 2], 1e-12);
+			assertEquals(copy.getNormal().getX(), tri.getNormal().getX(), 1e-12);
+			t++;
+		}
+
+		// Normals and centers are copies, so ones kept from before a move
+		// stay as they were.
+		Triangle first = s.getTriangles().get(0);
+		Vector before = first.getNormal();
+		Point center = first.getCenter();
+		double x = before.getX();
+		double cx = center.getX();
+		s.rotateZ(1.1, 0, 0, 0);
+		assertTrue(Math.abs(first.getNormal().getX() - x) > 1e-3);
+		assertEquals(x, before.getX(), 0);
+		assertEquals(cx, center.getX(), 0);
+		assertTrue(before != first.getNormal());
+
+		// Moving a shape in world matrix mode leaves the mesh alone.
+		s.setWorldMatrixMode(true);
+		s.translate(5, 0, 0);
+		assertFalse(mesh.isTriangleCacheStale());
+	}
+
+	@Test
+	public void testBounds() {
+		Shape s = Shape.newSphere(1, 2, 3, 2, 4);
+		Bounds b = s.getBounds();
+		assertEquals(-1, b.getMinX(), 1e-12);
+		assertEquals(5, b.getMaxZ(), 1e-12);
+		assertEquals(2, b.getRadius(), 1e-12);
+
+		s.translate(10, 0, 0);
+		s.rotateZ(0.5, 0, 0, 0);
+		s.rotateX(1.1, s.getCenter());
+		b = s.getBounds();
+		Mesh mesh = s.getMesh();
+		for (int i = 0; i < mesh.getVertexCount(); i++) {
+			assertTrue(b.intersectsSphere(mesh.getX(i), mesh.getY(i),
+					mesh.getZ(i), 1e-9));
+		}
+		assertEquals(2, b.getRadius(), 1e-9);
+		double width = b.getMaxX() - b.getMinX();
+		assertTrue(s.refitBounds().getMaxX() - b.getMinX() <= width);
+
+		Bounds other = Shape.newSphereInstance(s.getX() + 3.9, s.getY(),
+				s.getZ(), 2, 4).getBounds();
+		assertTrue(other.intersects(s.getBounds()));
+		assertFalse(other.intersectsSphere(s.getX() - 2.1, s.getY(),
+				s.getZ(), 0.1));
+	}
+
+	@Test
+	public void testSimplify() {
+		Shape s = Shape.newSphere(1, 2, 3, 2, 20);
+		int before = s.getMesh().getTriangleCount();
+		assertTrue(s.simplify(before / 10, Double.POSITIVE_INFINITY) <= before / 10);
+		Mesh mesh = s.getMesh();
+		double[] normals = mesh.getNormals();
+		double[] centroids = mesh.getCentroids();
+		for (int t = 0; t < mesh.getTriangleCount(); t++) {
+			// Still closed, and still wound the same way as the sphere.
+			assertTrue(Vector.dot(normals[3 * t], normals[3 * t + 1],
+					normals[3 * t + 2], centroids[3 * t] - 1,
+					centroids[3 * t + 1] - 2, centroids[3 * t + 2] - 3) < 0);
+		}
+		for (int i = 0; i < mesh.getVertexCount(); i++) {
+			double r = Vector.magnitude(mesh.getX(i) - 1, mesh.getY(i) - 2,
+					mesh.getZ(i) - 3);
+			assertEquals(2, r, 0.1);
+		}
+		long[] edges = new long[3 * mesh.getTriangleCount()];
+		int[] indices = mesh.getIndices();
+		for (int i = 0; i < edges.length; i++) {
+			int a = indices[i];
+			int b = indices[i - i % 3 + (i + 1) % 3];
+			edges[i] = (long) Math.min(a, b) << 32 | Math.max(a, b);
+		}
+		Arrays.sort(edges);
+		for (int i = 0; i < edges.length; i += 2) {
+			assertEquals(edges[i], edges[i + 1]);
+		}
+
+		// A flat grid keeps its border, and flattens to two triangles.
+		Mesh grid = new Mesh();
+		for (int i = 0; i <= 10; i++) {
+			for (int j = 0; j <= 10; j++) {
+				grid.addVertex(i, j, 0);
+			}
+		}
+		for (int i = 0; i < 10; i++) {
+			for (int j = 0; j < 10; j++) {
+				int v = 11 * i + j;
+				grid.addTriangle(v, v + 11, v + 12, null);
+				grid.addTriangle(v, v + 12, v + 1, null);
+			}
+		}
+		Mesh flat = MeshSimplifier.simplify(grid, 0, 1e-9);
+		assertEquals(2, flat.getTriangleCount());
+		Bounds b = flat.getBounds();
+		assertEquals(0, b.getMinX(), 1e-9);
+		assertEquals(10, b.getMaxY(), 1e-9);
+	}
+
+}
@@ -38,7 +38,7 @@ public class Point {
 	 *            -point to copy.
 	 */
 	public Point(Point p) {
-		this(p.x, p.y, p.z);
+		this(p.getX(), p.getY(), p.getZ());
 	}
 
 	/**
@@ -82,17 +82,17 @@ public class Point {
 	 *            -z-coordinate of center of rotation.
 	 */
 	public void rotateX(double angle, double xr, double yr, double zr) {
-		double x1 = this.x;
-		double y1 = this.y;
-		double z1 = this.z;
+		double x1 = this.getX();
+		double y1 = this.getY();
+		double z1 = this.getZ();
 		double z2 = (z1 - zr) * Math.cos(angle) - (y1 - yr) * Math.sin(angle)
 				+ zr;
 		double y2 = (z1 - zr) * Math.sin(angle) + (y1 - yr) * Math.cos(angle)
 				+ yr;
 		double x2 = x1;
-		this.x = x2;
-		this.y = y2;
-		this.z = z2;
+		this.setX(x2);
+		this.setY(y2);
+		this.setZ(z2);
 	}
 
 	/**
@@ -122,17 +122,17 @@ public class Point {
 	 *            -z-coordinate of center of rotation.
 	 */
 	public void rotateY(double angle, double xr, double yr, double zr) {
-		double x1 = this.x;
-		double y1 = this.y;
-		double z1 = this.z;
+		double x1 = this.getX();
+		double y1 = this.getY();
+		double z1 = this.getZ();
 		double z2 = (x1 - xr) * Math.sin(angle) + (z1 - zr) * Math.cos(angle)
 				+ zr;
 		double y2 = y1;
 		double x2 = (x1 - xr) * Math.cos(angle) - (z1 - zr) * Math.sin(angle)
 				+ xr;
-		this.x = x2;
-		this.y = y2;
-		this.z = z2;
+		this.setX(x2);
+		this.setY(y2);
+		this.setZ(z2);
 	}
 
 	/**
@@ -162,17 +162,17 @@ public class Point {
 	 *            -z-coordinate of center of rotation.
 	 */
 	public void rotateZ(double angle, double xr, double yr, double zr) {
-		double x1 = this.x;
-		double y1 = this.y;
-		double z1 = this.z;
+		double x1 = this.getX();
+		double y1 = this.getY();
+		double z1 = this.getZ();
 		double z2 = z1;
 		double y2 = (x1 - xr) * Math.sin(angle) + (y1 - yr) * Math.cos(angle)
 				+ yr;
 		double x2 = (x1 - xr) * Math.cos(angle) - (y1 - yr) * Math.sin(angle)
 				+ xr;
-		this.x = x2;
-		this.y = y2;
-		this.z = z2;
+		this.setX(x2);
+		this.setY(y2);
+		this.setZ(z2);
 	}
 
 	/**
@@ -199,9 +199,9 @@ public class Point {
 	 *            -Change in z.
 	 */
 	public void translate(double dx, double dy, double dz) {
-		this.x += dx;
-		this.y += dy;
-		this.z += dz;
+		this.setX(this.getX() + dx);
+		this.setY(this.getY() + dy);
+		this.setZ(this.getZ() + dz);
 	}
 
 	/**
@@ -225,7 +225,8 @@ public class Point {
 	 *         and z values).
 	 */
 	public boolean equals(Point p) {
-		return this.x == p.x && this.y == p.y && this.z == p.z;
+		return this.getX() == p.getX() && this.getY() == p.getY()
+				&& this.getZ() == p.getZ();
 	}
 
 	/**
@@ -260,7 +261,7 @@ public class Point {
 	 * {@link GL11#glBegin(int)} block.
 	 */
 	public void drawPointGL() {
-		GL11.glVertex3d(this.x, this.y, this.z);
+		GL11.glVertex3d(this.getX(), this.getY(), this.getZ());
 	}
 
 	/**
@@ -275,31 +276,8 @@ public class Point {
 	 *            -{@link Vector} around which to rotate
 	 */
 	public void rotateAroundVector(double angle, Point center, Vector v) {
-		Vector pointToPoint = new Vector(center, this);
-
-		if (!this.equals(center)) {
-			double m = Vector.dot(v, pointToPoint) / Vector.dot(v, v);
-			double ix = pointToPoint.getX() - m * v.getX();
-			double iy = pointToPoint.getY() - m * v.getY();
-			double iz = pointToPoint.getZ() - m * v.getZ();
-
-			Vector i = (new Vector(ix, iy, iz));
-			double radius = i.getMagnitude();
-			if (i.getMagnitude() > 0.00001) {
-				i = i.toUnitVector();
-				Vector j = Vector.cross(i, v).toUnitVector();
-				// double Cx = center.getX();
-				// double Cy = center.getY();
-				// double Cz = center.getZ();
-				Vector halffin = Vector.add(
-						i.multiply(radius * Math.cos(angle)),
-						j.multiply(radius * Math.sin(angle)));
-				Vector fin = Vector.add(halffin, v.multiply(m));
-				this.x = center.getX() + fin.getX();
-				this.y = center.getY() + fin.getY();
-				this.z = center.getZ() + fin.getZ();
-			}
-		}
+		this.rotateAroundVector(angle, center.getX(), center.getY(),
+				center.getZ(), v);
 	}
 
 	/**
@@ -319,8 +297,46 @@ public class Point {
 	 */
 	public void rotateAroundVector(double angle, double Cx, double Cy,
 			double Cz, Vector v) {
-		Point p = new Point(Cx, Cy, Cz);
-		this.rotateAroundVector(angle, p, v);
+		double vx = v.getX();
+		double vy = v.getY();
+		double vz = v.getZ();
+		double px = this.getX() - Cx;
+		double py = this.getY() - Cy;
+		double pz = this.getZ() - Cz;
+
+		double m = Vector.dot(vx, vy, vz, px, py, pz)
+				/ Vector.dot(vx, vy, vz, vx, vy, vz);
+		// i is the part of the point perpendicular to v.
+		double ix = px - m * vx;
+		double iy = py - m * vy;
+		double iz = pz - m * vz;
+		if (Vector.magnitudeSquared(ix, iy, iz) > 0.00001 * 0.00001) {
+			// j is perpendicular to both i and v. Dividing by the length of v
+			// gives it the same length as i.
+			double jx = Vector.crossX(ix, iy, iz, vx, vy, vz);
+			double jy = Vector.crossY(ix, iy, iz, vx, vy, vz);
+			double jz = Vector.crossZ(ix, iy, iz, vx, vy, vz);
+			double cos = Math.cos(angle);
+			double sin = Math.sin(angle) / Vector.magnitude(vx, vy, vz);
+			this.setX(Cx + ix * cos + jx * sin + m * vx);
+			this.setY(Cy + iy * cos + jy * sin + m * vy);
+			this.setZ(Cz + iz * cos + jz * sin + m * vz);
+		}
+	}
+
+	/**
+	 * Rotates the {@code Point} by the given {@link Quaternion} around the
+	 * given center. Much cheaper than
+	 * {@link #rotateAroundVector(double, Point, Vector)} when the same rotation
+	 * is used for many points.
+	 * 
+	 * @param q
+	 *            -rotation, with a magnitude of one
+	 * @param center
+	 *            -center about which to rotate
+	 */
+	public void rotate(Quaternion q, Point center) {
+		q.rotate(this, center.getX(), center.getY(), center.getZ());
 	}
 
 	/**
@@ -330,12 +346,12 @@ public class Point {
 	 * @return -A new {@code Vector} with the same x-, y-, and z-coordinates.
 	 */
 	public Vector toVector() {
-		return new Vector(this.x, this.y, this.z);
+		return new Vector(this.getX(), this.getY(), this.getZ());
 	}
 
 	public String toString() {
-		String out = "(" + Double.toString(this.x) + ", "
-				+ Double.toString(this.y) + ", " + Double.toString(this.z)
+		String out = "(" + Double.toString(this.getX()) + ", "
+				+ Double.toString(this.getY()) + ", " + Double.toString(this.getZ())
 				+ ")";
 		return out;
 	}
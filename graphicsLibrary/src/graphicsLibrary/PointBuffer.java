@@ -0,0 +1,358 @@
+package graphicsLibrary;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A class to hold many points for bulk transforms.
+ *
+ * The x-, y- and z-coordinates are kept in three separate arrays, so each
+ * transform is a simple loop over arrays of doubles with no objects, which
+ * the JIT compiler can turn into SIMD instructions. Large buffers are also
+ * split across threads.
+ *
+ * @author caudeljn
+ *
+ */
+public class PointBuffer {
+	// Buffers with at least this many points are split across threads.
+	private static final int PARALLEL_SIZE = 1 << 16;
+	// Size of the pieces each thread works on.
+	private static final int CHUNK = 1 << 14;
+
+	private double[] x;
+	private double[] y;
+	private double[] z;
+	private int size;
+	// Scratch space for transform(Matrix3).
+	private final Matrix4 affine = new Matrix4();
+
+	/**
+	 * Constructs an empty {@code PointBuffer} with room for the given number
+	 * of points.
+	 *
+	 * @param capacity
+	 *            -number of points to reserve
+	 */
+	public PointBuffer(int capacity) {
+		this.x = new double[capacity];
+		this.y = new double[capacity];
+		this.z = new double[capacity];
+	}
+
+	/**
+	 * Returns a {@code PointBuffer} holding copies of the given points.
+	 */
+	public static PointBuffer fromPoints(Point[] p) {
+		PointBuffer out = new PointBuffer(p.length);
+		for (Point c : p) {
+			out.add(c.getX(), c.getY(), c.getZ());
+		}
+		return out;
+	}
+
+	/**
+	 * Returns a {@code PointBuffer} holding the rows of the given n*3 matrix,
+	 * such as one from {@link Matrix#pointArrayToMatrix(Point[])}.
+	 *
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if the matrix does not have a width of 3
+	 */
+	public static PointBuffer fromMatrix(Matrix m)
+			throws ArrayIndexOutOfBoundsException {
+		if (m.getWidth() != 3) {
+			throw new ArrayIndexOutOfBoundsException();
+		}
+		double[][] e = m.toArray();
+		PointBuffer out = new PointBuffer(e.length);
+		for (double[] row : e) {
+			out.add(row[0], row[1], row[2]);
+		}
+		return out;
+	}
+
+	/**
+	 * Returns a {@code PointBuffer} holding the given number of points, stored
+	 * as x, y, z triples like the vertices of a {@link Mesh}.
+	 */
+	public static PointBuffer fromInterleaved(double[] coords, int count) {
+		PointBuffer out = new PointBuffer(count);
+		for (int i = 0; i < count; i++) {
+			out.x[i] = coords[3 * i];
+			out.y[i] = coords[3 * i + 1];
+			out.z[i] = coords[3 * i + 2];
+		}
+		out.size = count;
+		return out;
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	public double getX(int i) {
+		return this.x[i];
+	}
+
+	public double getY(int i) {
+		return this.y[i];
+	}
+
+	public double getZ(int i) {
+		return this.z[i];
+	}
+
+	/**
+	 * Adds a point to the end of the buffer.
+	 *
+	 * @return index of the new point
+	 */
+	public int add(double x, double y, double z) {
+		if (this.size == this.x.length) {
+			int capacity = Math.max(16, 2 * this.size);
+			this.x = Arrays.copyOf(this.x, capacity);
+			this.y = Arrays.copyOf(this.y, capacity);
+			this.z = Arrays.copyOf(this.z, capacity);
+		}
+		this.x[this.size] = x;
+		this.y[this.size] = y;
+		this.z[this.size] = z;
+		return this.size++;
+	}
+
+	/**
+	 * Stores the point at the given index in dst.
+	 *
+	 * @return dst
+	 */
+	public Point get(int i, Point dst) {
+		dst.setX(this.x[i]);
+		dst.setY(this.y[i]);
+		dst.setZ(this.z[i]);
+		return dst;
+	}
+
+	/**
+	 * Returns new {@link Point}s holding the points in the buffer.
+	 */
+	public Point[] toPoints() {
+		Point[] out = new Point[this.size];
+		for (int i = 0; i < this.size; i++) {
+			out[i] = new Point(this.x[i], this.y[i], this.z[i]);
+		}
+		return out;
+	}
+
+	/**
+	 * Returns an n*3 {@link Matrix} with one point per row.
+	 */
+	public Matrix toMatrix() {
+		double[][] out = new double[this.size][];
+		for (int i = 0; i < this.size; i++) {
+			out[i] = new double[] { this.x[i], this.y[i], this.z[i] };
+		}
+		return new Matrix(out);
+	}
+
+	/**
+	 * Writes the points into the given array as x, y, z triples.
+	 */
+	public void toInterleaved(double[] coords) {
+		for (int i = 0; i < this.size; i++) {
+			coords[3 * i] = this.x[i];
+			coords[3 * i + 1] = this.y[i];
+			coords[3 * i + 2] = this.z[i];
+		}
+	}
+
+	/**
+	 * Transforms every point in the buffer by the given affine
+	 * {@link Matrix4}, in place.
+	 */
+	public void transform(Matrix4 m) {
+		this.run(new Kernel(this, null, null, m, 0, this.size));
+	}
+
+	/**
+	 * Transforms every point in the buffer by the given {@link Matrix3}, in
+	 * place.
+	 */
+	public void transform(Matrix3 m) {
+		this.transform(this.affine.set(m, 0, 0, 0));
+	}
+
+	/**
+	 * Translates every point in the buffer by the given amount.
+	 */
+	public void translate(double dx, double dy, double dz) {
+		for (int i = 0; i < this.size; i++) {
+			this.x[i] += dx;
+		}
+		for (int i = 0; i < this.size; i++) {
+			this.y[i] += dy;
+		}
+		for (int i = 0; i < this.size; i++) {
+			this.z[i] += dz;
+		}
+	}
+
+	/**
+	 * Transforms the given number of points, stored as x, y, z triples, by the
+	 * given affine {@link Matrix4}, in place.
+	 *
+	 * @param m
+	 *            -transform to apply
+	 * @param coords
+	 *            -points to transform
+	 * @param count
+	 *            -number of points
+	 */
+	public static void transformInterleaved(Matrix4 m, double[] coords,
+			int count) {
+		Kernel task = new Kernel(null, coords, null, m, 0, count);
+		if (count >= PARALLEL_SIZE) {
+			ForkJoinPool.commonPool().invoke(task);
+		} else {
+			task.compute();
+		}
+	}
+
+	/**
+	 * Applies the linear part of the given {@link Matrix4} (everything but the
+	 * translation) to the given number of points, stored as x, y, z triples
+	 * of floats, in place. The arithmetic is done in single precision.
+	 *
+	 * @param m
+	 *            -transform to apply
+	 * @param coords
+	 *            -points to transform
+	 * @param count
+	 *            -number of points
+	 */
+	public static void transformLinear(Matrix4 m, float[] coords, int count) {
+		Kernel task = new Kernel(null, null, coords, m, 0, count);
+		if (count >= PARALLEL_SIZE) {
+			ForkJoinPool.commonPool().invoke(task);
+		} else {
+			task.compute();
+		}
+	}
+
+	private void run(Kernel task) {
+		if (this.size >= PARALLEL_SIZE) {
+			ForkJoinPool.commonPool().invoke(task);
+		} else {
+			task.compute();
+		}
+	}
+
+	/**
+	 * Applies an affine transform to a range of points, either of a
+	 * {@code PointBuffer}, of an interleaved array, or (linear part only) of
+	 * an interleaved float array. Splits itself into
+	 * chunks when run in a {@link ForkJoinPool}.
+	 */
+	private static class Kernel extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final PointBuffer buffer;
+		private final double[] coords;
+		private final float[] floatCoords;
+		private final Matrix4 m;
+		private final int start;
+		private final int end;
+
+		private Kernel(PointBuffer buffer, double[] coords, float[] floatCoords,
+				Matrix4 m, int start, int end) {
+			this.buffer = buffer;
+			this.coords = coords;
+			this.floatCoords = floatCoords;
+			this.m = m;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute() {
+			if (this.end - this.start > CHUNK && inForkJoinPool()) {
+				int middle = (this.start + this.end) >>> 1;
+				invokeAll(new Kernel(this.buffer, this.coords,
+						this.floatCoords, this.m, this.start, middle),
+						new Kernel(this.buffer, this.coords, this.floatCoords,
+								this.m, middle, this.end));
+				return;
+			}
+			if (this.buffer != null) {
+				this.transformSeparate();
+			} else if (this.coords != null) {
+				this.transformInterleaved();
+			} else {
+				this.transformFloatLinear();
+			}
+		}
+
+		private void transformSeparate() {
+			Matrix4 m = this.m;
+			double m00 = m.getEntry(0, 0), m01 = m.getEntry(0, 1);
+			double m02 = m.getEntry(0, 2), m03 = m.getEntry(0, 3);
+			double m10 = m.getEntry(1, 0), m11 = m.getEntry(1, 1);
+			double m12 = m.getEntry(1, 2), m13 = m.getEntry(1, 3);
+			double m20 = m.getEntry(2, 0), m21 = m.getEntry(2, 1);
+			double m22 = m.getEntry(2, 2), m23 = m.getEntry(2, 3);
+			double[] x = this.buffer.x;
+			double[] y = this.buffer.y;
+			double[] z = this.buffer.z;
+			for (int i = this.start; i < this.end; i++) {
+				double px = x[i];
+				double py = y[i];
+				double pz = z[i];
+				x[i] = m00 * px + m01 * py + m02 * pz + m03;
+				y[i] = m10 * px + m11 * py + m12 * pz + m13;
+				z[i] = m20 * px + m21 * py + m22 * pz + m23;
+			}
+		}
+
+		private void transformInterleaved() {
+			Matrix4 m = this.m;
+			double m00 = m.getEntry(0, 0), m01 = m.getEntry(0, 1);
+			double m02 = m.getEntry(0, 2), m03 = m.getEntry(0, 3);
+			double m10 = m.getEntry(1, 0), m11 = m.getEntry(1, 1);
+			double m12 = m.getEntry(1, 2), m13 = m.getEntry(1, 3);
+			double m20 = m.getEntry(2, 0), m21 = m.getEntry(2, 1);
+			double m22 = m.getEntry(2, 2), m23 = m.getEntry(2, 3);
+			double[] v = this.coords;
+			int end = 3 * this.end;
+			for (int i = 3 * this.start; i < end; i += 3) {
+				double px = v[i];
+				double py = v[i + 1];
+				double pz = v[i + 2];
+				v[i] = m00 * px + m01 * py + m02 * pz + m03;
+				v[i + 1] = m10 * px + m11 * py + m12 * pz + m13;
+				v[i + 2] = m20 * px + m21 * py + m22 * pz + m23;
+			}
+		}
+
+		private void transformFloatLinear() {
+			Matrix4 m = this.m;
+			float m00 = (float) m.getEntry(0, 0);
+			float m01 = (float) m.getEntry(0, 1);
+			float m02 = (float) m.getEntry(0, 2);
+			float m10 = (float) m.getEntry(1, 0);
+			float m11 = (float) m.getEntry(1, 1);
+			float m12 = (float) m.getEntry(1, 2);
+			float m20 = (float) m.getEntry(2, 0);
+			float m21 = (float) m.getEntry(2, 1);
+			float m22 = (float) m.getEntry(2, 2);
+			float[] v = this.floatCoords;
+			int end = 3 * this.end;
+			for (int i = 3 * this.start; i < end; i += 3) {
+				float px = v[i];
+				float py = v[i + 1];
+				float pz = v[i + 2];
+				v[i] = m00 * px + m01 * py + m02 * pz;
+				v[i + 1] = m10 * px + m11 * py + m12 * pz;
+				v[i + 2] = m20 * px + m21 * py + m22 * pz;
+			}
+		}
+	}
+}
@@ -0,0 +1,106 @@
+package graphicsLibrary;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class PointBufferTest {
+
+	private static Matrix4 transform() {
+		return Matrix4.around(Matrix3.rotation(0.7, new Vector(1, -2, 3)), 1,
+				2, -3).compose(Matrix4.around(Matrix3.scale(2, 0.5, 3), 0, 1, 0))
+				.compose(Matrix4.translation(4, -5, 6));
+	}
+
+	private static double[] random(Random random, int count) {
+		double[] out = new double[3 * count];
+		for (int i = 0; i < out.length; i++) {
+			out[i] = 200 * random.nextDouble() - 100;
+		}
+		return out;
+	}
+
+	@Test
+	public void testTransform() {
+		Random random = new Random(3);
+		Matrix4 m = transform();
+		Matrix3 linear = m.getLinear();
+		Matrix4 linearOnly = new Matrix4().set(linear, 0, 0, 0);
+		// Below and above the size at which the work is split across threads.
+		for (int count : new int[] { 1000, (1 << 16) + 123 }) {
+			double[] coords = random(random, count);
+			double[] expected = new double[3 * count];
+			double[] expectedLinear = new double[3 * count];
+			for (int i = 0; i < 3 * count; i += 3) {
+				m.transformPointInto(coords, i, expected, i);
+				linearOnly.transformPointInto(coords, i, expectedLinear, i);
+			}
+
+			PointBuffer buffer = PointBuffer.fromInterleaved(coords, count);
+			buffer.transform(m);
+			assertEquals(count, buffer.size());
+			for (int i = 0; i < count; i++) {
+				assertEquals(expected[3 * i], buffer.getX(i), 1e-9);
+				assertEquals(expected[3 * i + 1], buffer.getY(i), 1e-9);
+				assertEquals(expected[3 * i + 2], buffer.getZ(i), 1e-9);
+			}
+
+			buffer = PointBuffer.fromInterleaved(coords, count);
+			buffer.transform(linear);
+			double[] out = new double[3 * count];
+			buffer.toInterleaved(out);
+			for (int i = 0; i < 3 * count; i++) {
+				assertEquals(expectedLinear[i], out[i], 1e-9);
+			}
+
+			double[] interleaved = coords.clone();
+			PointBuffer.transformInterleaved(m, interleaved, count);
+			for (int i = 0; i < 3 * count; i++) {
+				assertEquals(expected[i], interleaved[i], 1e-9);
+			}
+
+			float[] floats = new float[3 * count];
+			for (int i = 0; i < 3 * count; i++) {
+				floats[i] = (float) coords[i];
+			}
+			PointBuffer.transformLinear(m, floats, count);
+			for (int i = 0; i < 3 * count; i++) {
+				// Single precision, on coordinates up to a few hundred.
+				assertEquals(expectedLinear[i], floats[i], 1e-3);
+			}
+		}
+	}
+
+	@Test
+	public void testConversions() {
+		Point[] points = { new Point(1, 2, 3), new Point(-4, 5, -6),
+				new Point(0.5, 0, 1e6) };
+		PointBuffer buffer = PointBuffer.fromPoints(points);
+		assertEquals(3, buffer.size());
+		Point[] back = buffer.toPoints();
+		for (int i = 0; i < points.length; i++) {
+			assertTrue(points[i].equals(back[i]));
+			assertTrue(points[i].equals(buffer.get(i, new Point(0, 0, 0))));
+		}
+
+		PointBuffer fromMatrix = PointBuffer.fromMatrix(buffer.toMatrix());
+		double[] coords = new double[9];
+		fromMatrix.toInterleaved(coords);
+		PointBuffer fromInterleaved = PointBuffer.fromInterleaved(coords, 3);
+		for (int i = 0; i < points.length; i++) {
+			assertEquals(points[i].getX(), fromInterleaved.getX(i), 0);
+			assertEquals(points[i].getY(), fromInterleaved.getY(i), 0);
+			assertEquals(points[i].getZ(), fromInterleaved.getZ(i), 0);
+		}
+
+		try {
+			PointBuffer.fromMatrix(Matrix.identity(4));
+			fail();
+		} catch (ArrayIndexOutOfBoundsException e) {
+			// Expected.
+		}
+	}
+
+}
@@ -0,0 +1,273 @@
+package graphicsLibrary;
+
+/**
+ * A class to represent rotations in 3D space as quaternions.
+ *
+ * A {@code Quaternion} has a scalar part w and a vector part x, y, z. Unit
+ * quaternions are rotations. Making one costs a sine and a cosine, but after
+ * that rotating a point only costs a few multiplications, so one
+ * {@code Quaternion} should be made and reused to rotate many points by the
+ * same amount. Quaternions can also be smoothly interpolated with
+ * {@link #slerp(Quaternion, Quaternion, double)}.
+ *
+ * Like {@link Matrix3}, operations that return a new {@code Quaternion} have
+ * an {@code Into} version that writes to a given destination.
+ *
+ * @author caudeljn
+ *
+ */
+public class Quaternion {
+	private double w;
+	private double x;
+	private double y;
+	private double z;
+
+	/**
+	 * Constructs a new identity {@code Quaternion}, which does not rotate.
+	 */
+	public Quaternion() {
+		this(1, 0, 0, 0);
+	}
+
+	/**
+	 * Constructs a new {@code Quaternion} with the given parts.
+	 *
+	 * @param w
+	 *            -scalar part
+	 * @param x
+	 * @param y
+	 * @param z
+	 */
+	public Quaternion(double w, double x, double y, double z) {
+		this.set(w, x, y, z);
+	}
+
+	public double getW() {
+		return this.w;
+	}
+
+	public double getX() {
+		return this.x;
+	}
+
+	public double getY() {
+		return this.y;
+	}
+
+	public double getZ() {
+		return this.z;
+	}
+
+	/**
+	 * Sets every part of the {@code Quaternion}.
+	 *
+	 * @return this {@code Quaternion}
+	 */
+	public Quaternion set(double w, double x, double y, double z) {
+		this.w = w;
+		this.x = x;
+		this.y = y;
+		this.z = z;
+		return this;
+	}
+
+	public Quaternion set(Quaternion q) {
+		return this.set(q.w, q.x, q.y, q.z);
+	}
+
+	/**
+	 * Returns a rotation by the given angle around the given axis. This turns
+	 * points the same way as
+	 * {@link Point#rotateAroundVector(double, Point, Vector)}.
+	 *
+	 * @param angle
+	 *            -Angle to rotate, in radians.
+	 * @param axis
+	 *            -{@link Vector} around which to rotate
+	 */
+	public static Quaternion fromAxisAngle(double angle, Vector axis) {
+		return fromAxisAngleInto(angle, axis, new Quaternion());
+	}
+
+	public static Quaternion fromAxisAngleInto(double angle, Vector axis,
+			Quaternion dst) {
+		// rotateAroundVector turns the other way to the right-hand rule, so
+		// the axis is flipped.
+		double s = -Math.sin(angle / 2) / axis.getMagnitude();
+		return dst.set(Math.cos(angle / 2), axis.getX() * s, axis.getY() * s,
+				axis.getZ() * s);
+	}
+
+	/**
+	 * Returns the product of two quaternions. As rotations, this is b, then a.
+	 *
+	 * @param a
+	 *            -rotation to apply second
+	 * @param b
+	 *            -rotation to apply first
+	 * @return product ab
+	 */
+	public static Quaternion multiply(Quaternion a, Quaternion b) {
+		return multiplyInto(a, b, new Quaternion());
+	}
+
+	public static Quaternion multiplyInto(Quaternion a, Quaternion b,
+			Quaternion dst) {
+		return dst.set(a.w * b.w - a.x * b.x - a.y * b.y - a.z * b.z, a.w
+				* b.x + a.x * b.w + a.y * b.z - a.z * b.y, a.w * b.y - a.x
+				* b.z + a.y * b.w + a.z * b.x, a.w * b.z + a.x * b.y - a.y
+				* b.x + a.z * b.w);
+	}
+
+	/**
+	 * Returns the dot product of two quaternions.
+	 */
+	public static double dot(Quaternion a, Quaternion b) {
+		return a.w * b.w + a.x * b.x + a.y * b.y + a.z * b.z;
+	}
+
+	/**
+	 * Returns the magnitude of the {@code Quaternion}. Rotations have a
+	 * magnitude of one.
+	 */
+	public double getMagnitude() {
+		return Math.sqrt(dot(this, this));
+	}
+
+	/**
+	 * Scales the {@code Quaternion} to a magnitude of one. Doing this now and
+	 * then stops rounding errors building up when many rotations are
+	 * multiplied together.
+	 *
+	 * @return this {@code Quaternion}
+	 */
+	public Quaternion normalizeInPlace() {
+		double magnitude = this.getMagnitude();
+		if (magnitude != 0) {
+			this.set(this.w / magnitude, this.x / magnitude,
+					this.y / magnitude, this.z / magnitude);
+		}
+		return this;
+	}
+
+	/**
+	 * Returns a copy of the {@code Quaternion} with a magnitude of one.
+	 */
+	public Quaternion normalize() {
+		return new Quaternion(this.w, this.x, this.y, this.z)
+				.normalizeInPlace();
+	}
+
+	/**
+	 * Returns the conjugate of the {@code Quaternion}. For a rotation, this is
+	 * the opposite rotation.
+	 */
+	public Quaternion conjugate() {
+		return new Quaternion(this.w, -this.x, -this.y, -this.z);
+	}
+
+	/**
+	 * Returns the rotation part way between a and b, along the shortest path.
+	 *
+	 * @param a
+	 *            -rotation at t = 0
+	 * @param b
+	 *            -rotation at t = 1
+	 * @param t
+	 *            -fraction of the way from a to b
+	 * @return new {@code Quaternion} with a magnitude of one
+	 */
+	public static Quaternion slerp(Quaternion a, Quaternion b, double t) {
+		return slerpInto(a, b, t, new Quaternion());
+	}
+
+	public static Quaternion slerpInto(Quaternion a, Quaternion b, double t,
+			Quaternion dst) {
+		double cos = dot(a, b);
+		// q and -q are the same rotation; use whichever is closer to a.
+		double sign = 1;
+		if (cos < 0) {
+			cos = -cos;
+			sign = -1;
+		}
+		double fa;
+		double fb;
+		if (cos > 0.9995) {
+			// Close enough that a straight line is accurate, and the sine
+			// below would be near zero.
+			fa = 1 - t;
+			fb = t;
+		} else {
+			double angle = Math.acos(cos);
+			double sin = Math.sin(angle);
+			fa = Math.sin((1 - t) * angle) / sin;
+			fb = Math.sin(t * angle) / sin;
+		}
+		fb *= sign;
+		return dst.set(fa * a.w + fb * b.w, fa * a.x + fb * b.x,
+				fa * a.y + fb * b.y, fa * a.z + fb * b.z).normalizeInPlace();
+	}
+
+	/**
+	 * Returns the {@link Matrix3} that makes the same rotation. Assumes the
+	 * {@code Quaternion} has a magnitude of one.
+	 */
+	public Matrix3 toMatrix3() {
+		return this.toMatrix3Into(new Matrix3());
+	}
+
+	public Matrix3 toMatrix3Into(Matrix3 dst) {
+		double xx = this.x * this.x, yy = this.y * this.y, zz = this.z * this.z;
+		double xy = this.x * this.y, xz = this.x * this.z, yz = this.y * this.z;
+		double wx = this.w * this.x, wy = this.w * this.y, wz = this.w * this.z;
+		return dst.set(1 - 2 * (yy + zz), 2 * (xy - wz), 2 * (xz + wy),
+				2 * (xy + wz), 1 - 2 * (xx + zz), 2 * (yz - wx),
+				2 * (xz - wy), 2 * (yz + wx), 1 - 2 * (xx + yy));
+	}
+
+	/**
+	 * Rotates the given {@link Vector} in place. Assumes the
+	 * {@code Quaternion} has a magnitude of one.
+	 *
+	 * @return v
+	 */
+	public Vector rotate(Vector v) {
+		double vx = v.getX();
+		double vy = v.getY();
+		double vz = v.getZ();
+		// v' = v + 2w(q x v) + 2q x (q x v)
+		double tx = 2 * (this.y * vz - this.z * vy);
+		double ty = 2 * (this.z * vx - this.x * vz);
+		double tz = 2 * (this.x * vy - this.y * vx);
+		v.set(vx + this.w * tx + this.y * tz - this.z * ty, vy + this.w * ty
+				+ this.z * tx - this.x * tz, vz + this.w * tz + this.x * ty
+				- this.y * tx);
+		return v;
+	}
+
+	/**
+	 * Rotates the given {@link Point} in place around the given center.
+	 * Assumes the {@code Quaternion} has a magnitude of one.
+	 *
+	 * @return p
+	 */
+	public Point rotate(Point p, double Cx, double Cy, double Cz) {
+		double vx = p.getX() - Cx;
+		double vy = p.getY() - Cy;
+		double vz = p.getZ() - Cz;
+		double tx = 2 * (this.y * vz - this.z * vy);
+		double ty = 2 * (this.z * vx - this.x * vz);
+		double tz = 2 * (this.x * vy - this.y * vx);
+		p.setX(Cx + vx + this.w * tx + this.y * tz - this.z * ty);
+		p.setY(Cy + vy + this.w * ty + this.z * tx - this.x * tz);
+		p.setZ(Cz + vz + this.w * tz + this.x * ty - this.y * tx);
+		return p;
+	}
+
+	@Override
+	public String toString() {
+		return "[" + Double.toString(this.w) + ", " + Double.toString(this.x)
+				+ ", " + Double.toString(this.y) + ", "
+				+ Double.toString(this.z) + "]";
+	}
+}
@@ -0,0 +1,43 @@
+package graphicsLibrary;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class QuaternionTest {
+
+	@Test
+	public void testMatchesRotateAroundVector() {
+		Vector axis = new Vector(1, -2, 0.5);
+		Point center = new Point(1, 2, 3);
+		Quaternion q = Quaternion.fromAxisAngle(0.8, axis);
+
+		Point a = new Point(-1, 4, 2);
+		Point b = new Point(a);
+		Point c = Matrix4.around(q.toMatrix3(), 1, 2, 3).transformPoint(a);
+		a.rotateAroundVector(0.8, center, axis);
+		b.rotate(q, center);
+		assertEquals(a.getX(), b.getX(), 1e-12);
+		assertEquals(a.getY(), b.getY(), 1e-12);
+		assertEquals(a.getZ(), b.getZ(), 1e-12);
+		assertEquals(a.getX(), c.getX(), 1e-12);
+		assertEquals(a.getY(), c.getY(), 1e-12);
+		assertEquals(a.getZ(), c.getZ(), 1e-12);
+	}
+
+	@Test
+	public void testSlerp() {
+		Vector axis = new Vector(0, 0, 1);
+		Quaternion a = Quaternion.fromAxisAngle(0.2, axis);
+		Quaternion b = Quaternion.fromAxisAngle(1.4, axis);
+		Quaternion half = Quaternion.slerp(a, b, 0.5);
+		Quaternion expected = Quaternion.fromAxisAngle(0.8, axis);
+		assertEquals(1, Math.abs(Quaternion.dot(half, expected)), 1e-12);
+		assertEquals(1, half.getMagnitude(), 1e-12);
+
+		Quaternion product = Quaternion.multiply(b, a);
+		assertEquals(1, Math.abs(Quaternion.dot(product,
+				Quaternion.fromAxisAngle(1.6, axis))), 1e-12);
+	}
+
+}
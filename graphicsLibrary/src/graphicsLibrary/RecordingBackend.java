@@ -0,0 +1,72 @@
+package graphicsLibrary;
+
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+/**
+ * A {@link RenderBackend} that draws nothing, but counts what it is given
+ * and keeps a copy of the last batch. It needs no OpenGL context, so shapes
+ * can be drawn through it in tests and benchmarks.
+ *
+ * @author caudeljn
+ *
+ */
+public class RecordingBackend implements RenderBackend {
+	private int drawCount;
+	private long vertexCount;
+	private float[] last = new float[0];
+	private int lastVertexCount;
+
+	@Override
+	public void drawTriangles(FloatBuffer vertices, int vertexCount) {
+		this.drawCount++;
+		this.vertexCount += vertexCount;
+		int floats = FLOATS_PER_VERTEX * vertexCount;
+		if (floats > this.last.length) {
+			this.last = new float[floats];
+		}
+		vertices.position(0);
+		vertices.get(this.last, 0, floats);
+		vertices.clear();
+		this.lastVertexCount = vertexCount;
+	}
+
+	/**
+	 * Returns the number of batches drawn since the last reset.
+	 */
+	public int getDrawCount() {
+		return this.drawCount;
+	}
+
+	/**
+	 * Returns the number of vertices drawn since the last reset.
+	 */
+	public long getVertexCount() {
+		return this.vertexCount;
+	}
+
+	/**
+	 * Returns the number of vertices in the last batch.
+	 */
+	public int getLastVertexCount() {
+		return this.lastVertexCount;
+	}
+
+	/**
+	 * Returns a copy of the last batch, in the layout described by
+	 * {@link RenderBackend}.
+	 */
+	public float[] getLastVertices() {
+		return Arrays.copyOf(this.last, FLOATS_PER_VERTEX
+				* this.lastVertexCount);
+	}
+
+	/**
+	 * Sets the counts back to zero and forgets the last batch.
+	 */
+	public void reset() {
+		this.drawCount = 0;
+		this.vertexCount = 0;
+		this.lastVertexCount = 0;
+	}
+}
@@ -0,0 +1,34 @@
+package graphicsLibrary;
+
+import java.nio.FloatBuffer;
+
+/**
+ * Something that draws batches of triangles, such as OpenGL.
+ *
+ * A batch is one buffer of interleaved vertices, {@link #FLOATS_PER_VERTEX}
+ * floats each: the x, y and z of the position, then the red, green and blue
+ * of the colour, from 0 to 1. Every three vertices make a triangle.
+ * {@link Shape} fills one buffer with all of its triangles and hands it over
+ * in one call, so drawing costs a few calls per shape instead of several per
+ * vertex.
+ *
+ * @author caudeljn
+ *
+ */
+public interface RenderBackend {
+	/**
+	 * The number of floats in each vertex of a batch.
+	 */
+	public static final int FLOATS_PER_VERTEX = 6;
+
+	/**
+	 * Draws the given vertices as triangles. The buffer belongs to the
+	 * caller, and may be changed once this returns.
+	 *
+	 * @param vertices
+	 *            -interleaved vertices, from index 0
+	 * @param vertexCount
+	 *            -number of vertices, a multiple of three
+	 */
+	public void drawTriangles(FloatBuffer vertices, int vertexCount);
+}
@@ -0,0 +1,42 @@
+package graphicsLibrary;
+
+import static org.junit.Assert.*;
+
+import java.awt.Color;
+
+import org.junit.Test;
+
+public class RenderBackendTest {
+
+	@Test
+	public void testBatch() {
+		RecordingBackend backend = new RecordingBackend();
+		Shape s = Shape.newSphere(1, 2, 3, 2, 4);
+		s.setRenderBackend(backend);
+		s.fillShape(Color.RED, new Point(10, 0, 0), ColorUtil.FULL);
+		int triangles = s.getMesh().getTriangleCount();
+		assertEquals(1, backend.getDrawCount());
+		assertEquals(3 * triangles, backend.getLastVertexCount());
+
+		float[] v = backend.getLastVertices();
+		Mesh mesh = s.getMesh();
+		int[] indices = mesh.getIndices();
+		for (int i = 0; i < 3 * triangles; i++) {
+			int f = RenderBackend.FLOATS_PER_VERTEX * i;
+			assertEquals(mesh.getX(indices[i]), v[f], 1e-6);
+			assertEquals(mesh.getY(indices[i]), v[f + 1], 1e-6);
+			assertEquals(mesh.getZ(indices[i]), v[f + 2], 1e-6);
+			assertEquals(1, v[f + 3], 0);
+			assertEquals(0, v[f + 4], 0);
+		}
+
+		// In world matrix mode, vertices are sent in world space.
+		s.setWorldMatrixMode(true);
+		s.translate(10, 0, 0);
+		s.drawShape(new Point(10, 0, 0), ColorUtil.FULL, null);
+		assertEquals(2, backend.getDrawCount());
+		assertEquals(mesh.getX(indices[0]) + 10, backend.getLastVertices()[0],
+				1e-5);
+	}
+
+}
@@ -1,20 +1,72 @@
 package graphicsLibrary;
 
 import java.awt.Color;
+import java.nio.FloatBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 
-import org.lwjgl.opengl.GL11;
+import org.lwjgl.BufferUtils;
 
 public class Shape {
-	private ArrayList<Triangle> triangles;
-	private ArrayList<Point> points;
+	private Mesh mesh;
 	private Point center;
 	private Color color;
+	// Only used by addTriangle, to share points between triangles.
+	private IdentityHashMap<Point, Integer> vertexLookup;
+	// Local-to-world transform, or null when transforms go into the mesh.
+	private Matrix4 world;
+	// True while the mesh is a template shared with other shapes. It is
+	// copied before anything changes it.
+	private boolean sharedMesh;
+	// Meshes to switch between by distance, or null. Only used while the
+	// mesh is shared.
+	private LevelOfDetail lod;
+	private int lodLevel;
+	private double lodRadius;
+
+	// World-space bounds are the bounds of the mesh when it was last fitted,
+	// moved by the transforms since then.
+	private final Bounds bounds = new Bounds();
+	private final Bounds fitted = new Bounds();
+	private final Bounds batchBounds = new Bounds();
+	private final Point localEye = new Point(0, 0, 0);
+
+	private boolean backFaceCulling;
+	// Counts from the last time the shape was drawn.
+	private int drawnCount, backFaceCount, frustumCount;
+	private final Matrix4 sinceFit = new Matrix4();
+	private int fitVersion = -1;
+
+	// Unit spheres for newSphereInstance, by detail.
+	private static final HashMap<Integer, Mesh> sphereTemplates = new HashMap<Integer, Mesh>();
+
+	// Backend for shapes without their own, made on first use.
+	private static RenderBackend defaultBackend;
+	private RenderBackend backend;
+	// Lit triangles waiting to be drawn, in the layout of RenderBackend.
+	private FloatBuffer vertexData;
+	// Triangles that passed culling, and their colours as packed RGB, first
+	// before and then after lighting.
+	private int[] visible = new int[0];
+	private int[] shaded = new int[0];
+	// Lights that reach the shape, in the space of the mesh, laid out for
+	// Lighting, and what is needed to gather them.
+	private double[] lightData = new double[0];
+	private int lightCount;
+	private Bounds lightBounds;
+	private double lightScale;
+
+	// Scratch space, so transforms and drawing don't make new objects.
+	private final Matrix3 linear = new Matrix3();
+	private final Matrix4 step = new Matrix4();
+	private final Matrix4 inverse = new Matrix4();
+	private final Point localLight = new Point(0, 0, 0);
+	private final double[] worldVertex = new double[3];
+	private final double[] corners = new double[9];
 
 	private Shape() {
-		triangles = new ArrayList<Triangle>();
-		points = new ArrayList<Point>();
+		this.mesh = new Mesh();
 		this.center = new Point(0,0,0);
 	}
 	
@@ -24,8 +76,10 @@ public class Shape {
 	
 	public void setColor(Color c){
 		this.color = ColorUtil.clone(c);
-		for(Triangle t : this.triangles){
-			t.setColor(ColorUtil.clone(c));
+		// A shared mesh keeps its colours; the shape's colour is used to draw
+		// it instead.
+		if (!this.sharedMesh) {
+			this.mesh.setColor(this.color);
 		}
 	}
 	
@@ -39,9 +93,7 @@ public class Shape {
 
 	public void setX(double x) {
 		this.center.setX(x);
-		for(Point p : this.points){
-			p.setX(x);
-		}
+		this.ownMesh().fillX(x);
 	}
 
 	public double getY() {
@@ -51,9 +103,7 @@ public class Shape {
 
 	public void setY(double y) {
 		this.center.setY(y);
-		for(Point p : this.points){
-			p.setY(y);
-		}
+		this.ownMesh().fillY(y);
 	}
 
 	public double getZ() {
@@ -62,35 +112,196 @@ public class Shape {
 
 	public void setZ(double z) {
 		this.center.setZ(z);
-		for(Point p : this.points){
-			p.setZ(z);
+		this.ownMesh().fillZ(z);
+	}
+
+	/**
+	 * Returns the {@link Mesh} that stores the geometry of the shape. For
+	 * shapes made by {@link #newSphereInstance(double, double, double, double,
+	 * int)}, this is the template shared by every instance, and should not be
+	 * changed.
+	 * 
+	 * @return mesh, not a copy
+	 */
+	public Mesh getMesh(){
+		return this.mesh;
+	}
+	
+	/**
+	 * Returns whether the shape still shares its {@link Mesh} with other
+	 * shapes. See {@link #newSphereInstance(double, double, double, double,
+	 * int)}.
+	 */
+	public boolean isSharedMesh(){
+		return this.sharedMesh;
+	}
+	
+	/**
+	 * Returns the mesh, first giving the shape its own copy if it is shared.
+	 * Everything that changes the mesh goes through here.
+	 */
+	private Mesh ownMesh(){
+		if (this.sharedMesh) {
+			this.mesh = new Mesh(this.mesh);
+			this.sharedMesh = false;
+			this.lod = null;
+			if (this.color != null) {
+				this.mesh.setColor(this.color);
+			}
 		}
+		return this.mesh;
 	}
 
+	/**
+	 * Returns the triangles of the shape. These are views of the
+	 * {@link Mesh}, built the first time they are asked for. A shape with a
+	 * shared mesh gets its own copy first.
+	 */
 	public ArrayList<Triangle> getTriangles(){
-		return this.triangles;
+		return this.ownMesh().getTriangles();
 	}
 	
+	/**
+	 * Returns the points of the shape. These are views of the {@link Mesh},
+	 * built the first time they are asked for; changing them changes the
+	 * shape. A shape with a shared mesh gets its own copy first.
+	 */
 	public ArrayList<Point> getPoints(){
-		return this.points;
+		return this.ownMesh().getPoints();
 	}
 	
+	/**
+	 * Adds a copy of the given point to the shape.
+	 */
 	public void addPoint(Point p){
-		this.points.add(p);
+		this.ownMesh().addVertex(p.getX(), p.getY(), p.getZ());
 	}
 	
+	/**
+	 * Adds a copy of the given triangle to the shape. Points of the triangle
+	 * that were already added to the shape, as the same {@link Point}
+	 * object, are shared rather than copied again.
+	 */
 	public void addTriangle(Triangle t){
-		this.triangles.add(t);
-		for(Point c : t.getPoints()){
-			this.points.add(c);
+		if (this.vertexLookup == null) {
+			this.vertexLookup = new IdentityHashMap<Point, Integer>();
 		}
+		Mesh mesh = this.ownMesh();
+		Point[] p = t.getPoints();
+		int[] index = new int[3];
+		for (int i = 0; i < 3; i++) {
+			Integer existing = this.vertexLookup.get(p[i]);
+			if (existing == null) {
+				existing = mesh.addVertex(p[i].getX(), p[i].getY(),
+						p[i].getZ());
+				this.vertexLookup.put(p[i], existing);
+			}
+			index[i] = existing;
+		}
+		mesh.addTriangle(index[0], index[1], index[2], t.getColor());
 	}
 	
-	public void translate(double dx, double dy, double dz){
-		for(Point c : this.points){
-			c.translate(dx, dy, dz);
+	/**
+	 * Applies the given affine transform to the shape. The vertices are not
+	 * changed until they are next read or drawn, or until
+	 * {@link #flushTransforms()} is called, so several transforms in a row
+	 * cost one pass over the vertices. In world matrix mode the vertices are
+	 * not changed at all.
+	 * 
+	 * @param m
+	 *            -transform to apply
+	 */
+	public void transform(Matrix4 m){
+		if (this.world != null) {
+			Matrix4.multiplyInto(m, this.world, this.world);
+		} else {
+			boolean fitted = this.fitVersion == this.mesh.getVersion();
+			this.mesh.transform(m);
+			if (fitted) {
+				Matrix4.multiplyInto(m, this.sinceFit, this.sinceFit);
+				this.fitVersion = this.mesh.getVersion();
+			}
+		}
+		m.transformPointInto(this.center, this.center);
+	}
+	
+	/**
+	 * Applies any pending transforms to the vertices now.
+	 */
+	public void flushTransforms(){
+		this.mesh.flushTransforms();
+	}
+	
+	/**
+	 * Turns world matrix mode on or off. In world matrix mode, the vertices
+	 * stay in local space and transforms only change the matrix returned by
+	 * {@link #getWorldMatrix()}, which is applied as the shape is drawn. The
+	 * points, triangles and mesh are then in local space. Turning the mode
+	 * off applies the world matrix to the vertices.
+	 * 
+	 * @param enabled
+	 *            -true for world matrix mode
+	 */
+	public void setWorldMatrixMode(boolean enabled){
+		if (enabled && this.world == null) {
+			this.world = new Matrix4();
+		} else if (!enabled && this.world != null) {
+			this.ownMesh().transform(this.world);
+			this.world = null;
 		}
-		this.center.translate(dx, dy, dz);
+	}
+	
+	public boolean isWorldMatrixMode(){
+		return this.world != null;
+	}
+	
+	/**
+	 * Returns the local-to-world transform, or null when not in world matrix
+	 * mode.
+	 * 
+	 * @return world matrix, not a copy
+	 */
+	public Matrix4 getWorldMatrix(){
+		return this.world;
+	}
+	
+	/**
+	 * Returns the bounds of the shape in world space. Moving or rotating the
+	 * shape does not fit them again, but moves the bounds last fitted, so
+	 * after rotations the box can be larger than needed; see
+	 * {@link #refitBounds()}. Anything else that changes the vertices, such
+	 * as {@link #setX(double)}, makes the next call fit them again.
+	 * 
+	 * @return bounds, not a copy
+	 */
+	public Bounds getBounds(){
+		if (this.world != null) {
+			return this.mesh.getBounds().transformInto(this.world, this.bounds);
+		}
+		if (this.fitVersion != this.mesh.getVersion()) {
+			this.fitted.set(this.mesh.getBounds());
+			this.sinceFit.setIdentity();
+			this.fitVersion = this.mesh.getVersion();
+		}
+		return this.fitted.transformInto(this.sinceFit, this.bounds);
+	}
+	
+	/**
+	 * Fits the bounds to the vertices again, so the box is as small as
+	 * possible. In world matrix mode, the bounds are always those of the mesh
+	 * moved by the world matrix.
+	 * 
+	 * @return bounds, not a copy
+	 */
+	public Bounds refitBounds(){
+		if (this.world == null) {
+			this.fitVersion = -1;
+		}
+		return this.getBounds();
+	}
+	
+	public void translate(double dx, double dy, double dz){
+		this.transform(Matrix4.translationInto(dx, dy, dz, this.step));
 	}
 	
 	public void translate(Vector v){
@@ -98,50 +309,36 @@ public class Shape {
 	}
 	
 	public void rotateX(double angle, double Cx, double Cy, double Cz){
-		for(Point c : this.points){
-			c.rotateX(angle, Cx, Cy, Cz);
-		}
-		this.center.rotateX(angle, Cx, Cy, Cz);
+		Matrix3.rotationXInto(angle, this.linear);
+		this.transform(Matrix4.aroundInto(this.linear, Cx, Cy, Cz, this.step));
 		
 	}
 	
 	public void rotateY(double angle, double Cx, double Cy, double Cz){
-		for(Point c : this.points){
-			c.rotateY(angle, Cx, Cy, Cz);
-		}
-		this.center.rotateY(angle, Cx, Cy, Cz);
+		Matrix3.rotationYInto(angle, this.linear);
+		this.transform(Matrix4.aroundInto(this.linear, Cx, Cy, Cz, this.step));
 	}
 	
 	public void rotateZ(double angle, double Cx, double Cy, double Cz){
-		for(Point c : this.points){
-			c.rotateZ(angle, Cx, Cy, Cz);
-		}
-		this.center.rotateZ(angle, Cx, Cy, Cz);
+		Matrix3.rotationZInto(angle, this.linear);
+		this.transform(Matrix4.aroundInto(this.linear, Cx, Cy, Cz, this.step));
 	}
 	
 	public void rotateX(double angle, Point p){
-		for(Point c : this.points){
-			c.rotateX(angle, p);
-		}
-		this.center.rotateX(angle, p);
+		this.rotateX(angle, p.getX(), p.getY(), p.getZ());
 	}
 	
 	public void rotateY(double angle, Point p){
-		for(Point c : this.points){
-			c.rotateY(angle, p);
-		}
-		this.center.rotateY(angle, p);
+		this.rotateY(angle, p.getX(), p.getY(), p.getZ());
 	}
 	
 	public void rotateZ(double angle, Point p){
-		for(Point c : this.points){
-			c.rotateZ(angle, p);
-		}
-		this.center.rotateZ(angle, p);
+		this.rotateZ(angle, p.getX(), p.getY(), p.getZ());
 	}
 
 	/**
-	 * Returns a new Sphere.
+	 * Returns a new Sphere. Its points are the vertices of its triangles,
+	 * followed by its center, which is in no triangle.
 	 * 
 	 * @param Cx
 	 *            -The x-coordinate of the center of the sphere.
@@ -159,50 +356,38 @@ public class Shape {
 	 */
 	public static Shape newSphere(double Cx, double Cy, double Cz,
 			double radius, int detail) {
-		// Adds a sphere of points.
-		// A top and bottol half of points, add both then combine them.
-		ArrayList<Point> points = new ArrayList<Point>();
-		ArrayList<Point> bottomHalf = new ArrayList<Point>();
-		points.add(new Point(Cx, Cy + radius, Cz));
-		bottomHalf.add(new Point(Cx, Cy - radius, Cz));
-		// Adds the top half of the sphere.
-		// Loops through the number of rings minus one, each ring having 4*i
-		// points.
-		for (int i = 1; i < detail; i++) {
+		// Adds a sphere of points, as x, y, z triples. The top half is
+		// followed by the bottom half, each starting at its pole, then going
+		// one ring at a time with 4*i points in ring i.
+		int firstBottomIndex = 2 * detail * detail + 2 * detail + 1;
+		int pointCount = 2 * firstBottomIndex;
+		double[] coords = new double[3 * pointCount];
+		int top = 0;
+		int bottom = 3 * firstBottomIndex;
+		coords[top++] = Cx;
+		coords[top++] = Cy + radius;
+		coords[top++] = Cz;
+		coords[bottom++] = Cx;
+		coords[bottom++] = Cy - radius;
+		coords[bottom++] = Cz;
+		for (int i = 1; i <= detail; i++) {
 			double riseAngle = ((double) i / (double) detail) * (Math.PI / 2.0);
 			int ringSize = 4 * i;
 			for (int j = 0; j < ringSize; j++) {
 				double angle = ((double) j / (double) ringSize) * Math.PI * 2.0;
-				points.add(new Point(radius * Math.cos(angle)
-						* Math.sin(riseAngle) + Cx, Cy + radius
-						* Math.cos(riseAngle), radius * Math.sin(angle)
-						* Math.sin(riseAngle) + Cz));
-				bottomHalf.add(new Point(radius * Math.cos(angle)
-						* Math.sin(riseAngle) + Cx, Cy - radius
-						* Math.cos(riseAngle), radius * Math.sin(angle)
-						* Math.sin(riseAngle) + Cz));
+				double x = radius * Math.cos(angle) * Math.sin(riseAngle) + Cx;
+				double rise = radius * Math.cos(riseAngle);
+				double z = radius * Math.sin(angle) * Math.sin(riseAngle) + Cz;
+				coords[top++] = x;
+				coords[top++] = Cy + rise;
+				coords[top++] = z;
+				coords[bottom++] = x;
+				// The center ring is in both halves. It must have the same
+				// coordinates in each, so the welder merges them.
+				coords[bottom++] = i == detail ? Cy + rise : Cy - rise;
+				coords[bottom++] = z;
 			}
 		}
-		// Adds the center ring.
-		double riseAngle = Math.PI / 2.0;
-		int ringSize = 4 * detail;
-		for (int j = 0; j < ringSize; j++) {
-			double angle = ((double) j / (double) ringSize) * Math.PI * 2.0;
-			// Note that the same point is being added to both lists.
-			// The duplicates are removed later; this is important though.
-			Point c = new Point(radius * Math.cos(angle) * Math.sin(riseAngle)
-					+ Cx, Cy + radius * Math.cos(riseAngle), radius
-					* Math.sin(angle) * Math.sin(riseAngle) + Cz);
-			points.add(c);
-			bottomHalf.add(c);
-
-		}
-		// This is to know where the bottom half starts.
-		int firstBottomIndex = points.size();
-		// Adds the bottom of the sphere.
-		for (Point c : bottomHalf) {
-			points.add(c);
-		}
 
 		// A map that says what 2 points a point connects to to make a triangle.
 		HashMap<Integer, Integer[][]> trianglesDef = new HashMap<Integer, Integer[][]>();
@@ -244,7 +429,7 @@ public class Shape {
 		 * 
 		 * Top and bottom are done at once for convenience.
 		 */
-		for (int i = 1; i < points.size(); i++) {
+		for (int i = 1; i < pointCount; i++) {
 			if (i == startOfNextRing) {
 				ringNumber++;
 				sizeOfRing += 4;
@@ -328,36 +513,166 @@ public class Shape {
 			}
 		}
 
+		// Merge the two copies of the center ring, and copy the points into
+		// the mesh.
+		VertexWelder welder = new VertexWelder(0);
+		int[] vertexOf = welder.addAll(coords, pointCount);
+		Shape out = new Shape();
+		out.mesh = new Mesh(welder.getVertexCount() + 1, 8 * detail * detail);
+		for (int v = 0; v < welder.getVertexCount(); v++) {
+			out.mesh.addVertex(welder.getX(v), welder.getY(v), welder.getZ(v));
+		}
+		// The center of the shape is kept as the last point, in no triangle,
+		// as it always has been, so getPoints() returns it too.
+		out.mesh.addVertex(Cx, Cy, Cz);
+
 		// Define the actual triangles. This is what the shape will keep.
-		ArrayList<Triangle> triangles = new ArrayList<Triangle>();
 		for (Integer e : trianglesDef.keySet()) {
-			Point a = points.get(e);
 			Integer[][] tris = trianglesDef.get(e);
 			for (Integer[] d : tris) {
-				Point b = points.get(d[0]);
-				Point c = points.get(d[1]);
-				triangles.add(new Triangle(a, b, c));
+				out.mesh.addTriangle(vertexOf[e], vertexOf[d[0]],
+						vertexOf[d[1]], Color.WHITE);
 			}
 		}
+		out.center = new Point(Cx, Cy, Cz);
 
-		// Add the center of the shape to the end of the point array.
-		Point shapeCenter = new Point(Cx, Cy, Cz);
-		points.add(shapeCenter);
-
-		// Removes duplicate points from the ArrayList so transformations don't
-		// affect them multiple times.
-		for (int i = 0; i < points.size(); i++) {
-			for (int j = 0; j < points.size(); j++) {
-				if (i != j && points.get(i) == points.get(j)) {
-					points.remove(j--);
-				}
+		return out;
+	}
+	
+	/**
+	 * Returns a new sphere that shares its {@link Mesh} with every other
+	 * sphere made this way with the same detail. The mesh is a unit sphere at
+	 * (0, 0, 0), and the shape is in world matrix mode, with its position and
+	 * radius in the world matrix. Each instance then only costs a few small
+	 * objects, and moving it only changes the matrix.
+	 * 
+	 * The shape gets its own copy of the mesh if it is ever changed, such as
+	 * by {@link #getPoints()} or by turning off world matrix mode.
+	 * 
+	 * @param Cx
+	 *            -The x-coordinate of the center of the sphere.
+	 * @param Cy
+	 *            -The y-coordinate of the center of the sphere.
+	 * @param Cz
+	 *            -The z-coordinate of the center of the sphere.
+	 * @param radius
+	 *            -The radius of the sphere.
+	 * @param detail
+	 *            -The number of 'rings' that the sphere uses to generate. See
+	 *            {@link #newSphere(double, double, double, double, int)}.
+	 * @return Shape
+	 */
+	public static Shape newSphereInstance(double Cx, double Cy, double Cz,
+			double radius, int detail) {
+		Shape out = new Shape();
+		out.mesh = sphereTemplate(detail);
+		out.sharedMesh = true;
+		out.world = new Matrix4().set(Matrix3.scale(radius, radius, radius),
+				Cx, Cy, Cz);
+		out.center = new Point(Cx, Cy, Cz);
+		return out;
+	}
+	
+	/**
+	 * Returns a new sphere that switches between the meshes of the given
+	 * {@link LevelOfDetail}, which should be unit spheres such as those from
+	 * {@link LevelOfDetail#sphere(int[], double[], double)}. It starts at the
+	 * most detailed level. Drawing it with a {@link Camera} picks the level
+	 * from the camera's eye and focal length, or call
+	 * {@link #updateLevelOfDetail(Point, double)} to pick it by hand.
+	 * Otherwise it is the same as
+	 * {@link #newSphereInstance(double, double, double, double, int)}.
+	 * 
+	 * @param Cx
+	 *            -The x-coordinate of the center of the sphere.
+	 * @param Cy
+	 *            -The y-coordinate of the center of the sphere.
+	 * @param Cz
+	 *            -The z-coordinate of the center of the sphere.
+	 * @param radius
+	 *            -The radius of the sphere.
+	 * @param lod
+	 *            -meshes to switch between
+	 * @return Shape
+	 */
+	public static Shape newSphereInstance(double Cx, double Cy, double Cz,
+			double radius, LevelOfDetail lod) {
+		Shape out = new Shape();
+		out.mesh = lod.getMesh(0);
+		out.sharedMesh = true;
+		out.lod = lod;
+		out.lodRadius = radius;
+		out.world = new Matrix4().set(Matrix3.scale(radius, radius, radius),
+				Cx, Cy, Cz);
+		out.center = new Point(Cx, Cy, Cz);
+		return out;
+	}
+	
+	/**
+	 * Switches to the level of detail for the shape's size on the screen, as
+	 * seen from the given eye. Does nothing for shapes without a
+	 * {@link LevelOfDetail}, or that have their own copy of the mesh.
+	 * 
+	 * @param eye
+	 *            -position of the camera
+	 * @param focalLength
+	 *            -see {@link LevelOfDetail#projectedSize(double, double,
+	 *            double)}
+	 * @return level now in use
+	 */
+	public int updateLevelOfDetail(Point eye, double focalLength){
+		return this.updateLevelOfDetail(eye.getX(), eye.getY(), eye.getZ(),
+				focalLength);
+	}
+	
+	private int updateLevelOfDetail(double ex, double ey, double ez,
+			double focalLength){
+		if (this.lod == null) {
+			return 0;
+		}
+		double distance = Vector.magnitude(this.center.getX() - ex,
+				this.center.getY() - ey, this.center.getZ() - ez);
+		double size = LevelOfDetail.projectedSize(this.lodRadius, distance,
+				focalLength);
+		int level = this.lod.select(this.lodLevel, size);
+		if (level != this.lodLevel) {
+			this.lodLevel = level;
+			this.mesh = this.lod.getMesh(level);
+		}
+		return level;
+	}
+	
+	/**
+	 * Returns the level of detail in use, which is 0 for shapes without a
+	 * {@link LevelOfDetail}.
+	 */
+	public int getLevelOfDetail(){
+		return this.lod == null ? 0 : this.lodLevel;
+	}
+	
+	/**
+	 * Returns the shared unit sphere with the given detail, making it the
+	 * first time it is asked for.
+	 */
+	static Mesh sphereTemplate(int detail) {
+		synchronized (sphereTemplates) {
+			Mesh template = sphereTemplates.get(detail);
+			if (template == null) {
+				template = newSphere(0, 0, 0, 1, detail).mesh;
+				sphereTemplates.put(detail, template);
 			}
+			return template;
 		}
+	}
+	
+	/**
+	 * Returns a new shape that uses the given mesh, which should not be used
+	 * by anything else.
+	 */
+	static Shape fromMesh(Mesh mesh, Point center){
 		Shape out = new Shape();
-		out.points = points;
-		out.triangles = triangles;
-		out.center = new Point(Cx, Cy, Cz);
-
+		out.mesh = mesh;
+		out.center = new Point(center);
 		return out;
 	}
 	
@@ -371,58 +686,531 @@ public class Shape {
 	}
 	
 	public void fillShape(Color color, Point light, int mode){
-		GL11.glBegin(GL11.GL_TRIANGLES);
-		for (Triangle c : this.triangles) {
-			//Shader
-			double lighting = (Vector.getAngle(c.getNormal(),
-					new Vector(c.getCenter(), light)))
-					/ (Math.PI);
-			Color holder = ColorUtil.clone(c.getColor());
-			c.setColor(ColorUtil.clone(color));
-			c.shade(lighting, mode);
-			c.draw(Triangle.FILL_MODE);
-			c.setColor(holder);
+		this.fillShape(color, light, mode, null);
+	}
+	
+	/**
+	 * Same as {@link #fillShape(Color, Point, int)}, but draws nothing if the
+	 * shape is outside the view of the given {@link Camera}. For large
+	 * shapes, batches of triangles outside the view are skipped as well.
+	 * Either way, the skipped triangles are not lit. A shape with a
+	 * {@link LevelOfDetail} first switches to the level for its size as seen
+	 * by the camera.
+	 * 
+	 * @param camera
+	 *            -camera to cull against, or null to draw everything
+	 * @return whether anything was drawn
+	 */
+	public boolean fillShape(Color color, Point light, int mode, Camera camera){
+		if (!this.prepare(camera)) {
+			this.drawnCount = 0;
+			this.backFaceCount = 0;
+			this.frustumCount = this.mesh.getTriangleCount();
+			return false;
 		}
-		GL11.glEnd();
+		this.shadeTriangles(color, light, mode, camera);
+		return true;
 	}
 	
 	public void drawShape(Point light, int mode){
-		for (Triangle c : this.triangles) {
-			//Shader
-			double lighting = (Vector.getAngle(c.getNormal(),
-					new Vector(c.getCenter(), light)))
-					/ (Math.PI);
-			Color holder = ColorUtil.clone(c.getColor());
-			c.shade(lighting, mode);
-			c.draw(Triangle.FILL_MODE);
-			c.setColor(holder);
-		}
-	}
-	
-//	public void drawShape(Point[] lights, int mode){
-//		GL11.glBegin(GL11.GL_TRIANGLES);
-//		for (Triangle c : this.triangles) {
-//			//Shader
-//			double darkness = 1;
-//			double lighting = 0;
-//			for(int i = 0; i<lights.length; i++){
-//				double check = (Vector.getAngle(c.getNormal(),
-//				new Vector(c.getCenter(), lights[i]))) / (Math.PI);
-//				darkness = 1-lighting;
-//				lighting += check*darkness;
-//			}
-//			Color holder = c.getColor().clone();
-//			c.shade(lighting, mode);
-//			c.draw(Triangle.FILL_MODE);
-//			c.setColor(holder);
-//		}
-//		GL11.glEnd();
-//	}
+		this.drawShape(light, mode, null);
+	}
 	
-	public void rotateAroundVector(double angle, Point p, Vector v){
-		for(Point c : this.points){
-			c.rotateAroundVector(angle, p, v);
+	/**
+	 * Same as {@link #drawShape(Point, int)}, but draws nothing if the shape
+	 * is outside the view of the given {@link Camera}. For large shapes,
+	 * batches of triangles outside the view are skipped as well. A shape with
+	 * a {@link LevelOfDetail} first switches to the level for its size as
+	 * seen by the camera.
+	 * 
+	 * @param camera
+	 *            -camera to cull against, or null to draw everything
+	 * @return whether anything was drawn
+	 */
+	public boolean drawShape(Point light, int mode, Camera camera){
+		if (!this.prepare(camera)) {
+			this.drawnCount = 0;
+			this.backFaceCount = 0;
+			this.frustumCount = this.mesh.getTriangleCount();
+			return false;
 		}
-		this.center.rotateAroundVector(angle, p, v);
+		this.shadeTriangles(null, light, mode, camera);
+		return true;
+	}
+	
+	/**
+	 * Gets ready to draw with the given camera: picks the level of detail, if
+	 * the shape has a {@link LevelOfDetail}, and checks that the shape might
+	 * be seen.
+	 * 
+	 * @param camera
+	 *            -camera to draw with, or null
+	 * @return false if the shape is outside the view
+	 */
+	private boolean prepare(Camera camera){
+		if (camera == null) {
+			return true;
+		}
+		if (this.lod != null) {
+			this.updateLevelOfDetail(camera.getEyeX(), camera.getEyeY(),
+					camera.getEyeZ(), camera.getFocalLength());
+		}
+		return camera.isVisible(this.getBounds());
+	}
+	
+	/**
+	 * Turns back-face culling on or off. When it is on, drawing with a
+	 * {@link Camera} skips triangles that face away from it: those that go
+	 * clockwise as seen from the camera. Shapes that can be seen from inside
+	 * should leave it off.
+	 * 
+	 * @param enabled
+	 *            -true to skip back faces
+	 */
+	public void setBackFaceCulling(boolean enabled){
+		this.backFaceCulling = enabled;
+	}
+	
+	public boolean isBackFaceCulling(){
+		return this.backFaceCulling;
+	}
+	
+	/**
+	 * Returns the number of triangles lit and drawn the last time the shape
+	 * was drawn.
+	 */
+	public int getDrawnCount(){
+		return this.drawnCount;
+	}
+	
+	/**
+	 * Returns the number of triangles skipped as back faces the last time the
+	 * shape was drawn.
+	 */
+	public int getBackFaceCulledCount(){
+		return this.backFaceCount;
+	}
+	
+	/**
+	 * Returns the number of triangles skipped as outside the view of the
+	 * camera the last time the shape was drawn, including all of them if the
+	 * whole shape was.
+	 */
+	public int getFrustumCulledCount(){
+		return this.frustumCount;
+	}
+	
+	/**
+	 * Sets the {@link RenderBackend} this shape draws through.
+	 * 
+	 * @param backend
+	 *            -backend to use, or null for the default
+	 */
+	public void setRenderBackend(RenderBackend backend){
+		this.backend = backend;
+	}
+	
+	/**
+	 * Returns the {@link RenderBackend} this shape draws through.
+	 */
+	public RenderBackend getRenderBackend(){
+		return this.backend != null ? this.backend : getDefaultRenderBackend();
+	}
+	
+	/**
+	 * Sets the {@link RenderBackend} for shapes that have not been given
+	 * their own.
+	 * 
+	 * @param backend
+	 *            -backend to use, or null for a {@link VertexBufferBackend}
+	 */
+	public static synchronized void setDefaultRenderBackend(
+			RenderBackend backend){
+		defaultBackend = backend;
+	}
+	
+	/**
+	 * Returns the {@link RenderBackend} for shapes that have not been given
+	 * their own, which is a {@link VertexBufferBackend} unless another has
+	 * been set.
+	 */
+	public static synchronized RenderBackend getDefaultRenderBackend(){
+		if (defaultBackend == null) {
+			defaultBackend = new VertexBufferBackend();
+		}
+		return defaultBackend;
+	}
+	
+	/**
+	 * Lights every triangle, or with a camera, every triangle that might be
+	 * seen, all at once with {@link Lighting}, and draws them as one batch.
+	 * Nothing is allocated unless the mesh has grown.
+	 * 
+	 * @param color
+	 *            -colour for every triangle, or null for their own colours
+	 */
+	private void shadeTriangles(Color color, Point light, int mode,
+			Camera camera){
+		// Also leaves the inverse world matrix in this.inverse.
+		light = this.toLocal(light);
+		this.listTriangles(color, camera);
+		Lighting.shade(this.mesh.getNormals(), this.mesh.getCentroids(),
+				this.visible, this.shaded, this.drawnCount, light.getX(),
+				light.getY(), light.getZ(), mode);
+		this.submitTriangles();
+	}
+	
+	/**
+	 * Same as {@link #shadeTriangles(Color, Point, int, Camera)}, but for the
+	 * first lightCount lights in {@link #lightData}, as left there by
+	 * {@link #startLights(int)} and {@link #addLight(double, double, double,
+	 * double)}.
+	 */
+	private void shadeTriangles(Color color, int lightCount, int mode,
+			Camera camera){
+		this.listTriangles(color, camera);
+		Lighting.shade(this.mesh.getNormals(), this.mesh.getCentroids(),
+				this.visible, this.shaded, this.drawnCount, this.lightData,
+				lightCount, mode);
+		this.submitTriangles();
+	}
+	
+	/**
+	 * Lists every triangle, or with a camera, every triangle that might be
+	 * seen, in {@link #visible}, with its colour before lighting in
+	 * {@link #shaded}. In world matrix mode, back-face culling needs the
+	 * inverse world matrix in {@link #inverse}.
+	 * 
+	 * @param color
+	 *            -colour for every triangle, or null for their own colours
+	 */
+	private void listTriangles(Color color, Camera camera){
+		Mesh mesh = this.mesh;
+		int count = mesh.getTriangleCount();
+		int batches = camera == null ? 1 : mesh.getBatchCount();
+		int step = batches == 1 ? count : Mesh.BATCH_SIZE;
+		boolean cull = camera != null && this.backFaceCulling;
+		double[] normal = mesh.getNormals();
+		double[] centroid = mesh.getCentroids();
+		double ex = 0, ey = 0, ez = 0;
+		if (cull) {
+			Point eye = this.localEye;
+			eye.setX(camera.getEyeX());
+			eye.setY(camera.getEyeY());
+			eye.setZ(camera.getEyeZ());
+			if (this.world != null) {
+				this.inverse.transformPointInto(eye, eye);
+			}
+			ex = eye.getX();
+			ey = eye.getY();
+			ez = eye.getZ();
+		}
+		this.drawnCount = 0;
+		this.backFaceCount = 0;
+		this.frustumCount = 0;
+		if (this.visible.length < count) {
+			this.visible = new int[count];
+			this.shaded = new int[count];
+		}
+		Color base = color;
+		if (base == null && this.sharedMesh) {
+			base = this.color;
+		}
+		int baseRGB = base == null ? 0 : base.getRGB();
+		for (int b = 0; b < batches; b++) {
+			int end = Math.min(count, (b + 1) * step);
+			if (batches > 1) {
+				Bounds bounds = mesh.getBatchBounds(b);
+				if (this.world != null) {
+					bounds = bounds.transformInto(this.world, this.batchBounds);
+				}
+				if (!camera.isVisible(bounds)) {
+					this.frustumCount += end - b * step;
+					continue;
+				}
+			}
+			for (int t = b * step; t < end; t++) {
+				// The cached normal points out of the back of the face, so
+				// the eye is behind it if it is on the normal's side.
+				int i = 3 * t;
+				if (cull
+						&& normal[i] * (ex - centroid[i]) + normal[i + 1]
+								* (ey - centroid[i + 1]) + normal[i + 2]
+								* (ez - centroid[i + 2]) >= 0) {
+					this.backFaceCount++;
+					continue;
+				}
+				int n = this.drawnCount++;
+				this.visible[n] = t;
+				if (base != null) {
+					this.shaded[n] = baseRGB;
+				} else {
+					Color own = mesh.getColor(t);
+					this.shaded[n] = own == null ? 0xFFFFFFFF : own.getRGB();
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Draws the listed triangles in their shaded colours from
+	 * {@link #vertexData}, as one batch.
+	 */
+	private void submitTriangles(){
+		int floats = 3 * RenderBackend.FLOATS_PER_VERTEX * this.drawnCount;
+		if (this.vertexData == null || this.vertexData.capacity() < floats) {
+			this.vertexData = BufferUtils.createFloatBuffer(floats);
+		}
+		this.vertexData.clear();
+		for (int n = 0; n < this.drawnCount; n++) {
+			this.drawTriangle(this.visible[n], this.shaded[n]);
+		}
+		this.getRenderBackend().drawTriangles(this.vertexData,
+				3 * this.drawnCount);
+	}
+	
+	/**
+	 * Gets ready to gather up to the given number of lights into
+	 * {@link #lightData}, and leaves the inverse world matrix in
+	 * {@link #inverse}.
+	 */
+	private void startLights(int max){
+		if (this.lightData.length < Lighting.LIGHT_STRIDE * max) {
+			this.lightData = new double[Lighting.LIGHT_STRIDE * max];
+		}
+		this.lightCount = 0;
+		this.lightBounds = this.getBounds();
+		this.lightScale = 1;
+		if (this.world != null) {
+			this.world.invertAffineInto(this.inverse);
+			// Distances in the mesh are scaled by the inverse world matrix;
+			// its longest column is exact for uniform scaling.
+			double scale = 0;
+			for (int j = 0; j < 3; j++) {
+				double x = this.inverse.getEntry(0, j);
+				double y = this.inverse.getEntry(1, j);
+				double z = this.inverse.getEntry(2, j);
+				scale = Math.max(scale, Vector.magnitudeSquared(x, y, z));
+			}
+			this.lightScale = Math.sqrt(scale);
+		}
+	}
+	
+	/**
+	 * Adds a light, given in world space, to {@link #lightData} in the space
+	 * of the mesh, unless it cannot reach the bounds of the shape.
+	 */
+	private void addLight(double x, double y, double z, double radius){
+		if (!this.lightBounds.intersectsSphere(x, y, z, radius)) {
+			return;
+		}
+		double[] data = this.lightData;
+		int l = Lighting.LIGHT_STRIDE * this.lightCount++;
+		data[l] = x;
+		data[l + 1] = y;
+		data[l + 2] = z;
+		data[l + 3] = radius * this.lightScale;
+		if (this.world != null) {
+			this.inverse.transformPointInto(data, l, data, l);
+		}
+	}
+	
+	/**
+	 * Draws the shape lit by all of the given lights, none of which fade
+	 * with distance. See {@link #drawShape(Light[], int, Camera)}.
+	 */
+	public void drawShape(Point[] lights, int mode){
+		this.startLights(lights.length);
+		for (Point p : lights) {
+			this.addLight(p.getX(), p.getY(), p.getZ(),
+					Double.POSITIVE_INFINITY);
+		}
+		this.shadeTriangles(null, this.lightCount, mode, null);
+	}
+	
+	public void drawShape(Light[] lights, int mode){
+		this.drawShape(lights, mode, null);
+	}
+	
+	/**
+	 * Draws the shape lit by the given lights, as
+	 * {@link Lighting#shade(double[], double[], int[], int[], int, double[], int, int)}
+	 * describes. Lights whose radius does not reach the bounds of the shape
+	 * are left out before any triangle is lit, so they cost next to nothing.
+	 * A triangle no light reaches is drawn as dark as the mode makes it.
+	 * 
+	 * @param lights
+	 *            -lights, in world space
+	 * @param camera
+	 *            -camera to cull against, or null to draw everything
+	 * @return whether anything was drawn
+	 */
+	public boolean drawShape(Light[] lights, int mode, Camera camera){
+		return this.fillShape(null, lights, mode, camera);
+	}
+	
+	/**
+	 * Same as {@link #drawShape(Light[], int, Camera)}, but in the given
+	 * colour.
+	 * 
+	 * @param color
+	 *            -colour for every triangle, or null for their own colours
+	 * @return whether anything was drawn
+	 */
+	public boolean fillShape(Color color, Light[] lights, int mode,
+			Camera camera){
+		if (!this.prepare(camera)) {
+			this.drawnCount = 0;
+			this.backFaceCount = 0;
+			this.frustumCount = this.mesh.getTriangleCount();
+			this.lightCount = 0;
+			return false;
+		}
+		this.startLights(lights.length);
+		for (Light l : lights) {
+			this.addLight(l.getX(), l.getY(), l.getZ(), l.getRadius());
+		}
+		this.shadeTriangles(color, this.lightCount, mode, camera);
+		return true;
+	}
+	
+	/**
+	 * Returns the number of lights that reached the shape the last time it
+	 * was drawn with more than one.
+	 */
+	public int getLightCount(){
+		return this.lightCount;
+	}
+	
+	/**
+	 * Switches the mesh between storing vertices as doubles and as floats.
+	 * See {@link Mesh#setSinglePrecision(boolean)}.
+	 * 
+	 * @param single
+	 *            -true to store vertices as floats
+	 */
+	public void setSinglePrecision(boolean single){
+		if (single != this.mesh.isSinglePrecision()) {
+			this.ownMesh().setSinglePrecision(single);
+		}
+	}
+	
+	public boolean isSinglePrecision(){
+		return this.mesh.isSinglePrecision();
+	}
+
+	/**
+	 * Replaces the mesh with a simplified copy, with no more than the given
+	 * number of triangles. See
+	 * {@link MeshSimplifier#simplify(Mesh, int, double)}. Points and
+	 * triangles from before should not be used afterwards.
+	 *
+	 * @param targetTriangles
+	 *            -number of triangles to stop at
+	 * @param maxError
+	 *            -largest error to allow, as a squared distance
+	 * @return number of triangles left
+	 */
+	public int simplify(int targetTriangles, double maxError){
+		Mesh simplified = MeshSimplifier.simplify(this.mesh, targetTriangles,
+				maxError);
+		if (this.sharedMesh && this.color != null) {
+			simplified.setColor(this.color);
+		}
+		this.mesh = simplified;
+		this.sharedMesh = false;
+		this.lod = null;
+		this.vertexLookup = null;
+		this.fitVersion = -1;
+		return simplified.getTriangleCount();
+	}
+
+	/**
+	 * Returns the given point in the space of the mesh. Outside of world
+	 * matrix mode, this is the point itself.
+	 */
+	private Point toLocal(Point p) {
+		if (this.world == null) {
+			return p;
+		}
+		return this.world.invertAffineInto(this.inverse).transformPointInto(p,
+				this.localLight);
+	}
+	
+	/**
+	 * Copies the corners of the given triangle into {@link #corners}, as they
+	 * are stored in the mesh: relative to the mesh origin in single-precision
+	 * mode, and before the world matrix in world matrix mode.
+	 */
+	private double[] loadCorners(int t) {
+		double[] out = this.corners;
+		int[] index = this.mesh.getIndices();
+		if (this.mesh.isSinglePrecision()) {
+			float[] v = this.mesh.getFloatVertices();
+			for (int i = 0; i < 3; i++) {
+				int p = 3 * index[3 * t + i];
+				out[3 * i] = v[p];
+				out[3 * i + 1] = v[p + 1];
+				out[3 * i + 2] = v[p + 2];
+			}
+		} else {
+			double[] v = this.mesh.getVertices();
+			for (int i = 0; i < 3; i++) {
+				System.arraycopy(v, 3 * index[3 * t + i], out, 3 * i, 3);
+			}
+		}
+		return out;
+	}
+	
+	/**
+	 * Adds the given triangle to {@link #vertexData}, in world space, with
+	 * the given colour, packed as RGB.
+	 */
+	private void drawTriangle(int t, int rgb) {
+		double[] v = this.loadCorners(t);
+		Mesh mesh = this.mesh;
+		if (mesh.isSinglePrecision()) {
+			for (int p = 0; p < 9; p += 3) {
+				v[p] += mesh.getOriginX();
+				v[p + 1] += mesh.getOriginY();
+				v[p + 2] += mesh.getOriginZ();
+			}
+		}
+		float red = (rgb >> 16 & 0xFF) / 255f;
+		float green = (rgb >> 8 & 0xFF) / 255f;
+		float blue = (rgb & 0xFF) / 255f;
+		FloatBuffer out = this.vertexData;
+		for (int p = 0; p < 9; p += 3) {
+			if (this.world == null) {
+				out.put((float) v[p]).put((float) v[p + 1])
+						.put((float) v[p + 2]);
+			} else {
+				double[] w = this.worldVertex;
+				this.world.transformPointInto(v, p, w, 0);
+				out.put((float) w[0]).put((float) w[1]).put((float) w[2]);
+			}
+			out.put(red).put(green).put(blue);
+		}
+	}
+	
+	/**
+	 * Rotates the shape by the given {@link Quaternion} around the given
+	 * center.
+	 * 
+	 * @param q
+	 *            -rotation, with a magnitude of one
+	 * @param p
+	 *            -center about which to rotate
+	 */
+	public void rotate(Quaternion q, Point p){
+		q.toMatrix3Into(this.linear);
+		this.transform(Matrix4.aroundInto(this.linear, p.getX(), p.getY(),
+				p.getZ(), this.step));
+	}
+	
+	public void rotateAroundVector(double angle, Point p, Vector v){
+		Matrix3.rotationInto(angle, v, this.linear);
+		this.transform(Matrix4.aroundInto(this.linear, p.getX(), p.getY(),
+				p.getZ(), this.step));
 	}
 }
@@ -0,0 +1,452 @@
+package graphicsLibrary;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link RenderBackend} that draws on the CPU into an {@code int[]} of ARGB
+ * pixels, for machines with no OpenGL.
+ *
+ * Triangles drawn between {@link #clear(int)} and {@link #finish()} are
+ * projected by a {@link Camera} and clipped against its near plane as they
+ * arrive, then queued. {@link #finish()} sorts the queue into square tiles
+ * of the screen, and the tiles are filled in parallel, each by one thread,
+ * with a depth buffer. Each tile draws its triangles in the order they came,
+ * so the picture is the same for any number of threads.
+ *
+ * Row 0 of the framebuffer is the top of the screen. Each triangle has the
+ * colour of its first vertex, as {@link Shape} gives every vertex of a
+ * triangle the same colour.
+ *
+ * @author caudeljn
+ *
+ */
+public class SoftwareRasterizer implements RenderBackend {
+	/**
+	 * The width and height of a tile, in pixels.
+	 */
+	public static final int TILE_SIZE = 64;
+
+	private final int width, height;
+	private final int tilesX, tilesY;
+	private final int[] pixels;
+	private final float[] depth;
+	private final int threads;
+	private final ExecutorService pool;
+	private Camera camera;
+
+	// Queued triangles: screen x, y and depth of each corner, and a colour.
+	private float[] queued = new float[9 * 1024];
+	private int[] colors = new int[1024];
+	private int queuedCount;
+	// Triangles touching each tile, in order.
+	private final int[][] bins;
+	private final int[] binCounts;
+
+	// Clip-space corners of the triangle being clipped, and of the polygon
+	// left after clipping.
+	private final double[] clip = new double[12];
+	private final double[] polygon = new double[16];
+
+	/**
+	 * Constructs a new {@code SoftwareRasterizer}.
+	 *
+	 * @param width
+	 *            -width of the framebuffer, in pixels
+	 * @param height
+	 *            -height of the framebuffer, in pixels
+	 * @param threads
+	 *            -number of threads to fill tiles with
+	 * @throws IllegalArgumentException
+	 *             if a size or the number of threads is less than one
+	 */
+	public SoftwareRasterizer(int width, int height, int threads)
+			throws IllegalArgumentException {
+		if (width < 1 || height < 1 || threads < 1) {
+			throw new IllegalArgumentException("Bad size or thread count");
+		}
+		this.width = width;
+		this.height = height;
+		this.tilesX = (width + TILE_SIZE - 1) / TILE_SIZE;
+		this.tilesY = (height + TILE_SIZE - 1) / TILE_SIZE;
+		this.pixels = new int[width * height];
+		this.depth = new float[width * height];
+		this.bins = new int[this.tilesX * this.tilesY][16];
+		this.binCounts = new int[this.tilesX * this.tilesY];
+		this.threads = threads;
+		if (threads > 1) {
+			this.pool = Executors.newFixedThreadPool(threads,
+					new ThreadFactory() {
+						@Override
+						public Thread newThread(Runnable r) {
+							Thread t = new Thread(r, "SoftwareRasterizer");
+							t.setDaemon(true);
+							return t;
+						}
+					});
+		} else {
+			this.pool = null;
+		}
+		this.clear(0xFF000000);
+	}
+
+	public int getWidth() {
+		return this.width;
+	}
+
+	public int getHeight() {
+		return this.height;
+	}
+
+	public int getThreadCount() {
+		return this.threads;
+	}
+
+	/**
+	 * Sets the camera that triangles are projected by. It is read as each
+	 * batch is drawn.
+	 */
+	public void setCamera(Camera camera) {
+		this.camera = camera;
+	}
+
+	public Camera getCamera() {
+		return this.camera;
+	}
+
+	/**
+	 * Returns the pixels, as ARGB ints, row by row from the top.
+	 *
+	 * @return framebuffer, not a copy
+	 */
+	public int[] getFramebuffer() {
+		return this.pixels;
+	}
+
+	public int getPixel(int x, int y) {
+		return this.pixels[y * this.width + x];
+	}
+
+	/**
+	 * Returns the number of triangles queued since the last clear, after
+	 * clipping.
+	 */
+	public int getQueuedCount() {
+		return this.queuedCount;
+	}
+
+	/**
+	 * Fills the framebuffer with the given colour, empties the depth buffer,
+	 * and starts a new frame.
+	 *
+	 * @param argb
+	 *            -background colour
+	 */
+	public void clear(int argb) {
+		Arrays.fill(this.pixels, argb);
+		Arrays.fill(this.depth, Float.POSITIVE_INFINITY);
+		this.queuedCount = 0;
+	}
+
+	/**
+	 * Projects and clips the given triangles, and queues them to be drawn by
+	 * {@link #finish()}.
+	 *
+	 * @throws IllegalStateException
+	 *             if no camera has been set
+	 */
+	@Override
+	public void drawTriangles(FloatBuffer vertices, int vertexCount)
+			throws IllegalStateException {
+		if (this.camera == null) {
+			throw new IllegalStateException("No camera");
+		}
+		Matrix4 m = this.camera.getViewProjectionMatrix();
+		double m00 = m.getEntry(0, 0), m01 = m.getEntry(0, 1);
+		double m02 = m.getEntry(0, 2), m03 = m.getEntry(0, 3);
+		double m10 = m.getEntry(1, 0), m11 = m.getEntry(1, 1);
+		double m12 = m.getEntry(1, 2), m13 = m.getEntry(1, 3);
+		double m20 = m.getEntry(2, 0), m21 = m.getEntry(2, 1);
+		double m22 = m.getEntry(2, 2), m23 = m.getEntry(2, 3);
+		double m30 = m.getEntry(3, 0), m31 = m.getEntry(3, 1);
+		double m32 = m.getEntry(3, 2), m33 = m.getEntry(3, 3);
+		double[] c = this.clip;
+		for (int t = 0; t < vertexCount; t += 3) {
+			int base = FLOATS_PER_VERTEX * t;
+			// Corners leaving each plane, as bits, to throw away triangles
+			// wholly outside one.
+			int outsideAll = 0x3F;
+			int outsideNear = 0;
+			for (int k = 0; k < 3; k++) {
+				int f = base + FLOATS_PER_VERTEX * k;
+				double x = vertices.get(f);
+				double y = vertices.get(f + 1);
+				double z = vertices.get(f + 2);
+				double cx = m00 * x + m01 * y + m02 * z + m03;
+				double cy = m10 * x + m11 * y + m12 * z + m13;
+				double cz = m20 * x + m21 * y + m22 * z + m23;
+				double cw = m30 * x + m31 * y + m32 * z + m33;
+				c[4 * k] = cx;
+				c[4 * k + 1] = cy;
+				c[4 * k + 2] = cz;
+				c[4 * k + 3] = cw;
+				int outside = (cx < -cw ? 1 : 0) | (cx > cw ? 2 : 0)
+						| (cy < -cw ? 4 : 0) | (cy > cw ? 8 : 0)
+						| (cz < -cw ? 16 : 0) | (cz > cw ? 32 : 0);
+				outsideAll &= outside;
+				if ((outside & 16) != 0) {
+					outsideNear++;
+				}
+			}
+			if (outsideAll != 0) {
+				continue;
+			}
+			int color = 0xFF000000 | channel(vertices.get(base + 3)) << 16
+					| channel(vertices.get(base + 4)) << 8
+					| channel(vertices.get(base + 5));
+			if (outsideNear == 0) {
+				this.queue(c, 0, 4, 8, color);
+			} else {
+				this.clipNear(color);
+			}
+		}
+	}
+
+	private static int channel(float value) {
+		return Math.max(0, Math.min(255, Math.round(value * 255)));
+	}
+
+	/**
+	 * Clips the triangle in {@link #clip} against the near plane, where
+	 * z = -w, and queues what is left as a fan.
+	 */
+	private void clipNear(int color) {
+		double[] c = this.clip;
+		double[] out = this.polygon;
+		int n = 0;
+		for (int k = 0; k < 3; k++) {
+			int a = 4 * k;
+			int b = 4 * ((k + 1) % 3);
+			double da = c[a + 2] + c[a + 3];
+			double db = c[b + 2] + c[b + 3];
+			if (da >= 0) {
+				System.arraycopy(c, a, out, 4 * n++, 4);
+			}
+			if ((da >= 0) != (db >= 0)) {
+				double s = da / (da - db);
+				for (int i = 0; i < 4; i++) {
+					out[4 * n + i] = c[a + i] + s * (c[b + i] - c[a + i]);
+				}
+				n++;
+			}
+		}
+		for (int k = 2; k < n; k++) {
+			this.queue(out, 0, 4 * (k - 1), 4 * k, color);
+		}
+	}
+
+	/**
+	 * Projects the given clip-space corners to the screen and queues the
+	 * triangle.
+	 */
+	private void queue(double[] c, int a, int b, int d, int color) {
+		if (this.queuedCount == this.colors.length) {
+			this.colors = Arrays.copyOf(this.colors, 2 * this.queuedCount);
+			this.queued = Arrays.copyOf(this.queued, 18 * this.queuedCount);
+		}
+		int q = 9 * this.queuedCount;
+		this.project(c, a, q);
+		this.project(c, b, q + 3);
+		this.project(c, d, q + 6);
+		this.colors[this.queuedCount++] = color;
+	}
+
+	private void project(double[] c, int i, int q) {
+		double w = c[i + 3];
+		this.queued[q] = (float) ((c[i] / w + 1) / 2 * this.width);
+		this.queued[q + 1] = (float) ((1 - c[i + 1] / w) / 2 * this.height);
+		this.queued[q + 2] = (float) (c[i + 2] / w);
+	}
+
+	/**
+	 * Draws every queued triangle into the framebuffer, and empties the
+	 * queue.
+	 *
+	 * @throws IllegalStateException
+	 *             if a thread is interrupted or fails
+	 */
+	public void finish() throws IllegalStateException {
+		this.bin();
+		final AtomicInteger next = new AtomicInteger();
+		Runnable worker = new Runnable() {
+			@Override
+			public void run() {
+				int tile;
+				while ((tile = next.getAndIncrement()) < binCounts.length) {
+					rasterizeTile(tile);
+				}
+			}
+		};
+		if (this.pool == null) {
+			worker.run();
+		} else {
+			ArrayList<Future<?>> futures = new ArrayList<Future<?>>();
+			for (int i = 0; i < this.threads; i++) {
+				futures.add(this.pool.submit(worker));
+			}
+			try {
+				for (Future<?> f : futures) {
+					f.get();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while drawing", e);
+			} catch (ExecutionException e) {
+				throw new IllegalStateException("Drawing failed", e.getCause());
+			}
+		}
+		this.queuedCount = 0;
+	}
+
+	/**
+	 * Stops the threads. The rasterizer should not be used afterwards.
+	 */
+	public void dispose() {
+		if (this.pool != null) {
+			this.pool.shutdown();
+		}
+	}
+
+	/**
+	 * Sorts the queued triangles into the tiles their bounding boxes touch.
+	 */
+	private void bin() {
+		Arrays.fill(this.binCounts, 0);
+		float[] v = this.queued;
+		for (int t = 0; t < this.queuedCount; t++) {
+			int q = 9 * t;
+			float minX = Math.min(v[q], Math.min(v[q + 3], v[q + 6]));
+			float maxX = Math.max(v[q], Math.max(v[q + 3], v[q + 6]));
+			float minY = Math.min(v[q + 1], Math.min(v[q + 4], v[q + 7]));
+			float maxY = Math.max(v[q + 1], Math.max(v[q + 4], v[q + 7]));
+			int x0 = Math.max(0, (int) minX / TILE_SIZE);
+			int x1 = Math.min(this.tilesX - 1, (int) maxX / TILE_SIZE);
+			int y0 = Math.max(0, (int) minY / TILE_SIZE);
+			int y1 = Math.min(this.tilesY - 1, (int) maxY / TILE_SIZE);
+			for (int ty = y0; ty <= y1; ty++) {
+				for (int tx = x0; tx <= x1; tx++) {
+					int tile = ty * this.tilesX + tx;
+					int n = this.binCounts[tile];
+					if (n == this.bins[tile].length) {
+						this.bins[tile] = Arrays.copyOf(this.bins[tile], 2 * n);
+					}
+					this.bins[tile][n] = t;
+					this.binCounts[tile] = n + 1;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Fills the triangles of one tile, testing and writing depth. Pixels are
+	 * sampled at their centers, and pixels exactly on an edge belong only to
+	 * the triangle on its left or top side, so triangles that share an edge
+	 * never both draw a pixel.
+	 */
+	private void rasterizeTile(int tile) {
+		int left = (tile % this.tilesX) * TILE_SIZE;
+		int top = (tile / this.tilesX) * TILE_SIZE;
+		int right = Math.min(left + TILE_SIZE, this.width) - 1;
+		int bottom = Math.min(top + TILE_SIZE, this.height) - 1;
+		int[] bin = this.bins[tile];
+		float[] v = this.queued;
+		for (int i = 0; i < this.binCounts[tile]; i++) {
+			int t = bin[i];
+			int q = 9 * t;
+			float x0 = v[q], y0 = v[q + 1], z0 = v[q + 2];
+			float x1 = v[q + 3], y1 = v[q + 4], z1 = v[q + 5];
+			float x2 = v[q + 6], y2 = v[q + 7], z2 = v[q + 8];
+			float area = (x1 - x0) * (y2 - y0) - (y1 - y0) * (x2 - x0);
+			if (area == 0) {
+				continue;
+			}
+			if (area < 0) {
+				// Make the corners go the same way round for both windings.
+				float sx = x1, sy = y1, sz = z1;
+				x1 = x2;
+				y1 = y2;
+				z1 = z2;
+				x2 = sx;
+				y2 = sy;
+				z2 = sz;
+				area = -area;
+			}
+			int minX = Math.max(left,
+					(int) Math.floor(Math.min(x0, Math.min(x1, x2))));
+			int maxX = Math.min(right,
+					(int) Math.ceil(Math.max(x0, Math.max(x1, x2))));
+			int minY = Math.max(top,
+					(int) Math.floor(Math.min(y0, Math.min(y1, y2))));
+			int maxY = Math.min(bottom,
+					(int) Math.ceil(Math.max(y0, Math.max(y1, y2))));
+			if (minX > maxX || minY > maxY) {
+				continue;
+			}
+
+			// Edge functions, each positive inside, and how they change by
+			// one pixel across and down.
+			float a0 = y1 - y2, b0 = x2 - x1;
+			float a1 = y2 - y0, b1 = x0 - x2;
+			float a2 = y0 - y1, b2 = x1 - x0;
+			float px = minX + 0.5f, py = minY + 0.5f;
+			float row0 = a0 * (px - x1) + b0 * (py - y1);
+			float row1 = a1 * (px - x2) + b1 * (py - y2);
+			float row2 = a2 * (px - x0) + b2 * (py - y0);
+			// Pixels exactly on an edge that is not a top or left edge are
+			// left out.
+			float bias0 = isTopLeft(a0, b0) ? 0 : Float.MIN_VALUE;
+			float bias1 = isTopLeft(a1, b1) ? 0 : Float.MIN_VALUE;
+			float bias2 = isTopLeft(a2, b2) ? 0 : Float.MIN_VALUE;
+			float dzx = (a0 * z0 + a1 * z1 + a2 * z2) / area;
+			float dzy = (b0 * z0 + b1 * z1 + b2 * z2) / area;
+			float rowZ = (row0 * z0 + row1 * z1 + row2 * z2) / area;
+			int color = this.colors[t];
+
+			for (int y = minY; y <= maxY; y++) {
+				float w0 = row0, w1 = row1, w2 = row2, z = rowZ;
+				int p = y * this.width + minX;
+				for (int x = minX; x <= maxX; x++, p++) {
+					if (w0 >= bias0 && w1 >= bias1 && w2 >= bias2 && z <= 1
+							&& z < this.depth[p]) {
+						this.depth[p] = z;
+						this.pixels[p] = color;
+					}
+					w0 += a0;
+					w1 += a1;
+					w2 += a2;
+					z += dzx;
+				}
+				row0 += b0;
+				row1 += b1;
+				row2 += b2;
+				rowZ += dzy;
+			}
+		}
+	}
+
+	/**
+	 * Returns whether an edge whose function changes by the given amounts
+	 * across and down is a top or left edge: the inside is to its right, or
+	 * it is flat with the inside below.
+	 */
+	private static boolean isTopLeft(float a, float b) {
+		return a > 0 || (a == 0 && b > 0);
+	}
+}
@@ -0,0 +1,136 @@
+package graphicsLibrary;
+
+import static org.junit.Assert.*;
+
+import java.awt.Color;
+import java.util.Arrays;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+public class SoftwareRasterizerTest {
+	private static final int BLACK = 0xFF000000;
+	private static final int RED = 0xFFFF0000;
+	private static final int BLUE = 0xFF0000FF;
+
+	private static Camera camera(double z) {
+		Camera camera = new Camera(Math.PI / 2, 4 / 3.0, 1, 100);
+		camera.lookAt(new Point(0, 0, z), new Point(0, 0, z - 1), new Vector(0,
+				1, 0));
+		return camera;
+	}
+
+	private static Shape quad(double y, double z0, double z1) {
+		Mesh mesh = new Mesh();
+		mesh.addVertex(-50, y, z0);
+		mesh.addVertex(50, y, z0);
+		mesh.addVertex(50, y, z1);
+		mesh.addVertex(-50, y, z1);
+		mesh.addTriangle(0, 1, 2, Color.BLUE);
+		mesh.addTriangle(0, 2, 3, Color.BLUE);
+		return Shape.fromMesh(mesh, new Point(0, y, (z0 + z1) / 2));
+	}
+
+	@Test
+	public void testRasterize() {
+		int[] single = null;
+		for (int threads : new int[] { 1, 4 }) {
+			SoftwareRasterizer r = new SoftwareRasterizer(200, 150, threads);
+			r.setCamera(camera(10));
+			Shape front = Shape.newSphere(0, 0, 0, 2, 8);
+			Shape back = Shape.newSphere(0, 0, -5, 4, 8);
+			// Drawn back to front and front to back, the depth buffer
+			// decides.
+			for (Shape s : new Shape[] { front, back }) {
+				s.setRenderBackend(r);
+			}
+			front.fillShape(Color.RED, new Point(0, 0, 10), ColorUtil.FULL);
+			back.fillShape(Color.BLUE, new Point(0, 0, 10), ColorUtil.FULL);
+			r.finish();
+			assertEquals(RED, r.getPixel(100, 75));
+			assertEquals(BLUE, r.getPixel(100, 75 - 18));
+			assertEquals(BLACK, r.getPixel(0, 0));
+			if (single == null) {
+				single = r.getFramebuffer().clone();
+			} else {
+				assertTrue(Arrays.equals(single, r.getFramebuffer()));
+			}
+			r.dispose();
+		}
+	}
+
+	@Test
+	public void testNearClipping() {
+		SoftwareRasterizer r = new SoftwareRasterizer(160, 120, 2);
+		r.setCamera(camera(0));
+		// A floor running from behind the camera into the distance.
+		Shape floor = quad(-1, 20, -90);
+		floor.setRenderBackend(r);
+		floor.fillShape(null, new Point(0, 10, 0), ColorUtil.FULL);
+		assertTrue(r.getQueuedCount() > 2);
+		r.finish();
+		for (int x = 0; x < 160; x++) {
+			assertEquals(BLUE, r.getPixel(x, 119));
+			assertEquals(BLACK, r.getPixel(x, 0));
+		}
+
+		// A wall filling the view leaves no gaps along its diagonal.
+		r.clear(BLACK);
+		Shape wall = quad(0, -50, 50);
+		wall.rotateX(Math.PI / 2, 0, 0, 0);
+		wall.translate(0, 0, -5);
+		wall.setRenderBackend(r);
+		wall.fillShape(null, new Point(0, 0, 10), ColorUtil.FULL);
+		r.finish();
+		for (int p : r.getFramebuffer()) {
+			assertEquals(BLUE, p);
+		}
+		r.dispose();
+	}
+
+	@Ignore("Benchmark: renders 1280x720 frames at several thread counts")
+	@Test
+	public void testThroughput() {
+		Shape[] shapes = new Shape[16];
+		for (int i = 0; i < shapes.length; i++) {
+			shapes[i] = Shape.newSphereInstance(4 * (i % 4) - 6,
+					3 * (i / 4) - 4.5, -10, 1.5, 40);
+		}
+		int frames = 5;
+		for (int threads : new int[] { 1, 2, 4, 8, 16 }) {
+			SoftwareRasterizer r = new SoftwareRasterizer(1280, 720, threads);
+			r.setCamera(camera(10));
+			// Submitting lights, projects, clips and queues the triangles on
+			// this thread; finishing bins them, then rasterizes in parallel.
+			long submit = 0;
+			long finish = 0;
+			long triangles = 0;
+			for (int f = 0; f <= frames; f++) {
+				long start = System.nanoTime();
+				r.clear(BLACK);
+				for (Shape s : shapes) {
+					s.setRenderBackend(r);
+					s.fillShape(Color.RED, new Point(0, 10, 10),
+							ColorUtil.FULL_SHADE);
+				}
+				triangles = r.getQueuedCount();
+				long submitted = System.nanoTime();
+				r.finish();
+				long end = System.nanoTime();
+				// The first frame warms up.
+				if (f > 0) {
+					submit += submitted - start;
+					finish += end - submitted;
+				}
+			}
+			r.dispose();
+			System.out.println(threads + " threads: "
+					+ (long) (triangles * frames / ((submit + finish) / 1e9))
+					+ " triangles/s, " + submit / frames / 1000000
+					+ " ms submitting and " + finish / frames / 1000000
+					+ " ms finishing per frame");
+			assertTrue(triangles > 0);
+		}
+	}
+
+}
@@ -32,12 +32,10 @@ public class Triangle {
 		this.b = b;
 		this.c = c;
 		this.color = Color.WHITE;
-		this.normal = Vector.cross(new Vector(a, c), new Vector(a, b))
-				.toUnitVector();
-
-		this.center = new Point((a.getX() + b.getX() + c.getX()) / 3, (a.getY()
-				+ b.getY() + c.getY()) / 3,
-				(a.getZ() + b.getZ() + c.getZ()) / 3);
+		this.normal = new Vector(0, 0, 0);
+		this.center = new Point(0, 0, 0);
+		this.calculateNormal();
+		this.calculateCenter();
 	}
 
 	/**
@@ -51,15 +49,15 @@ public class Triangle {
 	public void draw(int mode) {
 		switch (mode) {
 		case Triangle.FILL_MODE:
-			GL11.glColor3d(this.color.getRed(), this.color.getGreen(),
-					this.color.getBlue());
+			GL11.glColor3d(this.getColor().getRed(), this.getColor().getGreen(),
+					this.getColor().getBlue());
 			this.a.drawPointGL();
 			this.b.drawPointGL();
 			this.c.drawPointGL();
 			break;
 		case Triangle.LINE_MODE:
-			GL11.glColor3d(this.color.getRed(), this.color.getGreen(),
-					this.color.getBlue());
+			GL11.glColor3d(this.getColor().getRed(), this.getColor().getGreen(),
+					this.getColor().getBlue());
 			this.a.drawPointGL();
 			this.b.drawPointGL();
 			this.b.drawPointGL();
@@ -68,8 +66,8 @@ public class Triangle {
 			this.a.drawPointGL();
 			break;
 		default:
-			GL11.glColor3d(this.color.getRed(), this.color.getGreen(),
-					this.color.getBlue());
+			GL11.glColor3d(this.getColor().getRed(), this.getColor().getGreen(),
+					this.getColor().getBlue());
 			this.a.drawPointGL();
 			this.b.drawPointGL();
 			this.c.drawPointGL();
@@ -89,18 +87,24 @@ public class Triangle {
 		return p;
 	}
 
+	/**
+	 * Returns a new {@link Vector} holding the unit normal, (c - a) x (b - a).
+	 */
 	public Vector getNormal() {
 		this.calculateNormal();
-		return this.normal;
+		return this.normal.clone();
 	}
 
 	public void shade(double frac, int mode) {
-		this.color = ColorUtil.shade(this.color, frac, mode);
+		this.setColor(ColorUtil.shade(this.getColor(), frac, mode));
 	}
 
+	/**
+	 * Returns a new {@link Point} at the centroid of the triangle.
+	 */
 	public Point getCenter() {
 		this.calculateCenter();
-		return this.center;
+		return new Point(this.center);
 	}
 
 	public void setColor(Color c) {
@@ -108,18 +112,18 @@ public class Triangle {
 	}
 
 	public boolean isColliding(Triangle c) {
-		double planeConst1 = -this.a.toVector().dot(this.normal);
-		double distA1 = c.a.toVector().dot(this.normal) + planeConst1;
-		double distB1 = c.b.toVector().dot(this.normal) + planeConst1;
-		double distC1 = c.c.toVector().dot(this.normal) + planeConst1;
+		double planeConst1 = -dot(this.a, this.normal);
+		double distA1 = dot(c.a, this.normal) + planeConst1;
+		double distB1 = dot(c.b, this.normal) + planeConst1;
+		double distC1 = dot(c.c, this.normal) + planeConst1;
 		if((distA1>0&&distB1>0&&distC1>0)||(distA1<0&&distB1<0&&distC1<0)){
 			//Triangle didn't intersect plane
 			return false;
 		}
-		double planeConst2 = -c.a.toVector().dot(c.normal);
-		double distA2 = this.a.toVector().dot(c.normal) + planeConst2;
-		double distB2 = this.b.toVector().dot(c.normal) + planeConst2;
-		double distC2 = this.c.toVector().dot(c.normal) + planeConst2;
+		double planeConst2 = -dot(c.a, c.normal);
+		double distA2 = dot(this.a, c.normal) + planeConst2;
+		double distB2 = dot(this.b, c.normal) + planeConst2;
+		double distC2 = dot(this.c, c.normal) + planeConst2;
 		if((distA2>0&&distB2>0&&distC2>0)||(distA2<0&&distB2<0&&distC2<0)){
 			//Triangle didn't intersect plane
 			return false;
@@ -209,10 +213,10 @@ public class Triangle {
 			d0 = distB;
 			d2 = distC;
 			
-			p1 = a.toVector().dot(lineL);
+			p1 = dot(a, lineL);
 			
-			p0 = b.toVector().dot(lineL);
-			p2 = this.c.toVector().dot(lineL);
+			p0 = dot(b, lineL);
+			p2 = dot(this.c, lineL);
 		}
 		
 		if(odd==this.b){
@@ -221,10 +225,10 @@ public class Triangle {
 			d0 = distA;
 			d2 = distC;
 			
-			p1 = b.toVector().dot(lineL);
+			p1 = dot(b, lineL);
 			
-			p0 = a.toVector().dot(lineL);
-			p2 = this.c.toVector().dot(lineL);
+			p0 = dot(a, lineL);
+			p2 = dot(this.c, lineL);
 		}
 		
 		if(odd==this.c){
@@ -233,10 +237,10 @@ public class Triangle {
 			d0 = distB;
 			d2 = distA;
 			
-			p1 = this.c.toVector().dot(lineL);
+			p1 = dot(this.c, lineL);
 			
-			p0 = b.toVector().dot(lineL);
-			p2 = a.toVector().dot(lineL);
+			p0 = dot(b, lineL);
+			p2 = dot(a, lineL);
 		}
 		
 		double t1 = p0 + (p1 - p0)*(d0/(d0-d1));
@@ -249,14 +253,28 @@ public class Triangle {
 		return out;
 	}
 
+	private static double dot(Point p, Vector v) {
+		return Vector.dot(p.getX(), p.getY(), p.getZ(), v.getX(), v.getY(),
+				v.getZ());
+	}
+
 	private void calculateNormal() {
-		this.normal = Vector.cross(new Vector(a, c), new Vector(a, b))
-				.toUnitVector();
+		// (c - a) x (b - a)
+		double acx = c.getX() - a.getX();
+		double acy = c.getY() - a.getY();
+		double acz = c.getZ() - a.getZ();
+		double abx = b.getX() - a.getX();
+		double aby = b.getY() - a.getY();
+		double abz = b.getZ() - a.getZ();
+		this.normal.set(Vector.crossX(acx, acy, acz, abx, aby, abz),
+				Vector.crossY(acx, acy, acz, abx, aby, abz),
+				Vector.crossZ(acx, acy, acz, abx, aby, abz));
+		this.normal.normalizeInPlace();
 	}
 
 	private void calculateCenter() {
-		this.center = new Point((a.getX() + b.getX() + c.getX()) / 3, (a.getY()
-				+ b.getY() + c.getY()) / 3,
-				(a.getZ() + b.getZ() + c.getZ()) / 3);
+		this.center.setX((a.getX() + b.getX() + c.getX()) / 3);
+		this.center.setY((a.getY() + b.getY() + c.getY()) / 3);
+		this.center.setZ((a.getZ() + b.getZ() + c.getZ()) / 3);
 	}
 }
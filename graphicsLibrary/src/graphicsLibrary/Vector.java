@@ -4,6 +4,8 @@ package graphicsLibrary;
  * A class to represent geometric vectors in 3D space.
  * 
  * Each {@code Vector} has an x-, y-, and z-component, along with a magnitude.
+ * The magnitude is only calculated the first time it is asked for, and is
+ * kept until the {@code Vector} changes.
  * The direction of the {@code Vector} can be returned by included methods.
  * 
  * @author caudeljn
@@ -13,7 +15,9 @@ public class Vector {
 	private double x;
 	private double y;
 	private double z;
+	// Negative when the magnitude has not been calculated yet.
 	private double magnitude;
+	private static final double UNKNOWN = -1;
 
 	/**
 	 * Constructs a new {@Code Vector} with the given x, y, and z
@@ -27,7 +31,7 @@ public class Vector {
 		this.x = x;
 		this.y = y;
 		this.z = z;
-		this.magnitude = Math.sqrt(x * x + y * y + z * z);
+		this.magnitude = UNKNOWN;
 	}
 
 	/**
@@ -39,11 +43,11 @@ public class Vector {
 	 *            -Vector direction of new vector
 	 */
 	public Vector(double magnitude, Vector direction) {
-		this.magnitude = magnitude;
-		direction = direction.toUnitVector();
-		this.x = magnitude * direction.x;
-		this.y = magnitude * direction.y;
-		this.z = magnitude * direction.z;
+		double scale = magnitude / direction.getMagnitude();
+		this.x = scale * direction.x;
+		this.y = scale * direction.y;
+		this.z = scale * direction.z;
+		this.magnitude = Math.abs(magnitude);
 
 	}
 
@@ -91,9 +95,22 @@ public class Vector {
 	 * @return magnitude, as a double
 	 */
 	public double getMagnitude() {
+		if (this.magnitude < 0) {
+			this.magnitude = this.calculateMagnitude();
+		}
 		return this.magnitude;
 	}
 
+	/**
+	 * Returns the square of the magnitude of the {@code Vector}. Cheaper than
+	 * {@link #getMagnitude()} when only comparing lengths.
+	 * 
+	 * @return magnitude squared, as a double
+	 */
+	public double magnitudeSquared() {
+		return this.x * this.x + this.y * this.y + this.z * this.z;
+	}
+
 	/**
 	 * Returns a new {@code Vector} in the same direction as this {@code Vector}
 	 * , with a magnitude of one.
@@ -101,8 +118,8 @@ public class Vector {
 	 * @return new {@code Vector} with magnitude 1.
 	 */
 	public Vector toUnitVector() {
-		return new Vector(x / this.magnitude, y / this.magnitude, z
-				/ this.magnitude);
+		double magnitude = this.getMagnitude();
+		return new Vector(x / magnitude, y / magnitude, z / magnitude);
 	}
 
 	/**
@@ -125,7 +142,9 @@ public class Vector {
 		this.x *= c;
 		this.y *= c;
 		this.z *= c;
-		this.magnitude *= c;
+		if (this.magnitude >= 0) {
+			this.magnitude *= Math.abs(c);
+		}
 	}
 	
 	public Vector multiply(double c){
@@ -142,7 +161,7 @@ public class Vector {
 		this.x += v.getX();
 		this.y += v.getY();
 		this.z += v.getZ();
-		this.magnitude = this.calculateMagnitude();
+		this.magnitude = UNKNOWN;
 	}
 
 	/**
@@ -226,7 +245,8 @@ public class Vector {
 	 */
 	public double getAngle(Vector v) {
 		double dot = this.dot(v);
-		double cosTheta = dot / (this.magnitude * v.magnitude);
+		double cosTheta = dot
+				/ Math.sqrt(this.magnitudeSquared() * v.magnitudeSquared());
 		double angle = Math.acos(cosTheta);
 		return angle;
 	}
@@ -242,7 +262,8 @@ public class Vector {
 	 */
 	public static double getAngle(Vector a, Vector b) {
 		double dot = Vector.dot(a, b);
-		double cosTheta = dot / (a.magnitude * b.magnitude);
+		double cosTheta = dot
+				/ Math.sqrt(a.magnitudeSquared() * b.magnitudeSquared());
 		double angle = Math.acos(cosTheta);
 		return angle;
 	}
@@ -287,6 +308,241 @@ public class Vector {
 		return new Vector(magnitude, direction);
 	}
 	
+	/**
+	 * Sets the components of the {@code Vector}.
+	 * 
+	 * @param x
+	 * @param y
+	 * @param z
+	 */
+	public void set(double x, double y, double z) {
+		this.x = x;
+		this.y = y;
+		this.z = z;
+		this.magnitude = UNKNOWN;
+	}
+
+	/**
+	 * Sets this {@code Vector} to a copy of the given {@code Vector}.
+	 * 
+	 * @param v
+	 *            -{@code Vector} to copy
+	 */
+	public void set(Vector v) {
+		this.x = v.x;
+		this.y = v.y;
+		this.z = v.z;
+		this.magnitude = v.magnitude;
+	}
+
+	/**
+	 * Scales this {@code Vector} to a magnitude of one. A zero
+	 * {@code Vector} is left as it is.
+	 */
+	public void normalizeInPlace() {
+		double magnitude = this.getMagnitude();
+		if (magnitude != 0) {
+			this.x /= magnitude;
+			this.y /= magnitude;
+			this.z /= magnitude;
+			this.magnitude = 1;
+		}
+	}
+
+	/**
+	 * Multiplies this {@code Vector} by -1.
+	 */
+	public void negate() {
+		this.x = -this.x;
+		this.y = -this.y;
+		this.z = -this.z;
+	}
+
+	/**
+	 * Stores the sum of a and b in dst. dst may be a or b.
+	 * 
+	 * @param a
+	 *            -first {@code Vector} to add
+	 * @param b
+	 *            -second {@code Vector} to add
+	 * @param dst
+	 *            -{@code Vector} to hold the result
+	 * @return dst
+	 */
+	public static Vector add(Vector a, Vector b, Vector dst) {
+		dst.set(a.x + b.x, a.y + b.y, a.z + b.z);
+		return dst;
+	}
+
+	/**
+	 * Adds v, multiplied by s, to dst.
+	 * 
+	 * @param dst
+	 *            -{@code Vector} to add to
+	 * @param v
+	 *            -{@code Vector} to add
+	 * @param s
+	 *            -amount by which to multiply v
+	 * @return dst
+	 */
+	public static Vector addScaled(Vector dst, Vector v, double s) {
+		dst.set(dst.x + v.x * s, dst.y + v.y * s, dst.z + v.z * s);
+		return dst;
+	}
+
+	/**
+	 * Stores v multiplied by c in dst. dst may be v.
+	 * 
+	 * @param v
+	 *            -{@code Vector} to multiply
+	 * @param c
+	 *            -double by which to multiply v
+	 * @param dst
+	 *            -{@code Vector} to hold the result
+	 * @return dst
+	 */
+	public static Vector multiply(Vector v, double c, Vector dst) {
+		dst.set(v.x * c, v.y * c, v.z * c);
+		return dst;
+	}
+
+	/**
+	 * Stores the {@code Vector} from {@link Point} a to {@code Point} b in dst.
+	 * 
+	 * @param a
+	 *            -start of the {@code Vector}
+	 * @param b
+	 *            -end of the {@code Vector}
+	 * @param dst
+	 *            -{@code Vector} to hold the result
+	 * @return dst
+	 */
+	public static Vector between(Point a, Point b, Vector dst) {
+		dst.set(b.getX() - a.getX(), b.getY() - a.getY(), b.getZ() - a.getZ());
+		return dst;
+	}
+
+	/**
+	 * Stores the cross product of a and b in dst. dst may be a or b.
+	 * 
+	 * @param a
+	 *            -first {@code Vector}
+	 * @param b
+	 *            -second {@code Vector}
+	 * @param dst
+	 *            -{@code Vector} to hold the result
+	 * @return dst
+	 */
+	public static Vector cross(Vector a, Vector b, Vector dst) {
+		dst.set(crossX(a.x, a.y, a.z, b.x, b.y, b.z),
+				crossY(a.x, a.y, a.z, b.x, b.y, b.z),
+				crossZ(a.x, a.y, a.z, b.x, b.y, b.z));
+		return dst;
+	}
+
+	/**
+	 * Stores the {@code Vector} v with a magnitude of one in dst. dst may be v.
+	 * 
+	 * @param v
+	 *            -{@code Vector} to normalize
+	 * @param dst
+	 *            -{@code Vector} to hold the result
+	 * @return dst
+	 */
+	public static Vector toUnitVector(Vector v, Vector dst) {
+		dst.set(v);
+		dst.normalizeInPlace();
+		return dst;
+	}
+
+	/**
+	 * Stores the projection of {@code Vector} a ONTO {@code Vector} b in dst.
+	 * dst may be a or b.
+	 * 
+	 * @param a
+	 *            -{@code Vector} to project
+	 * @param b
+	 *            -{@code Vector} on which to project
+	 * @param dst
+	 *            -{@code Vector} to hold the result
+	 * @return dst
+	 */
+	public static Vector project(Vector a, Vector b, Vector dst) {
+		double m = Vector.dot(a, b) / Vector.dot(b, b);
+		return multiply(b, m, dst);
+	}
+
+	/**
+	 * Returns the dot product of the two vectors given by their components.
+	 * 
+	 * @return dot product, as a double
+	 */
+	public static double dot(double ax, double ay, double az, double bx,
+			double by, double bz) {
+		return ax * bx + ay * by + az * bz;
+	}
+
+	/**
+	 * Returns the x-component of the cross product of the two vectors given
+	 * by their components.
+	 */
+	public static double crossX(double ax, double ay, double az, double bx,
+			double by, double bz) {
+		return ay * bz - az * by;
+	}
+
+	/**
+	 * Returns the y-component of the cross product of the two vectors given
+	 * by their components.
+	 */
+	public static double crossY(double ax, double ay, double az, double bx,
+			double by, double bz) {
+		return az * bx - ax * bz;
+	}
+
+	/**
+	 * Returns the z-component of the cross product of the two vectors given
+	 * by their components.
+	 */
+	public static double crossZ(double ax, double ay, double az, double bx,
+			double by, double bz) {
+		return ax * by - ay * bx;
+	}
+
+	/**
+	 * Returns the magnitude of the vector with the given components.
+	 * 
+	 * @return magnitude, as a double
+	 */
+	public static double magnitude(double x, double y, double z) {
+		return Math.sqrt(x * x + y * y + z * z);
+	}
+
+	/**
+	 * Returns the square of the magnitude of the vector with the given
+	 * components.
+	 * 
+	 * @return magnitude squared, as a double
+	 */
+	public static double magnitudeSquared(double x, double y, double z) {
+		return x * x + y * y + z * z;
+	}
+
+	/**
+	 * Returns the square of the distance between the two {@link Point}s.
+	 * Cheaper than the distance itself when only comparing distances.
+	 * 
+	 * @param a
+	 *            -first {@code Point}
+	 * @param b
+	 *            -second {@code Point}
+	 * @return distance squared, as a double
+	 */
+	public static double distanceSquared(Point a, Point b) {
+		return magnitudeSquared(b.getX() - a.getX(), b.getY() - a.getY(),
+				b.getZ() - a.getZ());
+	}
+
 	/**
 	 * Returns a new {@link Point} with the same arguments as this {@code Vector}
 	 * @return new {@code Point}
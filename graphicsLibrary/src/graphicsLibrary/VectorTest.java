@@ -16,4 +16,41 @@ public class VectorTest {
 
 	}
 
+	@Test
+	public void testDestination() {
+		Vector a = new Vector(1,2,5);
+		Vector b = new Vector(3,6,15);
+		Vector dst = new Vector(0,0,0);
+		
+		assertTrue(Vector.multiply(a, 3, dst) == dst);
+		assertTrue(dst.equals(b));
+		assertTrue(Vector.cross(a, b, dst).equals(new Vector(0,0,0)));
+		assertTrue(Vector.cross(new Vector(1,0,0), new Vector(0,1,0), dst)
+				.equals(new Vector(0,0,1)));
+		
+		dst.set(a);
+		Vector.addScaled(dst, a, 2);
+		assertTrue(dst.equals(b));
+		dst.normalizeInPlace();
+		assertEquals(1, dst.getMagnitude(), 1e-12);
+		assertTrue(dst.equals(b.toUnitVector()));
+	}
+
+	@Test
+	public void testMagnitude() {
+		Vector a = new Vector(2,3,6);
+		assertEquals(49, a.magnitudeSquared(), 0);
+		assertEquals(7, a.getMagnitude(), 0);
+		
+		a.multiplyBy(-2);
+		assertEquals(14, a.getMagnitude(), 0);
+		a.add(new Vector(4,6,12));
+		assertEquals(0, a.getMagnitude(), 0);
+		a.set(0,3,4);
+		assertEquals(5, a.getMagnitude(), 0);
+		
+		assertEquals(25, Vector.distanceSquared(new Point(1,1,1),
+				new Point(1,4,5)), 0);
+	}
+
 }
@@ -0,0 +1,70 @@
+package graphicsLibrary;
+
+import java.nio.FloatBuffer;
+
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL15;
+
+/**
+ * A {@link RenderBackend} that draws through an OpenGL vertex buffer object.
+ *
+ * Each batch is copied into the buffer with one call and drawn with
+ * {@code glDrawArrays}. The buffer is made on the first draw, so a
+ * {@code VertexBufferBackend} can be made before there is an OpenGL
+ * context, but must only draw while one is current. It grows to the
+ * largest batch drawn, and is orphaned before each upload so the driver
+ * does not wait for the last draw to finish.
+ *
+ * @author caudeljn
+ *
+ */
+public class VertexBufferBackend implements RenderBackend {
+	private static final int STRIDE = 4 * FLOATS_PER_VERTEX;
+
+	private int buffer = -1;
+	private long capacity;
+
+	@Override
+	public void drawTriangles(FloatBuffer vertices, int vertexCount) {
+		if (vertexCount == 0) {
+			return;
+		}
+		if (this.buffer < 0) {
+			this.buffer = GL15.glGenBuffers();
+		}
+		vertices.position(0);
+		vertices.limit(FLOATS_PER_VERTEX * vertexCount);
+		long size = (long) STRIDE * vertexCount;
+		GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, this.buffer);
+		if (size > this.capacity) {
+			GL15.glBufferData(GL15.GL_ARRAY_BUFFER, vertices,
+					GL15.GL_STREAM_DRAW);
+			this.capacity = size;
+		} else {
+			GL15.glBufferData(GL15.GL_ARRAY_BUFFER, this.capacity,
+					GL15.GL_STREAM_DRAW);
+			GL15.glBufferSubData(GL15.GL_ARRAY_BUFFER, 0, vertices);
+		}
+		vertices.clear();
+
+		GL11.glEnableClientState(GL11.GL_VERTEX_ARRAY);
+		GL11.glEnableClientState(GL11.GL_COLOR_ARRAY);
+		GL11.glVertexPointer(3, GL11.GL_FLOAT, STRIDE, 0);
+		GL11.glColorPointer(3, GL11.GL_FLOAT, STRIDE, 12);
+		GL11.glDrawArrays(GL11.GL_TRIANGLES, 0, vertexCount);
+		GL11.glDisableClientState(GL11.GL_COLOR_ARRAY);
+		GL11.glDisableClientState(GL11.GL_VERTEX_ARRAY);
+		GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+	}
+
+	/**
+	 * Deletes the OpenGL buffer. The next draw makes a new one.
+	 */
+	public void dispose() {
+		if (this.buffer >= 0) {
+			GL15.glDeleteBuffers(this.buffer);
+			this.buffer = -1;
+			this.capacity = 0;
+		}
+	}
+}
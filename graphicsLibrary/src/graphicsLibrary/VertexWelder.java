@@ -0,0 +1,253 @@
+package graphicsLibrary;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+/**
+ * A class to merge duplicate vertices into a single list.
+ *
+ * Each vertex added is looked up in a hash table, so welding n vertices takes
+ * O(n) time. There are three ways to decide whether two vertices are the
+ * same:
+ * <ul>
+ * <li>{@link #identity()}: only the same {@link Point} object is merged.</li>
+ * <li>{@code new VertexWelder(0)}: vertices with exactly equal coordinates
+ * are merged.</li>
+ * <li>{@code new VertexWelder(epsilon)}: vertices no more than epsilon apart
+ * are merged into the first one added.</li>
+ * </ul>
+ *
+ * @author caudeljn
+ *
+ */
+public class VertexWelder {
+	private final double epsilon;
+	// Only used by identity welders.
+	private final IdentityHashMap<Point, Integer> identities;
+
+	private double[] coords;
+	private int vertexCount;
+	private int addedCount;
+	// First vertex in each bucket, or -1; next[i] is the vertex after i in
+	// its bucket.
+	private int[] heads;
+	private int[] next;
+
+	/**
+	 * Constructs a new {@code VertexWelder} that merges vertices no more than
+	 * the given distance apart.
+	 *
+	 * @param epsilon
+	 *            -largest distance between merged vertices; 0 merges only
+	 *            exactly equal vertices
+	 * @throws IllegalArgumentException
+	 *             if epsilon is negative or not a number
+	 */
+	public VertexWelder(double epsilon) throws IllegalArgumentException {
+		this(epsilon, false);
+	}
+
+	private VertexWelder(double epsilon, boolean identity)
+			throws IllegalArgumentException {
+		if (!(epsilon >= 0)) {
+			throw new IllegalArgumentException("Negative epsilon: " + epsilon);
+		}
+		this.epsilon = epsilon;
+		this.identities = identity ? new IdentityHashMap<Point, Integer>()
+				: null;
+		this.coords = new double[3 * 16];
+		this.next = new int[16];
+		this.heads = new int[32];
+		Arrays.fill(this.heads, -1);
+	}
+
+	/**
+	 * Returns a {@code VertexWelder} that only merges points that are the same
+	 * object, when they are added with {@link #add(Point)}.
+	 */
+	public static VertexWelder identity() {
+		return new VertexWelder(0, true);
+	}
+
+	public double getEpsilon() {
+		return this.epsilon;
+	}
+
+	/**
+	 * Returns the number of distinct vertices.
+	 */
+	public int getVertexCount() {
+		return this.vertexCount;
+	}
+
+	/**
+	 * Returns the number of vertices that were merged into an earlier one.
+	 */
+	public int getMergedCount() {
+		return this.addedCount - this.vertexCount;
+	}
+
+	public double getX(int vertex) {
+		return this.coords[3 * vertex];
+	}
+
+	public double getY(int vertex) {
+		return this.coords[3 * vertex + 1];
+	}
+
+	public double getZ(int vertex) {
+		return this.coords[3 * vertex + 2];
+	}
+
+	/**
+	 * Returns a copy of the distinct vertices, as x, y, z triples.
+	 */
+	public double[] getVertices() {
+		return Arrays.copyOf(this.coords, 3 * this.vertexCount);
+	}
+
+	/**
+	 * Adds the given point. For identity welders, the point is only merged
+	 * with earlier calls given the same object.
+	 *
+	 * @return index of the distinct vertex the point was merged into
+	 */
+	public int add(Point p) {
+		if (this.identities == null) {
+			return this.add(p.getX(), p.getY(), p.getZ());
+		}
+		this.addedCount++;
+		Integer existing = this.identities.get(p);
+		if (existing == null) {
+			existing = this.append(p.getX(), p.getY(), p.getZ(), -1);
+			this.identities.put(p, existing);
+		}
+		return existing;
+	}
+
+	/**
+	 * Adds the given vertex. Identity welders never merge vertices added this
+	 * way.
+	 *
+	 * @return index of the distinct vertex the vertex was merged into
+	 */
+	public int add(double x, double y, double z) {
+		this.addedCount++;
+		if (this.identities != null) {
+			return this.append(x, y, z, -1);
+		}
+		if (this.epsilon == 0) {
+			// Adding 0 turns -0.0 into 0.0, so they hash the same.
+			x += 0.0;
+			y += 0.0;
+			z += 0.0;
+			int bucket = this.bucket(Double.doubleToLongBits(x),
+					Double.doubleToLongBits(y), Double.doubleToLongBits(z));
+			for (int v = this.heads[bucket]; v >= 0; v = this.next[v]) {
+				int i = 3 * v;
+				if (this.coords[i] == x && this.coords[i + 1] == y
+						&& this.coords[i + 2] == z) {
+					return v;
+				}
+			}
+			return this.append(x, y, z, bucket);
+		}
+
+		// Vertices within epsilon are in the same or a neighbouring cell.
+		double e = this.epsilon;
+		long cx = (long) Math.floor(x / e);
+		long cy = (long) Math.floor(y / e);
+		long cz = (long) Math.floor(z / e);
+		double limit = e * e;
+		for (long dx = -1; dx <= 1; dx++) {
+			for (long dy = -1; dy <= 1; dy++) {
+				for (long dz = -1; dz <= 1; dz++) {
+					int bucket = this.bucket(cx + dx, cy + dy, cz + dz);
+					for (int v = this.heads[bucket]; v >= 0; v = this.next[v]) {
+						if (Vector.magnitudeSquared(this.coords[3 * v] - x,
+								this.coords[3 * v + 1] - y,
+								this.coords[3 * v + 2] - z) <= limit) {
+							return v;
+						}
+					}
+				}
+			}
+		}
+		return this.append(x, y, z, this.bucket(cx, cy, cz));
+	}
+
+	/**
+	 * Welds the given number of vertices, stored as x, y, z triples.
+	 *
+	 * @param coords
+	 *            -vertices to weld
+	 * @param count
+	 *            -number of vertices
+	 * @return for each given vertex, the index of the distinct vertex it was
+	 *         merged into
+	 */
+	public int[] addAll(double[] coords, int count) {
+		int[] out = new int[count];
+		for (int i = 0; i < count; i++) {
+			out[i] = this.add(coords[3 * i], coords[3 * i + 1],
+					coords[3 * i + 2]);
+		}
+		return out;
+	}
+
+	/**
+	 * Adds a distinct vertex, and puts it in the given bucket unless the
+	 * bucket is -1.
+	 */
+	private int append(double x, double y, double z, int bucket) {
+		int v = this.vertexCount;
+		if (v == this.next.length) {
+			this.coords = Arrays.copyOf(this.coords, 6 * v);
+			this.next = Arrays.copyOf(this.next, 2 * v);
+		}
+		this.coords[3 * v] = x;
+		this.coords[3 * v + 1] = y;
+		this.coords[3 * v + 2] = z;
+		this.vertexCount++;
+		if (bucket >= 0) {
+			this.next[v] = this.heads[bucket];
+			this.heads[bucket] = v;
+			if (this.vertexCount > this.heads.length / 2) {
+				this.rehash();
+			}
+		}
+		return v;
+	}
+
+	/**
+	 * Doubles the number of buckets and puts every vertex back in.
+	 */
+	private void rehash() {
+		this.heads = new int[2 * this.heads.length];
+		Arrays.fill(this.heads, -1);
+		double e = this.epsilon;
+		for (int v = 0; v < this.vertexCount; v++) {
+			double x = this.coords[3 * v];
+			double y = this.coords[3 * v + 1];
+			double z = this.coords[3 * v + 2];
+			int bucket;
+			if (e == 0) {
+				bucket = this.bucket(Double.doubleToLongBits(x),
+						Double.doubleToLongBits(y), Double.doubleToLongBits(z));
+			} else {
+				bucket = this.bucket((long) Math.floor(x / e),
+						(long) Math.floor(y / e), (long) Math.floor(z / e));
+			}
+			this.next[v] = this.heads[bucket];
+			this.heads[bucket] = v;
+		}
+	}
+
+	private int bucket(long a, long b, long c) {
+		long h = a * 0x9E3779B97F4A7C15L;
+		h = (h ^ (h >>> 29) ^ b) * 0xBF58476D1CE4E5B9L;
+		h = (h ^ (h >>> 32) ^ c) * 0x94D049BB133111EBL;
+		h ^= h >>> 31;
+		return (int) h & (this.heads.length - 1);
+	}
+}